@@ -0,0 +1,65 @@
+package jx3d.core;
+
+import jx3d.graphics.PerspectiveCamera;
+import jx3d.math.RayHits;
+import org.joml.AABBf;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of picking the nodes under the cursor among 50 000 pickable nodes spread out in front of the camera.
+ * Run with <code>gradlew :CoreEngine:jmh -PjmhArgs=NodePickerBenchmark</code>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NodePickerBenchmark {
+
+    private static final int NODES = 50_000;
+
+    private NodePicker picker;
+    private float[] cursor;
+    private int index;
+
+    @Setup
+    public void setup() {
+        PerspectiveCamera camera = new PerspectiveCamera();
+        camera.setAspectRatio(1);
+        camera.setFar(1000);
+        picker = new NodePicker(camera);
+
+        Random random = new Random(42);
+        for (int i = 0; i < NODES; i++) {
+            Node node = new Node() { };
+            node.setBounds(new AABBf(-0.5f, -0.5f, -0.5f, 0.5f, 0.5f, 0.5f));
+            float z = -10 - random.nextFloat() * 500;
+            node.getTransform().setPos(new Vector3f((random.nextFloat() - 0.5f) * z, (random.nextFloat() - 0.5f) * z, z));
+            picker.add(node);
+        }
+        cursor = new float[256];
+        for (int i = 0; i < cursor.length; i++) {
+            cursor[i] = random.nextFloat() * 1000;
+        }
+        picker.pick(500, 500, 1000, 1000);
+    }
+
+    @Benchmark
+    public int pick() {
+        index = (index + 2) & (cursor.length - 1);
+        RayHits<Node> hits = picker.pick(cursor[index], cursor[index + 1], 1000, 1000);
+        return hits.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void rebuild() {
+        picker.invalidate();
+        picker.pick(500, 500, 1000, 1000);
+    }
+}
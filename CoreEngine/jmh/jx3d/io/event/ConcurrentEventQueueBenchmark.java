@@ -0,0 +1,72 @@
+package jx3d.io.event;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark of contended producers posting events to a single consumer.
+ * The lock-free ring buffer is compared against a {@link ConcurrentLinkedQueue} which allocates a node per event.
+ * Run with <code>gradlew :CoreEngine:jmh -PjmhArgs=ConcurrentEventQueueBenchmark</code>.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ConcurrentEventQueueBenchmark {
+
+    private ConcurrentEventQueue ringBuffer;
+    private ConcurrentLinkedQueue<Event> linkedQueue;
+    private AtomicInteger linkedQueueSize;
+    private GenericEvent event;
+
+    @Setup
+    public void setup() {
+        ringBuffer = new ConcurrentEventQueue(1024);
+        linkedQueue = new ConcurrentLinkedQueue<>();
+        linkedQueueSize = new AtomicInteger();
+        event = new GenericEvent("tick_done", "benchmark");
+    }
+
+    @Benchmark
+    @Group("ringBuffer")
+    @GroupThreads(4)
+    public boolean ringBufferProducer() {
+        return ringBuffer.offer(event);
+    }
+
+    @Benchmark
+    @Group("ringBuffer")
+    @GroupThreads(1)
+    public void ringBufferConsumer(Blackhole bh) {
+        bh.consume(ringBuffer.poll());
+    }
+
+    @Benchmark
+    @Group("linkedQueue")
+    @GroupThreads(4)
+    public boolean linkedQueueProducer() {
+        // Bound the queue like the ring buffer so the benchmark does not run out of memory.
+        if (linkedQueueSize.incrementAndGet() > 1024) {
+            linkedQueueSize.decrementAndGet();
+            return false;
+        }
+        return linkedQueue.offer(event);
+    }
+
+    @Benchmark
+    @Group("linkedQueue")
+    @GroupThreads(1)
+    public void linkedQueueConsumer(Blackhole bh) {
+        Event polled = linkedQueue.poll();
+        if (polled != null) {
+            linkedQueueSize.decrementAndGet();
+        }
+        bh.consume(polled);
+    }
+}
@@ -0,0 +1,158 @@
+package jx3d.io.event;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of dispatching a mouse event to 16 listeners that are instances of 1, 4 or 16 different classes.
+ * The pre-bound handlers used by the {@link EventDispatcher} are compared against the previous
+ * implementation that checked the event type and switched over it for every listener.
+ * Run with <code>gradlew :CoreEngine:jmh -PjmhArgs=ListenerInvocationBenchmark</code>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ListenerInvocationBenchmark {
+
+    private static final int LISTENERS = 16;
+
+    @Param({"1", "4", "16"})
+    public int classes;
+
+    private EventDispatcher dispatcher;
+    private Counter[] listeners;
+    private Listener[] entries;
+    private MouseEvent event;
+
+    @Setup
+    public void setup() {
+        dispatcher = new EventDispatcher();
+        listeners = new Counter[LISTENERS];
+        entries = new Listener[LISTENERS];
+        for (int i = 0; i < LISTENERS; i++) {
+            listeners[i] = create(i % classes);
+            entries[i] = listeners[i];
+            dispatcher.addListener(EventType.MouseMoved, listeners[i]);
+        }
+        event = new MouseEvent(EventType.MouseMoved, "bench", 0, 0, 1, 1, 1, 1, 0);
+    }
+
+    @Benchmark
+    public int preBound() {
+        dispatcher.dispatch(event);
+        return listeners[0].count;
+    }
+
+    @Benchmark
+    public int typeSwitch() {
+        // The listeners are stored as Listener like the old listener entries did.
+        for (Listener listener : entries) {
+            switchDispatch(listener, EventType.MouseMoved, 0, event);
+        }
+        return listeners[0].count;
+    }
+
+    /**
+     * Copy of the listener invocation that used to be done by the dispatcher for every listener.
+     */
+    private static void switchDispatch(Listener listener, EventType type, int categories, Event event) {
+        if (event.getType() == type || event.belongsTo(categories)) {
+            switch (event.getType()) {
+                case WindowMoved:
+                    ((WindowListener) listener).windowMoved((WindowEvent) event);
+                    break;
+                case WindowResize:
+                    ((WindowListener) listener).windowResized((WindowEvent) event);
+                    break;
+                case WindowFocus:
+                    ((WindowListener) listener).windowFocus((WindowEvent) event);
+                    break;
+                case WindowLostFocus:
+                    ((WindowListener) listener).windowLostFocus((WindowEvent) event);
+                    break;
+                case WindowIconified:
+                    ((WindowListener) listener).windowIconify((WindowEvent) event);
+                    break;
+                case WindowMaximized:
+                    ((WindowListener) listener).windowMaximize((WindowEvent) event);
+                    break;
+                case WindowClose:
+                    ((WindowListener) listener).windowClose((WindowEvent) event);
+                    break;
+                case MousePressed:
+                    ((MouseListener) listener).mousePressed((MouseEvent) event);
+                    break;
+                case MouseReleased:
+                    ((MouseListener) listener).mouseReleased((MouseEvent) event);
+                    break;
+                case MouseEntered:
+                    ((MouseListener) listener).mouseEntered((MouseEvent) event);
+                    break;
+                case MouseExited:
+                    ((MouseListener) listener).mouseExited((MouseEvent) event);
+                    break;
+                case MouseMoved:
+                    ((MouseListener) listener).mouseMoved((MouseEvent) event);
+                    break;
+                case MouseDragged:
+                    ((MouseListener) listener).mouseDragged((MouseEvent) event);
+                    break;
+                case MouseScrolled:
+                    ((MouseListener) listener).mouseScrolled((MouseScrollEvent) event);
+                    break;
+                case KeyDown:
+                    ((KeyListener) listener).keyDown((KeyEvent) event);
+                    break;
+                case KeyUp:
+                    ((KeyListener) listener).keyUp((KeyEvent) event);
+                    break;
+            }
+        }
+    }
+
+    static abstract class Counter extends EventAdapter {
+        int count;
+    }
+
+    static final class C0 extends Counter { @Override public void mouseMoved(MouseEvent e) { count += 1; } }
+    static final class C1 extends Counter { @Override public void mouseMoved(MouseEvent e) { count += 2; } }
+    static final class C2 extends Counter { @Override public void mouseMoved(MouseEvent e) { count += 3; } }
+    static final class C3 extends Counter { @Override public void mouseMoved(MouseEvent e) { count += 4; } }
+    static final class C4 extends Counter { @Override public void mouseMoved(MouseEvent e) { count += 5; } }
+    static final class C5 extends Counter { @Override public void mouseMoved(MouseEvent e) { count += 6; } }
+    static final class C6 extends Counter { @Override public void mouseMoved(MouseEvent e) { count += 7; } }
+    static final class C7 extends Counter { @Override public void mouseMoved(MouseEvent e) { count += 8; } }
+    static final class C8 extends Counter { @Override public void mouseMoved(MouseEvent e) { count += 9; } }
+    static final class C9 extends Counter { @Override public void mouseMoved(MouseEvent e) { count += 10; } }
+    static final class C10 extends Counter { @Override public void mouseMoved(MouseEvent e) { count += 11; } }
+    static final class C11 extends Counter { @Override public void mouseMoved(MouseEvent e) { count += 12; } }
+    static final class C12 extends Counter { @Override public void mouseMoved(MouseEvent e) { count += 13; } }
+    static final class C13 extends Counter { @Override public void mouseMoved(MouseEvent e) { count += 14; } }
+    static final class C14 extends Counter { @Override public void mouseMoved(MouseEvent e) { count += 15; } }
+    static final class C15 extends Counter { @Override public void mouseMoved(MouseEvent e) { count += 16; } }
+
+    private static Counter create(int type) {
+        switch (type) {
+            case 0: return new C0();
+            case 1: return new C1();
+            case 2: return new C2();
+            case 3: return new C3();
+            case 4: return new C4();
+            case 5: return new C5();
+            case 6: return new C6();
+            case 7: return new C7();
+            case 8: return new C8();
+            case 9: return new C9();
+            case 10: return new C10();
+            case 11: return new C11();
+            case 12: return new C12();
+            case 13: return new C13();
+            case 14: return new C14();
+            default: return new C15();
+        }
+    }
+}
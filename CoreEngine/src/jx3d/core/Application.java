@@ -1,14 +1,24 @@
 package jx3d.core;
 
+import jx3d.graphics.CommandBuffer;
 import jx3d.graphics.Graphics;
+import jx3d.io.AssetWatcher;
 import jx3d.io.Files;
 import jx3d.io.Input;
+import jx3d.io.event.ConcurrentEventQueue;
+import jx3d.io.event.DispatchMetrics;
 import jx3d.io.event.Event;
 import jx3d.io.event.EventAdapter;
+import jx3d.io.event.EventQueue;
+import jx3d.io.event.EventRecorder;
+import jx3d.io.event.EventReplayer;
 import jx3d.io.event.EventType;
+import jx3d.io.event.LatencyHistogram;
 
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * Application class is an abstract class that is used to define common methods and fields
@@ -37,6 +47,83 @@ public abstract class Application {
      */
     protected boolean running = true;
 
+    /**
+     * The queue used to coalesce events until they are processed at the start of the next frame.
+     * If null then queued events are dispatched immediately.
+     * @see #queueEvent(Event)
+     */
+    protected EventQueue eventQueue = null;
+
+    /**
+     * The default maximum number of events that can be posted from other threads between two frames.
+     */
+    public static final int DEFAULT_POSTED_EVENTS_CAPACITY = 1024;
+
+    /**
+     * Lock-free queue of events posted from any thread, see {@link #postEvent(Event)}.
+     */
+    protected ConcurrentEventQueue postedEvents = new ConcurrentEventQueue(DEFAULT_POSTED_EVENTS_CAPACITY);
+
+    /**
+     * Callback used when draining the {@link #eventQueue}, kept so that processing events does not allocate.
+     */
+    private final Consumer<Event> queuedEventHandler = this::onEvent;
+
+    /**
+     * The index of the current frame, incremented every time the events have been processed.
+     */
+    protected long frame = 0;
+
+    /**
+     * The recorder that every event reaching {@link #onEvent(Event)} is written to, null if not recording.
+     */
+    private EventRecorder recorder = null;
+
+    /**
+     * The replayer that feeds recorded events back to the application, null if not replaying.
+     */
+    private EventReplayer replayer = null;
+
+    /**
+     * The metrics that the event latency of the listener and each layer is recorded in, null if disabled.
+     */
+    private DispatchMetrics metrics = null;
+
+    /**
+     * The profiler that the platform records the stages of the main loop in, disabled by default.
+     */
+    protected final FrameProfiler profiler = new FrameProfiler();
+
+    /**
+     * The job system used to run work in parallel, created by the platform.
+     */
+    protected JobSystem jobs = null;
+
+    /**
+     * The startup pipeline that preloads assets and times the startup, created by the platform.
+     */
+    protected Startup startup = null;
+
+    /**
+     * The scheduler that updates the layers, in parallel on the {@link #jobs} where the layers allow it.
+     */
+    protected final LayerScheduler scheduler;
+
+    /**
+     * Set when a new frame should be rendered, used by platforms that render on demand, see {@link #requestRender()}.
+     */
+    private final AtomicBoolean renderRequested = new AtomicBoolean(true);
+
+    /**
+     * The watcher that reloads changed assets, null until requested, see {@link #getAssetWatcher()}.
+     */
+    private AssetWatcher assetWatcher = null;
+
+    /**
+     * The command applying the reloaded assets on the render thread, created together with the {@link #assetWatcher}.
+     */
+    private CommandBuffer.Command assetUpdate = null;
+
     /**
      * Constructor creates a new Application.
      */
@@ -46,6 +133,7 @@ public abstract class Application {
 
         this.listener = listener;
         this.layerStack = new LayerStack();
+        this.scheduler = new LayerScheduler(layerStack);
     }
 
     /**
@@ -71,31 +159,308 @@ public abstract class Application {
         layer.onAttach();
     }
 
+    /**
+     * Pop a layer or an overlay from the applications layer stack.
+     * The layer is detached and is no longer tracked by the metrics and the profiler.
+     * @param layer the layer to pop
+     * @return true if the layer was popped, false if it was not in the layer stack
+     */
+    public final boolean popLayer(Layer layer) {
+        if (!layerStack.popLayer(layer))
+            return false;
+
+        layer.onDetach();
+        profiler.remove(layer);
+        if (metrics != null) {
+            metrics.untrack(layer);
+        }
+        return true;
+    }
+
     /**
      * On event method is called when an event is created and should be dispatched.
      * @param event the event to handle
      */
     public final void onEvent(Event event) {
+        if (recorder != null) {
+            recorder.record(event, frame);
+        }
+
         if (event.getType() == EventType.WindowClose) {
             onWindowClose();
         }
+        renderRequested.set(true);
+
+        if (metrics != null) {
+            onTimedEvent(event);
+            return;
+        }
+
+        listener.onEvent(event);
+
+        for (Layer layer : layerStack.snapshot()) {
+            if (event.isHandled())
+                break;
+
+            layer.onEvent(event);
+        }
+    }
 
+    /**
+     * Same as {@link #onEvent(Event)} but records the time spent in the listener and each layer in the {@link #metrics}.
+     * @param event the event to handle
+     */
+    private void onTimedEvent(Event event) {
+        LatencyHistogram histogram = metrics.get(listener);
+        if (histogram == null) {
+            histogram = metrics.track(listener, "ApplicationListener(" + listener.getClass().getName() + ")");
+        }
+        long start = System.nanoTime();
         listener.onEvent(event);
+        histogram.record(System.nanoTime() - start);
 
-        for (Layer layer : layerStack) {
+        for (Layer layer : layerStack.snapshot()) {
             if (event.isHandled())
                 break;
 
+            histogram = metrics.get(layer);
+            if (histogram == null) {
+                histogram = metrics.track(layer, "Layer(" + layer.getName() + ")");
+            }
+            start = System.nanoTime();
             layer.onEvent(event);
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Queue an event to be dispatched when the events are processed, see {@link #processEvents()}.
+     * Events that can be coalesced e.g. mouse motion and window resize are kept in the {@link #eventQueue}
+     * until the events are processed. Any other event processes the queued events first and is then dispatched
+     * immediately, thus the order of the events is kept. If there is no event queue then the
+     * event is dispatched immediately.
+     * @param event the event to queue
+     */
+    public final void queueEvent(Event event) {
+        if (eventQueue == null) {
+            onEvent(event);
+        } else if (EventQueue.isCoalescable(event)) {
+            eventQueue.add(event);
+        } else {
+            drainQueued();
+            onEvent(event);
         }
     }
 
+    /**
+     * Post an event to be dispatched by the main thread when the events are processed, see {@link #processEvents()}.
+     * This method is thread safe and lock-free so it can be called from e.g. asset loaders and worker threads.
+     * The ownership of the event is given to the application, which releases the event after it has been dispatched.
+     * @param event the event to post
+     * @return true if the event was posted, false if the queue of posted events is full
+     */
+    public final boolean postEvent(Event event) {
+        if (!postedEvents.offer(event))
+            return false;
+
+        wakeUp();
+        return true;
+    }
+
+    /**
+     * Request a new frame to be rendered. Platforms that render on demand only render a new frame
+     * when an event has been dispatched or a render has been requested, otherwise they wait for events.
+     * This method is thread safe and wakes up the main thread if it is waiting.
+     * @see Layer#markDirty()
+     */
+    public final void requestRender() {
+        if (!renderRequested.getAndSet(true)) {
+            wakeUp();
+        }
+    }
+
+    /**
+     * Take the pending render request, called by the platform on the main thread before each frame when rendering on demand.
+     * @return true if an event was dispatched or a render was requested since the last call
+     */
+    protected final boolean takeRenderRequest() {
+        return renderRequested.getAndSet(false);
+    }
+
+    /**
+     * Wake up the main thread if it is waiting for events, this may be called from any thread.
+     * By default this does nothing, platforms that wait for events should override this.
+     */
+    protected void wakeUp() {
+
+    }
+
+    /**
+     * Process the events in the {@link #eventQueue} and then the events posted from other threads, this is called by
+     * the platform on the main thread every frame and whenever it wakes up while waiting for events.
+     * At most one queue capacity of posted events are dispatched per call, so busy producers cannot stall the frame.
+     */
+    protected final void processEvents() {
+        drainQueued();
+
+        for (int i = postedEvents.capacity(); i > 0; i--) {
+            Event event = postedEvents.poll();
+            if (event == null)
+                break;
+
+            onEvent(event);
+            event.release();
+        }
+    }
+
+    /**
+     * Dispatch the events replayed by the {@link EventReplayer} for the current frame and then advance the frame index,
+     * see {@link #getFrame()}. This is called by the platform on the main thread exactly once per frame after the
+     * events have been processed, so the recorded frame indices stay reproducible.
+     */
+    protected final void nextFrame() {
+        if (replayer != null) {
+            replayer.replay(queuedEventHandler, frame);
+        }
+        frame++;
+    }
+
+    /**
+     * Dispatch the coalesced events in the {@link #eventQueue}.
+     */
+    private void drainQueued() {
+        if (eventQueue != null) {
+            eventQueue.drain(queuedEventHandler);
+        }
+    }
+
+    /**
+     * Start recording every event that reaches {@link #onEvent(Event)}, the events are recorded relative to the
+     * current frame. The recorder is not closed by the application.
+     * @param recorder the recorder to write the events to, null to stop recording
+     */
+    public final void setEventRecorder(EventRecorder recorder) {
+        if (recorder != null) {
+            recorder.start(frame);
+        }
+        this.recorder = recorder;
+    }
+
+    /**
+     * Start replaying recorded events, the events are replayed relative to the current frame at the end of
+     * each frame, see {@link #nextFrame()}. The replayer is not closed by the application.
+     * @param replayer the replayer to read the events from, null to stop replaying
+     */
+    public final void setEventReplayer(EventReplayer replayer) {
+        if (replayer != null) {
+            replayer.start(frame);
+        }
+        this.replayer = replayer;
+    }
+
+    /**
+     * Enable or disable recording the event dispatch count and latency of the application listener and each layer.
+     * Use {@link jx3d.io.event.EventDispatcher#setMetrics(DispatchMetrics)} to measure the listeners inside layers.
+     * @param metrics the metrics to record in, null to disable the metrics
+     */
+    public final void setMetrics(DispatchMetrics metrics) {
+        if (this.metrics != null && this.metrics != metrics) {
+            this.metrics.untrack(listener);
+            for (Layer layer : layerStack.snapshot()) {
+                this.metrics.untrack(layer);
+            }
+        }
+        this.metrics = metrics;
+    }
+
+    /**
+     * Get the metrics that the event latency of the listener and each layer is recorded in.
+     * @return the metrics or null if disabled
+     */
+    public final DispatchMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get the frame profiler of the main loop, enable it to record the time of each stage of the frames.
+     * @return the frame profiler
+     */
+    public final FrameProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Get the job system used to run work in parallel.
+     * @return the job system
+     */
+    public final JobSystem getJobs() {
+        return jobs;
+    }
+
+    /**
+     * Get the watcher that reloads assets when their files change, it is created the first time this is called.
+     * The reloaded assets are applied at the start of the next frame on the thread that owns the graphics context,
+     * a render is requested after each reload so the frame is not delayed when rendering on demand.
+     * @return the asset watcher
+     */
+    public final AssetWatcher getAssetWatcher() {
+        if (assetWatcher == null) {
+            assetWatcher = new AssetWatcher(getFiles(), this::requestRender);
+            assetUpdate = assetWatcher::update;
+        }
+        return assetWatcher;
+    }
+
+    /**
+     * Apply the assets that have been reloaded by the {@link #getAssetWatcher() asset watcher},
+     * this is called by the platform on the main thread at the start of every frame. If the graphics context
+     * is owned by a render thread the assets are applied by a command recorded before the commands of the layers.
+     * @param commands the command buffer of the frame if there is a render thread, null to apply the assets on the calling thread
+     */
+    protected final void updateAssets(CommandBuffer commands) {
+        if (assetWatcher == null)
+            return;
+
+        if (commands != null) {
+            commands.add(assetUpdate);
+        } else {
+            assetWatcher.update();
+        }
+    }
+
+    /**
+     * Get the startup pipeline of the application, the report is complete after the first frame.
+     * @return the startup pipeline
+     */
+    public final Startup getStartup() {
+        return startup;
+    }
+
+    /**
+     * Get the scheduler that updates the layers of the application.
+     * @return the layer scheduler
+     */
+    public final LayerScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Get the index of the current frame, starting at zero.
+     * @return the frame index
+     */
+    public final long getFrame() {
+        return frame;
+    }
+
     /**
      * On window close method is called before the window is closing and application is terminated.
      */
     private void onWindowClose() {
         running = false;
         layerStack.dispose();
+        if (assetWatcher != null) {
+            assetWatcher.dispose();
+        }
     }
 
     /**
@@ -10,6 +10,17 @@ import jx3d.util.Disposable;
  */
 public interface ApplicationListener {
 
+    /**
+     * The <code>onPreload</code> function is triggered first of all when the {@link Application} is created, before the
+     * window and the graphics context exist. Assets that are loaded here are loaded on worker threads while the
+     * platform initializes, and can be taken in <code>onStart</code> e.g. when creating the layers.
+     * The files are available but the graphics are not.
+     * @param startup the startup pipeline to load the assets with
+     */
+    default void onPreload(Startup startup) {
+
+    }
+
     /**
      * The <code>onStart</code> function is triggered when the {@link Application} has started running.
      * This event is only called once and should not be invoked after or before
@@ -31,6 +42,15 @@ public interface ApplicationListener {
      */
     void onUpdate();
 
+    /**
+     * The <code>onFixedUpdate</code> function is triggered zero or more times per {@link Application} tick
+     * to advance the simulation by a fixed timestep, before <code>onUpdate</code> is triggered.
+     * @param timestep the length of the timestep in seconds
+     */
+    default void onFixedUpdate(float timestep) {
+
+    }
+
     /**
      * The dispose event is triggered at the end of the {@link Application} lifecycle e.g.
      * when user closes the {@link Application}. This event should clean every thing up
@@ -0,0 +1,135 @@
+package jx3d.core;
+
+/**
+ * Fixed timestep accumulates the real time that has passed between frames and divides it into
+ * steps of a fixed length, so the simulation advances the same amount for every step no matter the frame rate.
+ * The time that is left over after the last step is kept for the next frame and is given as an interpolation
+ * alpha, see {@link #getAlpha()}, which can be used to blend the rendering between the previous and current state.
+ * <p>
+ * The number of steps per frame is limited, when the application can not keep up e.g. after a long stall
+ * the remaining time is dropped instead of trying to catch up with an ever growing number of steps.
+ * </p>
+ */
+public final class FixedTimestep {
+
+    /**
+     * The length of each step in nanoseconds.
+     */
+    private final long stepNanos;
+
+    /**
+     * The length of each step in seconds.
+     */
+    private final float step;
+
+    /**
+     * The maximum number of steps taken in one frame.
+     */
+    private final int maxSteps;
+
+    /**
+     * The time that has not been simulated yet in nanoseconds.
+     */
+    private long accumulator;
+
+    /**
+     * The total number of steps taken.
+     */
+    private long steps;
+
+    /**
+     * The total time that was dropped because the maximum number of steps was reached in nanoseconds.
+     */
+    private long dropped;
+
+    /**
+     * Constructs a fixed timestep.
+     * @param rate the number of steps per second
+     * @param maxSteps the maximum number of steps taken in one frame
+     */
+    public FixedTimestep(int rate, int maxSteps) {
+        if (rate <= 0)
+            throw new IllegalArgumentException("Invalid update rate: " + rate);
+        if (maxSteps <= 0)
+            throw new IllegalArgumentException("Invalid maximum number of steps: " + maxSteps);
+
+        this.stepNanos = 1_000_000_000L / rate;
+        this.step = stepNanos / 1e9f;
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Advance the time and get the number of steps to take this frame.
+     * @param elapsedNanos the time that has passed since the last frame in nanoseconds
+     * @return the number of steps between zero and the maximum number of steps
+     */
+    public int advance(long elapsedNanos) {
+        if (elapsedNanos > 0)
+            accumulator += elapsedNanos;
+
+        int count = (int) Math.min(accumulator / stepNanos, maxSteps);
+        accumulator -= count * stepNanos;
+        if (accumulator >= stepNanos) {
+            long excess = accumulator - accumulator % stepNanos;
+            dropped += excess;
+            accumulator -= excess;
+        }
+        steps += count;
+        return count;
+    }
+
+    /**
+     * Get the interpolation alpha i.e. how far the time has come between the last step and the next step.
+     * @return the alpha between zero inclusive and one exclusive
+     */
+    public float getAlpha() {
+        return (float) accumulator / stepNanos;
+    }
+
+    /**
+     * Get the length of each step.
+     * @return the step length in seconds
+     */
+    public float getStep() {
+        return step;
+    }
+
+    /**
+     * Get the length of each step.
+     * @return the step length in nanoseconds
+     */
+    public long getStepNanos() {
+        return stepNanos;
+    }
+
+    /**
+     * Get the maximum number of steps taken in one frame.
+     * @return the maximum number of steps
+     */
+    public int getMaxSteps() {
+        return maxSteps;
+    }
+
+    /**
+     * Get the total number of steps taken.
+     * @return the number of steps
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Get the total time that was dropped because the simulation could not keep up.
+     * @return the dropped time in nanoseconds
+     */
+    public long getDroppedNanos() {
+        return dropped;
+    }
+
+    /**
+     * Reset the accumulated time e.g. after the application has been paused.
+     */
+    public void reset() {
+        accumulator = 0;
+    }
+}
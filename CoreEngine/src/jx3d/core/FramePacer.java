@@ -0,0 +1,79 @@
+package jx3d.core;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Frame pacer limits the frame rate by waiting until the deadline of the next frame. Most of the wait is
+ * spent parked and the last part, where the scheduler of the operating system is not precise enough,
+ * is spent spinning so frames are presented at a steady rate instead of drifting by a millisecond or more.
+ * The deadlines are kept on a fixed grid, a frame that finishes late does not push back the following frames
+ * unless it is late by more than a whole frame.
+ */
+public final class FramePacer {
+
+    /**
+     * The time before the deadline to stop parking and start spinning in nanoseconds.
+     */
+    public static final long SPIN_NANOS = 1_000_000L;
+
+    /**
+     * The length of each frame in nanoseconds, zero if the frame rate is unlimited.
+     */
+    private long frameNanos;
+
+    /**
+     * The deadline of the next frame, zero until the first frame has been synced.
+     */
+    private long deadline;
+
+    /**
+     * Constructs a frame pacer.
+     * @param frameRate the target number of frames per second, zero or less for an unlimited frame rate
+     */
+    public FramePacer(int frameRate) {
+        setFrameRate(frameRate);
+    }
+
+    /**
+     * Set the target frame rate.
+     * @param frameRate the target number of frames per second, zero or less for an unlimited frame rate
+     */
+    public void setFrameRate(int frameRate) {
+        frameNanos = frameRate > 0 ? 1_000_000_000L / frameRate : 0;
+        deadline = 0;
+    }
+
+    /**
+     * Get the length of each frame.
+     * @return the frame length in nanoseconds, zero if the frame rate is unlimited
+     */
+    public long getFrameNanos() {
+        return frameNanos;
+    }
+
+    /**
+     * Wait until the deadline of the current frame, returns immediately if the frame rate is unlimited.
+     * @return the time spent waiting in nanoseconds
+     */
+    public long sync() {
+        if (frameNanos == 0)
+            return 0;
+
+        long start = System.nanoTime();
+        if (deadline == 0 || start - deadline > frameNanos) {
+            deadline = start + frameNanos;
+            return 0;
+        }
+
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > SPIN_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+        }
+        while (deadline - System.nanoTime() > 0) {
+            Thread.onSpinWait();
+        }
+
+        deadline += frameNanos;
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,493 @@
+package jx3d.core;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * Frame profiler records how the time of each frame is split across the stages of the main loop e.g. the update
+ * of the application listener, the update of each layer, swapping the buffers and polling the events.
+ * The timings of the most recent frames are kept in a ring buffer, which is used to compute rolling percentiles.
+ * A frame that takes much longer than the average frame is reported as a spike, see {@link #setSpikeListener(SpikeListener)}.
+ * <p>
+ * The main loop calls {@link #beginFrame()}, then {@link #record(int)} or {@link #record(Layer)} after each stage
+ * and finally {@link #endFrame()}. The time since the previous call is added to the stage, thus the loop only reads
+ * the clock once per stage. Each layer has two stages, one for {@link Layer#onUpdate(float)} and one for
+ * {@link Layer#onRender(jx3d.graphics.CommandBuffer)}. The updates may run in parallel, so they are timed by the
+ * {@link LayerScheduler} and added with {@link #recordUpdate(Layer, long)}, their sum may exceed {@link #LAYER_UPDATE}.
+ * The profiler is disabled by default, when disabled every call returns immediately without reading the clock
+ * or allocating any memory. The profiler is not thread safe and should only be used by the main thread.
+ * </p>
+ */
+public final class FrameProfiler {
+
+    /**
+     * Spike listener is notified when a frame takes much longer than the average frame.
+     */
+    @FunctionalInterface
+    public interface SpikeListener {
+
+        /**
+         * Called at the end of a frame that was detected as a spike.
+         * @param profiler the profiler that detected the spike
+         * @param frame the index of the frame, see {@link #getFrameCount()}
+         * @param nanos the duration of the frame in nanoseconds
+         */
+        void onSpike(FrameProfiler profiler, long frame, long nanos);
+    }
+
+    /**
+     * The default number of recent frames kept in the ring buffer.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * The default spike threshold, a frame twice as long as the average frame is a spike.
+     */
+    public static final float DEFAULT_SPIKE_THRESHOLD = 2.0f;
+
+    /**
+     * The stage covering the whole frame.
+     */
+    public static final int FRAME = 0;
+
+    /**
+     * The stage covering the fixed updates of the listener and the layers.
+     */
+    public static final int FIXED_UPDATE = 1;
+
+    /**
+     * The stage covering the update of the application listener.
+     */
+    public static final int LISTENER_UPDATE = 2;
+
+    /**
+     * The stage covering swapping the buffers of the window.
+     */
+    public static final int SWAP_BUFFERS = 3;
+
+    /**
+     * The stage covering polling the window events.
+     */
+    public static final int POLL_EVENTS = 4;
+
+    /**
+     * The stage covering processing the queued and posted events.
+     */
+    public static final int PROCESS_EVENTS = 5;
+
+    /**
+     * The stage covering waiting for the next frame, see {@link FramePacer}.
+     */
+    public static final int SYNC = 6;
+
+    /**
+     * The stage covering submitting the jobs of the layers and waiting for them to be done, see {@link JobSystem#sync()}.
+     */
+    public static final int JOBS = 7;
+
+    /**
+     * The stage covering the updates of the layers, see {@link LayerScheduler}.
+     */
+    public static final int LAYER_UPDATE = 8;
+
+    /**
+     * The names of the built in stages.
+     */
+    private static final String[] STAGE_NAMES = {
+            "Frame", "FixedUpdate", "ApplicationListener", "SwapBuffers", "PollEvents", "ProcessEvents", "Sync", "Jobs", "LayerUpdate"
+    };
+
+    /**
+     * The number of frames after enabling before spikes are detected.
+     */
+    private static final int SPIKE_WARMUP = 16;
+
+    /**
+     * The number of recent frames kept in the ring buffer.
+     */
+    private final int capacity;
+
+    /**
+     * The update stage index of each tracked layer, the render stage is the following stage.
+     */
+    private final IdentityHashMap<Layer, Integer> layers = new IdentityHashMap<>();
+
+    /**
+     * The update stages of removed layers that can be reused by the next tracked layer.
+     */
+    private int[] freeStages = new int[0];
+
+    /**
+     * The number of stages in {@link #freeStages}.
+     */
+    private int freeCount;
+
+    /**
+     * The names of the stages, null for stages of removed layers.
+     */
+    private String[] names = STAGE_NAMES.clone();
+
+    /**
+     * The recorded nanoseconds of each stage and frame, null until the profiler is enabled.
+     */
+    private long[][] times;
+
+    /**
+     * Buffer used to sort the times when computing percentiles.
+     */
+    private long[] sorted;
+
+    /**
+     * The number of stages.
+     */
+    private int stageCount = STAGE_NAMES.length;
+
+    /**
+     * The enabled flag, nothing is recorded when disabled.
+     */
+    private boolean enabled;
+
+    /**
+     * The start of the current frame and the time of the last recorded stage.
+     */
+    private long frameStart, last;
+
+    /**
+     * The number of recorded frames.
+     */
+    private long frameCount;
+
+    /**
+     * The index of the current frame in the ring buffer.
+     */
+    private int slot;
+
+    /**
+     * The moving average of the frame duration in nanoseconds.
+     */
+    private double average;
+
+    /**
+     * The spike threshold relative to the average frame duration.
+     */
+    private float spikeThreshold = DEFAULT_SPIKE_THRESHOLD;
+
+    /**
+     * The number of detected spikes.
+     */
+    private long spikeCount;
+
+    /**
+     * The listener notified about spikes, may be null.
+     */
+    private SpikeListener spikeListener;
+
+    /**
+     * Constructs a disabled frame profiler with the default capacity.
+     */
+    public FrameProfiler() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a disabled frame profiler.
+     * @param capacity the number of recent frames to keep
+     */
+    public FrameProfiler(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Invalid profiler capacity: " + capacity);
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * Enable or disable the profiler, the recorded frames are kept when the profiler is disabled.
+     * @param enabled true to start recording frames
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && times == null) {
+            times = new long[stageCount][capacity];
+            sorted = new long[capacity];
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * Check if the profiler is enabled.
+     * @return true if frames are recorded
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Begin recording a new frame, has to be called by the main loop at the start of every frame.
+     */
+    public void beginFrame() {
+        if (!enabled)
+            return;
+
+        slot = (int) (frameCount % capacity);
+        for (int i = 0; i < stageCount; i++) {
+            times[i][slot] = 0;
+        }
+        frameStart = last = System.nanoTime();
+    }
+
+    /**
+     * Record the time since the previous stage in a stage of the current frame.
+     * @param stage the stage e.g. {@link #SWAP_BUFFERS}
+     */
+    public void record(int stage) {
+        if (!enabled)
+            return;
+
+        long now = System.nanoTime();
+        times[stage][slot] += now - last;
+        last = now;
+    }
+
+    /**
+     * Record the time since the previous stage in the render stage of a layer, the layer is tracked the first time it is recorded.
+     * @param layer the layer that was rendered
+     */
+    public void record(Layer layer) {
+        if (!enabled)
+            return;
+
+        Integer stage = layers.get(layer);
+        record((stage != null ? stage : track(layer)) + 1);
+    }
+
+    /**
+     * Add the time of the update of a layer to its update stage, the layer is tracked the first time it is recorded.
+     * The time is measured by the caller, so this does not affect the time of the next recorded stage.
+     * @param layer the layer that was updated
+     * @param nanos the time spent in the update in nanoseconds
+     */
+    public void recordUpdate(Layer layer, long nanos) {
+        if (!enabled)
+            return;
+
+        Integer stage = layers.get(layer);
+        int index = stage != null ? stage : track(layer);
+        times[index][slot] += nanos;
+    }
+
+    /**
+     * End recording the current frame and detect spikes, has to be called by the main loop at the end of every frame.
+     */
+    public void endFrame() {
+        if (!enabled)
+            return;
+
+        long duration = System.nanoTime() - frameStart;
+        times[FRAME][slot] = duration;
+        long frame = frameCount++;
+
+        if (frame >= SPIKE_WARMUP && duration > average * spikeThreshold) {
+            spikeCount++;
+            if (spikeListener != null) {
+                spikeListener.onSpike(this, frame, duration);
+            }
+        }
+        average = frame == 0 ? duration : average + (duration - average) / SPIKE_WARMUP;
+    }
+
+    /**
+     * Get the number of stages, stage indices are between zero and the number of stages.
+     * @return the number of stages
+     */
+    public int getStageCount() {
+        return stageCount;
+    }
+
+    /**
+     * Get the name of a stage.
+     * @param stage the stage
+     * @return the name of the stage or null if the stage belonged to a removed layer
+     */
+    public String getStageName(int stage) {
+        return names[stage];
+    }
+
+    /**
+     * Get the render stage of a layer.
+     * @param layer the layer
+     * @return the stage or -1 if the layer has not been recorded
+     */
+    public int getStage(Layer layer) {
+        Integer stage = layers.get(layer);
+        return stage != null ? stage + 1 : -1;
+    }
+
+    /**
+     * Get the update stage of a layer.
+     * @param layer the layer
+     * @return the stage or -1 if the layer has not been recorded
+     */
+    public int getUpdateStage(Layer layer) {
+        Integer stage = layers.get(layer);
+        return stage != null ? stage : -1;
+    }
+
+    /**
+     * Stop tracking a layer e.g. when it has been popped from the layer stack, the stages of the layer are
+     * cleared and reused by the next tracked layer so layers that come and go do not grow the profiler.
+     * @param layer the layer
+     * @return true if the layer was tracked
+     */
+    public boolean remove(Layer layer) {
+        Integer stage = layers.remove(layer);
+        if (stage == null)
+            return false;
+
+        names[stage] = null;
+        names[stage + 1] = null;
+        Arrays.fill(times[stage], 0);
+        Arrays.fill(times[stage + 1], 0);
+        if (freeCount == freeStages.length) {
+            freeStages = Arrays.copyOf(freeStages, Math.max(4, freeCount * 2));
+        }
+        freeStages[freeCount++] = stage;
+        return true;
+    }
+
+    /**
+     * Get the number of frames that have been recorded.
+     * @return the number of frames
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Get the number of recent frames that are kept.
+     * @return the number of frames in the ring buffer
+     */
+    public int size() {
+        return (int) Math.min(frameCount, capacity);
+    }
+
+    /**
+     * Get the time of a stage in a recent frame.
+     * @param stage the stage
+     * @param framesAgo zero for the last recorded frame, one for the frame before that etc.
+     * @return the time in nanoseconds
+     */
+    public long getTime(int stage, int framesAgo) {
+        if (framesAgo < 0 || framesAgo >= size())
+            throw new IndexOutOfBoundsException("Frame is not recorded: " + framesAgo);
+
+        return times[stage][(int) ((frameCount - 1 - framesAgo) % capacity)];
+    }
+
+    /**
+     * Get a percentile of the time of a stage over the recent frames, see {@link #size()}.
+     * @param stage the stage
+     * @param percentile the percentile between 0 and 100 e.g. 99 for p99
+     * @return the time in nanoseconds or zero if no frames have been recorded
+     */
+    public long getPercentile(int stage, double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+
+        int size = size();
+        if (size == 0)
+            return 0;
+
+        System.arraycopy(times[stage], 0, sorted, 0, size);
+        Arrays.sort(sorted, 0, size);
+        int rank = Math.max(1, (int) Math.ceil(percentile / 100.0 * size));
+        return sorted[rank - 1];
+    }
+
+    /**
+     * Get the moving average of the frame duration.
+     * @return the average in nanoseconds
+     */
+    public double getAverage() {
+        return average;
+    }
+
+    /**
+     * Set the spike threshold, a frame is a spike if it takes longer than the average frame times the threshold.
+     * @param threshold the threshold, has to be greater than one
+     */
+    public void setSpikeThreshold(float threshold) {
+        if (threshold <= 1)
+            throw new IllegalArgumentException("Invalid spike threshold: " + threshold);
+
+        this.spikeThreshold = threshold;
+    }
+
+    /**
+     * Set the listener notified when a spike is detected.
+     * @param listener the listener or null to remove the listener
+     */
+    public void setSpikeListener(SpikeListener listener) {
+        this.spikeListener = listener;
+    }
+
+    /**
+     * Get the number of detected spikes.
+     * @return the number of spikes
+     */
+    public long getSpikeCount() {
+        return spikeCount;
+    }
+
+    /**
+     * Remove all the recorded frames, the layers stay tracked.
+     */
+    public void reset() {
+        if (times != null) {
+            for (long[] stage : times) {
+                Arrays.fill(stage, 0);
+            }
+        }
+        frameCount = 0;
+        spikeCount = 0;
+        average = 0;
+    }
+
+    /**
+     * Print a table of the p50, p99 and max time in microseconds of every stage over the recent frames.
+     * @param out the stream to print to
+     */
+    public void dump(PrintStream out) {
+        out.printf("%-48s %10s %10s %10s%n", "stage", "p50 (us)", "p99 (us)", "max (us)");
+        for (int i = 0; i < stageCount; i++) {
+            if (names[i] == null)
+                continue;
+
+            out.printf("%-48s %10.2f %10.2f %10.2f%n", names[i],
+                    getPercentile(i, 50) / 1e3, getPercentile(i, 99) / 1e3, getPercentile(i, 100) / 1e3);
+        }
+    }
+
+    /**
+     * Track the update and render stages of a new layer.
+     * @return the update stage of the layer
+     */
+    private int track(Layer layer) {
+        int stage;
+        if (freeCount > 0) {
+            stage = freeStages[--freeCount];
+        } else {
+            stage = stageCount;
+            stageCount += 2;
+            if (stageCount > names.length) {
+                names = Arrays.copyOf(names, stageCount * 2);
+                times = Arrays.copyOf(times, stageCount * 2);
+            }
+            times[stage] = new long[capacity];
+            times[stage + 1] = new long[capacity];
+        }
+        names[stage] = "Layer(" + layer.getName() + ").onUpdate";
+        names[stage + 1] = "Layer(" + layer.getName() + ").onRender";
+        layers.put(layer, stage);
+        return stage;
+    }
+}
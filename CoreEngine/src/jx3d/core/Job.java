@@ -0,0 +1,56 @@
+package jx3d.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Job is a handle to work submitted to the {@link JobSystem}. A job can be given as a dependency when
+ * submitting other jobs, which then start when the job has completed.
+ */
+public final class Job {
+
+    /**
+     * The future completed when the work of the job is done.
+     */
+    final CompletableFuture<Void> future;
+
+    /**
+     * Constructs a job handle.
+     * @param future the future of the work
+     */
+    Job(CompletableFuture<Void> future) {
+        this.future = future;
+    }
+
+    /**
+     * Check if the job is done, either completed or failed.
+     * @return true if the job is done
+     */
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Check if the job failed i.e. the work or any of its dependencies threw an exception.
+     * @return true if the job failed
+     */
+    public boolean isFailed() {
+        return future.isCompletedExceptionally();
+    }
+
+    /**
+     * Wait for the job to be done. If the job failed the exception thrown by the work is rethrown.
+     */
+    public void join() {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package jx3d.core;
+
+import jx3d.util.Disposable;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Job system runs work on a work-stealing {@link ForkJoinPool} so that updates can be spread across every core.
+ * Jobs can depend on other jobs and ranges of items can be processed in parallel, see {@link #parallelFor(int, int, int, Range, Job...)}.
+ * <p>
+ * Every job submitted during a frame belongs to that frame, the main loop calls {@link #sync()} before rendering,
+ * which waits until every job of the frame is done. Layers submit their jobs in {@link Layer#onSubmitJobs(JobSystem)}.
+ * The jobs are meant for computations, blocking on IO inside a job occupies a worker of the pool.
+ * </p>
+ */
+public final class JobSystem implements Disposable {
+
+    /**
+     * Range is the body of a parallel for loop.
+     */
+    @FunctionalInterface
+    public interface Range {
+
+        /**
+         * Process the items in the range [start, end).
+         * @param start the first index, inclusive
+         * @param end the last index, exclusive
+         */
+        void run(int start, int end);
+    }
+
+    /**
+     * The pool running the jobs.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The jobs submitted during the current frame.
+     */
+    private final ConcurrentLinkedQueue<Job> frameJobs = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructs a job system with one worker for each processor except the main thread.
+     */
+    public JobSystem() {
+        this(Module.DEFAULT);
+    }
+
+    /**
+     * Constructs a job system.
+     * @param workers the number of worker threads, if set to {@link Module#DEFAULT} one worker
+     *                is used for each processor except the one running the main thread
+     */
+    public JobSystem(int workers) {
+        if (workers == Module.DEFAULT) {
+            workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        } else if (workers <= 0) {
+            throw new IllegalArgumentException("Invalid number of workers: " + workers);
+        }
+
+        this.pool = new ForkJoinPool(workers, (ForkJoinPool pool) -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("jx3d-worker-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Submit a job that runs when all of its dependencies have completed.
+     * If any of the dependencies fail the job does not run and fails as well.
+     * @param task the work of the job
+     * @param dependencies the jobs that have to complete first
+     * @return the submitted job
+     */
+    public Job submit(Runnable task, Job... dependencies) {
+        CompletableFuture<Void> future;
+        if (dependencies.length == 0) {
+            future = CompletableFuture.runAsync(task, pool);
+        } else if (dependencies.length == 1) {
+            future = dependencies[0].future.thenRunAsync(task, pool);
+        } else {
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[dependencies.length];
+            for (int i = 0; i < dependencies.length; i++) {
+                futures[i] = dependencies[i].future;
+            }
+            future = CompletableFuture.allOf(futures).thenRunAsync(task, pool);
+        }
+
+        Job job = new Job(future);
+        frameJobs.add(job);
+        return job;
+    }
+
+    /**
+     * Run a task on the workers that does not belong to any frame, e.g. loading assets during startup.
+     * {@link #sync()} does not wait for these tasks.
+     * @param task the task to run
+     * @param <T> the type of the result
+     * @return the future completed with the result of the task
+     */
+    <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, pool);
+    }
+
+    /**
+     * Submit a job that processes the indices in the range [start, end) in parallel. The range is split in halves
+     * until the ranges are no larger than the grain size and idle workers steal the ranges of busy workers.
+     * @param start the first index, inclusive
+     * @param end the last index, exclusive
+     * @param grain the maximum number of indices processed by one task
+     * @param body the body called for each sub range
+     * @param dependencies the jobs that have to complete first
+     * @return the submitted job
+     */
+    public Job parallelFor(int start, int end, int grain, Range body, Job... dependencies) {
+        if (grain <= 0)
+            throw new IllegalArgumentException("Invalid grain size: " + grain);
+
+        return submit(() -> new RangeAction(start, end, grain, body).invoke(), dependencies);
+    }
+
+    /**
+     * Submit a job that calls an action for each item of a list in parallel, e.g. to update a range of nodes.
+     * The list must not be modified until the job is done.
+     * @param items the items to process
+     * @param grain the maximum number of items processed by one task
+     * @param action the action called for each item
+     * @param dependencies the jobs that have to complete first
+     * @param <T> the type of items
+     * @return the submitted job
+     */
+    public <T> Job parallelFor(List<? extends T> items, int grain, Consumer<? super T> action, Job... dependencies) {
+        return parallelFor(0, items.size(), grain, (int start, int end) -> {
+            for (int i = start; i < end; i++) {
+                action.accept(items.get(i));
+            }
+        }, dependencies);
+    }
+
+    /**
+     * Wait until every job submitted during the current frame is done and start a new frame.
+     * Jobs submitted by other jobs while waiting are also waited for. If any job failed, the first
+     * failure is rethrown after all the jobs are done.
+     */
+    public void sync() {
+        RuntimeException failure = null;
+        Job job;
+        while ((job = frameJobs.poll()) != null) {
+            try {
+                job.join();
+            } catch (RuntimeException e) {
+                if (failure == null)
+                    failure = e;
+            }
+        }
+
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * Get the number of worker threads.
+     * @return the number of workers
+     */
+    public int getWorkers() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Shut down the workers, the jobs that have already been submitted are still run.
+     */
+    @Override
+    public void dispose() {
+        pool.shutdown();
+        try {
+            pool.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fork join action splitting a range in halves.
+     */
+    private static final class RangeAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int start, end, grain;
+        private final Range body;
+
+        RangeAction(int start, int end, int grain, Range body) {
+            this.start = start;
+            this.end = end;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= grain) {
+                body.run(start, end);
+                return;
+            }
+
+            int mid = (start + end) >>> 1;
+            invokeAll(new RangeAction(start, mid, grain, body), new RangeAction(mid, end, grain, body));
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package jx3d.core;
 
+import jx3d.graphics.CommandBuffer;
 import jx3d.io.event.Event;
 import jx3d.util.Disposable;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * Abstract layer class provides with basic definition of what a layer behaves.
  * A layer is not necessarily related to graphics that can be drawn on screen,
@@ -15,6 +21,11 @@ public abstract class Layer implements Disposable {
      */
     private final String name;
 
+    /**
+     * The resources the layer reads and writes in {@link #onUpdate(float)}, null if not declared.
+     */
+    private Set<Object> reads, writes;
+
     /**
      * Create a layer without a specific name.
      */
@@ -51,6 +62,44 @@ public abstract class Layer implements Disposable {
 
     }
 
+    /**
+     * On update method is called once per frame when the application requests an update.
+     * By default this calls {@link #onUpdate()}. If the layer has declared its resources, see {@link #reads(Object...)},
+     * the update may run on a worker thread in parallel with the updates of other layers.
+     * @param alpha the interpolation alpha between the previous and the current fixed update, see {@link FixedTimestep#getAlpha()}
+     */
+    public void onUpdate(float alpha) {
+        onUpdate();
+    }
+
+    /**
+     * On render method is called once per frame on the main thread after every layer has been updated to record the rendering commands of the layer.
+     * The commands are executed by the thread that owns the graphics context, which is a dedicated render thread
+     * if enabled by the platform. Layers recording commands should not call the graphics API directly.
+     * @param commands the command buffer of the frame
+     */
+    public void onRender(CommandBuffer commands) {
+
+    }
+
+    /**
+     * On submit jobs method is called once per frame after the fixed updates to submit work that runs in parallel.
+     * Every submitted job is done before any layer is updated with {@link #onUpdate(float)}, i.e. before rendering.
+     * @param jobs the job system to submit the jobs to
+     */
+    public void onSubmitJobs(JobSystem jobs) {
+
+    }
+
+    /**
+     * On fixed update method is called zero or more times per frame to advance the simulation by a fixed timestep.
+     * Fixed updates are performed before the update of the frame.
+     * @param timestep the length of the timestep in seconds
+     */
+    public void onFixedUpdate(float timestep) {
+
+    }
+
     /**
      * On event method is called when an event was triggered and needs to be handled by the layer.
      * Events are processed first on overlay layers.
@@ -65,6 +114,85 @@ public abstract class Layer implements Disposable {
 
     }
 
+    /**
+     * Declare resources that the layer reads in {@link #onUpdate(float)}, e.g. the scene graph or the physics world.
+     * Resources are any objects that are compared using equals. Layers that have declared their resources are
+     * updated in parallel with other layers unless one of them writes a resource the other uses, see {@link LayerScheduler}.
+     * The resources should be declared before the layer is pushed onto the layer stack.
+     * @param resources the resources that are read
+     */
+    protected final void reads(Object... resources) {
+        if (reads == null)
+            reads = new HashSet<>();
+        if (writes == null)
+            writes = new HashSet<>();
+
+        reads.addAll(Arrays.asList(resources));
+    }
+
+    /**
+     * Declare resources that the layer writes in {@link #onUpdate(float)}.
+     * @param resources the resources that are written
+     * @see #reads(Object...)
+     */
+    protected final void writes(Object... resources) {
+        if (reads == null)
+            reads = new HashSet<>();
+        if (writes == null)
+            writes = new HashSet<>();
+
+        writes.addAll(Arrays.asList(resources));
+    }
+
+    /**
+     * Get the resources the layer reads, see {@link #reads(Object...)}.
+     * @return the read resources, or null if the layer has not declared its resources
+     */
+    public final Set<Object> getReads() {
+        return reads != null ? Collections.unmodifiableSet(reads) : null;
+    }
+
+    /**
+     * Get the resources the layer writes, see {@link #writes(Object...)}.
+     * @return the written resources, or null if the layer has not declared its resources
+     */
+    public final Set<Object> getWrites() {
+        return writes != null ? Collections.unmodifiableSet(writes) : null;
+    }
+
+    /**
+     * Check if the update of this layer conflicts with the update of another layer, i.e. they can not run in parallel.
+     * Layers that have not declared their resources conflict with every other layer.
+     * @param other the other layer
+     * @return true if either layer writes a resource that the other layer reads or writes
+     */
+    public final boolean conflicts(Layer other) {
+        if (reads == null || other.reads == null)
+            return true;
+
+        for (Object resource : writes) {
+            if (other.reads.contains(resource) || other.writes.contains(resource))
+                return true;
+        }
+        for (Object resource : other.writes) {
+            if (reads.contains(resource))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Mark the layer as dirty so that a new frame is rendered, e.g. when the layer is animating or has loaded new data.
+     * This is only needed when the platform renders on demand, and it can be called from any thread.
+     * @see Application#requestRender()
+     */
+    public final void markDirty() {
+        Application app = Application.get();
+        if (app != null) {
+            app.requestRender();
+        }
+    }
+
     /**
      * Get the name of the layer.
      * @return the layer name
@@ -0,0 +1,236 @@
+package jx3d.core;
+
+import java.util.Arrays;
+
+/**
+ * Layer scheduler runs the {@link Layer#onUpdate(float)} of the layers in parallel where possible.
+ * Each time the layer stack changes the scheduler builds a dependency graph from the resources that the layers
+ * declare, see {@link Layer#reads(Object...)}. A layer depends on every layer above it in the stack that it
+ * {@link Layer#conflicts(Layer) conflicts} with, so conflicting layers are always updated in the same order as
+ * they were before, top to bottom, while independent layers e.g. an audio layer and a physics layer run concurrently.
+ * <p>
+ * Layers that have not declared their resources conflict with every layer, so if no layer declares its resources
+ * the layers are updated one after another on the calling thread without using the job system.
+ * </p>
+ * <p>
+ * When a {@link FrameProfiler} is enabled the update of each layer is timed where it runs, on the calling thread
+ * or on a worker, and recorded in the update stage of the layer once every update is done.
+ * </p>
+ */
+public final class LayerScheduler {
+
+    /**
+     * The layer stack to schedule.
+     */
+    private final LayerStack layerStack;
+
+    /**
+     * The snapshot of the layer stack that the graph was built from.
+     */
+    private Layer[] layers;
+
+    /**
+     * The update task of each layer.
+     */
+    private Runnable[] tasks;
+
+    /**
+     * The indices of the layers that each layer depends on.
+     */
+    private int[][] dependencies;
+
+    /**
+     * The dependency jobs of each layer, reused every frame.
+     */
+    private Job[][] dependencyJobs;
+
+    /**
+     * The jobs of the layers in the current frame.
+     */
+    private Job[] frameJobs;
+
+    /**
+     * Whether any two layers can be updated in parallel.
+     */
+    private boolean parallel;
+
+    /**
+     * The time spent in the update of each layer in the current frame, written by the update tasks.
+     */
+    private long[] nanos;
+
+    /**
+     * The interpolation alpha of the current update, read by the update tasks.
+     */
+    private float alpha;
+
+    /**
+     * Whether the update tasks time the updates of the current frame.
+     */
+    private boolean timed;
+
+    /**
+     * Constructs a layer scheduler.
+     * @param layerStack the layer stack to schedule
+     */
+    public LayerScheduler(LayerStack layerStack) {
+        this.layerStack = layerStack;
+    }
+
+    /**
+     * Update every layer in the layer stack and wait until all of them are done.
+     * If any layer update fails the first failure is rethrown after the other updates are done.
+     * @param jobs the job system to run the updates on, null to update the layers on the calling thread
+     * @param alpha the interpolation alpha passed to the layers, see {@link Layer#onUpdate(float)}
+     */
+    public void update(JobSystem jobs, float alpha) {
+        update(jobs, alpha, null);
+    }
+
+    /**
+     * Update every layer in the layer stack and wait until all of them are done, the update of each layer is
+     * recorded in the profiler if it is enabled, see {@link FrameProfiler#recordUpdate(Layer, long)}.
+     * If any layer update fails the first failure is rethrown after the other updates are done.
+     * @param jobs the job system to run the updates on, null to update the layers on the calling thread
+     * @param alpha the interpolation alpha passed to the layers, see {@link Layer#onUpdate(float)}
+     * @param profiler the profiler to record the updates in, may be null
+     */
+    public void update(JobSystem jobs, float alpha, FrameProfiler profiler) {
+        Layer[] snapshot = layerStack.snapshot();
+        if (snapshot != layers) {
+            build(snapshot);
+        }
+
+        boolean timed = profiler != null && profiler.isEnabled();
+        if (jobs == null || !parallel) {
+            for (Layer layer : layers) {
+                if (timed) {
+                    long start = System.nanoTime();
+                    layer.onUpdate(alpha);
+                    profiler.recordUpdate(layer, System.nanoTime() - start);
+                } else {
+                    layer.onUpdate(alpha);
+                }
+            }
+            return;
+        }
+
+        this.alpha = alpha;
+        this.timed = timed;
+        for (int i = 0; i < layers.length; i++) {
+            int[] indices = dependencies[i];
+            Job[] dependencies = dependencyJobs[i];
+            for (int j = 0; j < indices.length; j++) {
+                dependencies[j] = frameJobs[indices[j]];
+            }
+            frameJobs[i] = jobs.submit(tasks[i], dependencies);
+        }
+        try {
+            jobs.sync();
+        } finally {
+            Arrays.fill(frameJobs, null);
+            for (Job[] dependencies : dependencyJobs) {
+                Arrays.fill(dependencies, null);
+            }
+        }
+
+        if (timed) {
+            for (int i = 0; i < layers.length; i++) {
+                profiler.recordUpdate(layers[i], nanos[i]);
+            }
+        }
+    }
+
+    /**
+     * Check if any layers are updated in parallel.
+     * @return true if at least two layers are independent of each other
+     */
+    public boolean isParallel() {
+        if (layerStack.snapshot() != layers) {
+            build(layerStack.snapshot());
+        }
+        return parallel;
+    }
+
+    /**
+     * Get the layers that a layer waits for before it is updated.
+     * @param layer the layer in the layer stack
+     * @return the layers that the layer depends on, in stack order
+     */
+    public Layer[] getDependencies(Layer layer) {
+        if (layerStack.snapshot() != layers) {
+            build(layerStack.snapshot());
+        }
+        for (int i = 0; i < layers.length; i++) {
+            if (layers[i] == layer) {
+                Layer[] result = new Layer[dependencies[i].length];
+                for (int j = 0; j < result.length; j++) {
+                    result[j] = layers[dependencies[i][j]];
+                }
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("The layer is not in the layer stack: " + layer.getName());
+    }
+
+    /**
+     * Build the dependency graph of the layers.
+     * Dependencies that are implied by other dependencies are left out, e.g. if C depends on B and B depends
+     * on A then C does not wait for A directly.
+     * @param snapshot the snapshot of the layer stack
+     */
+    private void build(Layer[] snapshot) {
+        int n = snapshot.length;
+        boolean[][] reachable = new boolean[n][n];
+        dependencies = new int[n][];
+        dependencyJobs = new Job[n][];
+        tasks = new Runnable[n];
+        frameJobs = new Job[n];
+        nanos = new long[n];
+        parallel = false;
+
+        int[] buffer = new int[n];
+        for (int i = 0; i < n; i++) {
+            Layer layer = snapshot[i];
+            int count = 0;
+            for (int j = i - 1; j >= 0; j--) {
+                if (!reachable[i][j] && layer.conflicts(snapshot[j])) {
+                    buffer[count++] = j;
+                    reachable[i][j] = true;
+                    for (int k = 0; k < j; k++) {
+                        reachable[i][k] |= reachable[j][k];
+                    }
+                }
+            }
+
+            if (i > 0 && !reachable[i][i - 1]) {
+                parallel = true;
+            }
+
+            dependencies[i] = new int[count];
+            for (int j = 0; j < count; j++) {
+                dependencies[i][j] = buffer[count - 1 - j];
+            }
+            dependencyJobs[i] = new Job[count];
+            int index = i;
+            tasks[i] = () -> run(layer, index);
+        }
+        layers = snapshot;
+    }
+
+    /**
+     * The update task of a layer, run by the job system.
+     * @param layer the layer to update
+     * @param index the index of the layer in the snapshot
+     */
+    private void run(Layer layer, int index) {
+        if (!timed) {
+            layer.onUpdate(alpha);
+            return;
+        }
+
+        long start = System.nanoTime();
+        layer.onUpdate(alpha);
+        nanos[index] = System.nanoTime() - start;
+    }
+}
@@ -2,34 +2,59 @@ package jx3d.core;
 
 import jx3d.util.Disposable;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.List;
 import java.util.ListIterator;
 
 /**
  * The layer stack is a stack with two types of layers, regular layers and overlays.
  * The overlays are pushed and popped on the top of the stack as a normal stack (LIFO queue).
  * However normal layers are pushed and popped below the overlays functioning as a separate
- * stack on top of another stack. This is implemented using an linked list.
+ * stack on top of another stack. This is implemented using an array ordered from bottom to top,
+ * the normal layers are stored first followed by the overlays.
+ * <p>
+ * Iterating the stack uses an immutable snapshot of the layers that is cached until the stack
+ * is modified, so iterating does not allocate and layers may be pushed or popped while iterating.
  */
 public class LayerStack implements Disposable, Iterable<Layer> {
 
     /**
-     * Layer stack implemented using {@link LinkedList}.
+     * The empty snapshot.
      */
-    private LinkedList<Layer> layers;
+    private static final Layer[] EMPTY = new Layer[0];
 
     /**
-     * Index in array where the next layer stack starts.
+     * Layer stack array ordered from bottom to top.
+     */
+    private Layer[] layers;
+
+    /**
+     * The number of layers in the stack.
+     */
+    private int size;
+
+    /**
+     * Index in array where the overlay stack starts.
      */
     private int layerIndex;
 
+    /**
+     * The cached snapshot ordered from top to bottom, null if the stack has changed.
+     */
+    private Layer[] snapshot;
+
+    /**
+     * The cached views of the snapshot used by the {@link #begin()} and {@link #end()} iterators.
+     */
+    private List<Layer> topDown, bottomUp;
+
     /**
      * Creates an empty layer stack.
      */
     public LayerStack() {
-        layers = new LinkedList<>();
+        layers = new Layer[8];
     }
 
     /**
@@ -40,19 +65,18 @@ public class LayerStack implements Disposable, Iterable<Layer> {
         if (layer == null)
             throw new NullPointerException();
 
-        layers.add(layerIndex, layer);
+        insert(layerIndex++, layer);
     }
 
     /**
      * Push an overlay onto the top of the stack.
-     * @param layer
+     * @param layer the layer to push
      */
     public void pushOverlay(Layer layer) {
         if (layer == null)
             throw new NullPointerException();
 
-        layers.add(0, layer);
-        layerIndex++;
+        insert(size, layer);
     }
 
     /**
@@ -61,16 +85,28 @@ public class LayerStack implements Disposable, Iterable<Layer> {
      * @return true if the layer was successfully popped from the stack
      */
     public boolean popLayer(Layer layer) {
-        return layers.remove(layer);
+        for (int i = size - 1; i >= 0; i--) {
+            if (layers[i] == layer) {
+                remove(i);
+                if (i < layerIndex)
+                    layerIndex--;
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
      * Remove the top layer on the normal layer stack.
-     * Note that overlays are not removed using this method.
+     * Note that overlays are not removed using this method and if there
+     * are no normal layers then {@link IndexOutOfBoundsException} is thrown.
      * @see #popOverlay()
      */
     public void popLayer() {
-        layers.remove(layerIndex);
+        if (layerIndex == 0)
+            throw new IndexOutOfBoundsException();
+
+        remove(--layerIndex);
     }
 
     /**
@@ -80,17 +116,45 @@ public class LayerStack implements Disposable, Iterable<Layer> {
      * @see #popLayer()
      */
     public void popOverlay() {
-        if (layerIndex == 0)
+        if (layerIndex == size)
             throw new IndexOutOfBoundsException();
 
-        layers.remove(0);
-        layerIndex--;
+        remove(size - 1);
+    }
+
+    /**
+     * Get the number of layers and overlays in the stack.
+     * @return the size of the stack
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get a snapshot of the stack ordered from top to bottom i.e. overlays first then at last normal layers.
+     * The snapshot is shared until the stack is modified and must not be modified by the caller.
+     * Iterating the snapshot using a for each loop does not allocate.
+     * @return the snapshot of the layers
+     */
+    public Layer[] snapshot() {
+        if (snapshot == null) {
+            if (size == 0) {
+                snapshot = EMPTY;
+            } else {
+                snapshot = new Layer[size];
+                for (int i = 0; i < size; i++) {
+                    snapshot[i] = layers[size - 1 - i];
+                }
+            }
+        }
+        return snapshot;
     }
 
     /**
      * Default iterator is used by for each loops and is using the {@link #begin()} iterator.
      * The iteration order is first overlays then at last normal layers.
      * @return the begin iterator
+     * @see #snapshot()
      */
     @Override
     public Iterator<Layer> iterator() {
@@ -104,7 +168,10 @@ public class LayerStack implements Disposable, Iterable<Layer> {
      * @see #end()
      */
     public ListIterator<Layer> begin() {
-        return layers.listIterator();
+        if (topDown == null) {
+            topDown = Collections.unmodifiableList(Arrays.asList(snapshot()));
+        }
+        return topDown.listIterator();
     }
 
     /**
@@ -114,15 +181,54 @@ public class LayerStack implements Disposable, Iterable<Layer> {
      * @see #begin()
      */
     public ListIterator<Layer> end() {
-        return layers.listIterator(layers.size() - 1);
+        if (bottomUp == null) {
+            bottomUp = Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(layers, size)));
+        }
+        return bottomUp.listIterator();
     }
 
     @Override
     public void dispose() {
-        for (Layer layer : layers) {
+        for (Layer layer : snapshot()) {
             layer.dispose();
         }
-        layers.clear();
+        Arrays.fill(layers, 0, size, null);
+        size = 0;
         layerIndex = 0;
+        changed();
+    }
+
+    /**
+     * Insert a layer at a specific index, the layers above are moved up one step.
+     * @param index the index to insert at
+     * @param layer the layer to insert
+     */
+    private void insert(int index, Layer layer) {
+        if (size == layers.length) {
+            layers = Arrays.copyOf(layers, size * 2);
+        }
+        System.arraycopy(layers, index, layers, index + 1, size - index);
+        layers[index] = layer;
+        size++;
+        changed();
+    }
+
+    /**
+     * Remove the layer at a specific index, the layers above are moved down one step.
+     * @param index the index to remove
+     */
+    private void remove(int index) {
+        System.arraycopy(layers, index + 1, layers, index, size - index - 1);
+        layers[--size] = null;
+        changed();
+    }
+
+    /**
+     * Invalidate the cached snapshot and views after the stack has been modified.
+     */
+    private void changed() {
+        snapshot = null;
+        topDown = null;
+        bottomUp = null;
     }
 }
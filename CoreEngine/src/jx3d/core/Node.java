@@ -1,6 +1,11 @@
 package jx3d.core;
 
+import jx3d.io.event.Event;
+import jx3d.io.event.EventDispatcher;
 import jx3d.math.Transform;
+import org.joml.AABBf;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
 
 import java.util.ArrayList;
 
@@ -35,6 +40,16 @@ public abstract class Node extends Module {
      */
     private Transform transform;
 
+    /**
+     * The bounding box of this node in local space, if null then this node can not be picked.
+     */
+    private AABBf bounds;
+
+    /**
+     * The cached propagation path from the root to this node, null if it has to be rebuilt.
+     */
+    private Node[] path;
+
     /**
      * Constructor. Creates an empty node that has no connections.
      *
@@ -60,6 +75,92 @@ public abstract class Node extends Module {
         children.add(node);
         node.parent = this;
         node.window = window;
+        node.invalidatePath();
+    }
+
+    /**
+     * Dispatch an event to this node and propagate it through its ancestors.
+     * First the event is captured by every ancestor from the root and down, see {@link #onCapture(Event, Node)},
+     * then this node handles the event through its listener callbacks and finally the event bubbles up through
+     * the ancestors back to the root, see {@link #onBubble(Event, Node)}.
+     * The propagation stops as soon as the event has been marked as handled.
+     *
+     * @param event the event to dispatch
+     */
+    public final void dispatchEvent(Event event) {
+        Node[] path = getPath();
+        int target = path.length - 1;
+        for (int i = 0; i < target; i++) {
+            if (event.isHandled())
+                return;
+
+            path[i].onCapture(event, this);
+        }
+
+        if (event.isHandled())
+            return;
+
+        EventDispatcher.invoke(this, event);
+
+        for (int i = target - 1; i >= 0; i--) {
+            if (event.isHandled())
+                return;
+
+            path[i].onBubble(event, this);
+        }
+    }
+
+    /**
+     * Called when an event dispatched to a descendant is propagated down through this node,
+     * before the descendant handles the event. Mark the event as handled to stop the propagation.
+     *
+     * @param event the event being dispatched
+     * @param target the descendant the event is dispatched to
+     */
+    protected void onCapture(Event event, Node target) {
+    }
+
+    /**
+     * Called when an event dispatched to a descendant bubbles up through this node,
+     * after the descendant has handled the event. Mark the event as handled to stop the propagation.
+     *
+     * @param event the event being dispatched
+     * @param target the descendant the event is dispatched to
+     */
+    protected void onBubble(Event event, Node target) {
+    }
+
+    /**
+     * Get the propagation path from the root of the tree to this node. The path is cached
+     * until this node or any of its ancestors are added to another node.
+     *
+     * @return the nodes from the root to this node, this node is the last node
+     */
+    final Node[] getPath() {
+        if (path == null) {
+            int depth = 0;
+            for (Node node = this; node != null; node = node.parent) {
+                depth++;
+            }
+            path = new Node[depth];
+            for (Node node = this; node != null; node = node.parent) {
+                path[--depth] = node;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Invalidate the cached propagation path of this node and all of its descendants.
+     */
+    private void invalidatePath() {
+        if (path == null && children.isEmpty())
+            return;
+
+        path = null;
+        for (Node child : children) {
+            child.invalidatePath();
+        }
     }
 
     /**
@@ -108,6 +209,66 @@ public abstract class Node extends Module {
         return (parent == null);
     }
 
+    /**
+     * Get the transform object used by this node.
+     *
+     * @return the transform of this node
+     */
+    public Transform getTransform() {
+        return transform;
+    }
+
+    /**
+     * Set the bounding box of this node in local space. Nodes with bounds can be picked by the mouse,
+     * see {@link NodePicker}.
+     *
+     * @param bounds the local bounding box, null to make this node not pickable
+     */
+    public final void setBounds(AABBf bounds) {
+        this.bounds = bounds;
+    }
+
+    /**
+     * Get the bounding box of this node in local space.
+     *
+     * @return the local bounding box or null if this node is not pickable
+     */
+    public final AABBf getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Get the bounding box of this node in world space, i.e. the local bounds transformed by the transform of this node.
+     *
+     * @param dest the bounding box to store the result in
+     * @return false if this node has no bounds
+     * @see #getWorldBounds(AABBf, Matrix4f, Vector3f, Vector3f)
+     */
+    public boolean getWorldBounds(AABBf dest) {
+        return getWorldBounds(dest, new Matrix4f(), new Vector3f(), new Vector3f());
+    }
+
+    /**
+     * Get the bounding box of this node in world space without allocating,
+     * the temporary results are stored in the provided scratch objects.
+     *
+     * @param dest the bounding box to store the result in
+     * @param mapping the matrix to store the mapping of the transform in
+     * @param min the vector to store the minimum corner in
+     * @param max the vector to store the maximum corner in
+     * @return false if this node has no bounds
+     */
+    public boolean getWorldBounds(AABBf dest, Matrix4f mapping, Vector3f min, Vector3f max) {
+        if (bounds == null)
+            return false;
+
+        transform.getMapping(mapping).transformAab(bounds.minX, bounds.minY, bounds.minZ,
+                bounds.maxX, bounds.maxY, bounds.maxZ, min, max);
+        dest.setMin(min);
+        dest.setMax(max);
+        return true;
+    }
+
     /**
      * Set the name of this node.
      *
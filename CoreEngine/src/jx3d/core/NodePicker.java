@@ -0,0 +1,221 @@
+package jx3d.core;
+
+import jx3d.graphics.Camera;
+import jx3d.graphics.Viewport;
+import jx3d.io.event.EventDispatcher;
+import jx3d.io.event.MouseEvent;
+import jx3d.math.BoundingVolumeHierarchy;
+import jx3d.math.RayHits;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+
+/**
+ * Node picker finds the nodes under the mouse cursor and routes mouse events to them, nearest node first.
+ * The cursor is unprojected through the mapping of the camera into a ray that is cast against a
+ * {@link BoundingVolumeHierarchy} of the world bounds of the pickable nodes, see {@link Node#setBounds(org.joml.AABBf)}.
+ * <p>
+ * The hierarchy is built the first time a node is picked after nodes have been added or removed. The picker
+ * does not know when nodes are moved, call {@link #invalidate()} after moving pickable nodes to rebuild the hierarchy.
+ * Picking does not allocate any memory, the mapping and viewport of the camera are copied into fields of the picker.
+ * </p>
+ */
+public class NodePicker {
+
+    /**
+     * The camera used to unproject the cursor.
+     */
+    private Camera camera;
+
+    /**
+     * The nodes that can be picked.
+     */
+    private final ArrayList<Node> nodes = new ArrayList<>();
+
+    /**
+     * The bounding volume hierarchy of the world bounds of the nodes.
+     */
+    private final BoundingVolumeHierarchy<Node> hierarchy = new BoundingVolumeHierarchy<>();
+
+    /**
+     * The nodes hit by the last pick.
+     */
+    private final RayHits<Node> hits = new RayHits<>();
+
+    /**
+     * The ray origin and direction of the last pick.
+     */
+    private final Vector3f origin = new Vector3f(), direction = new Vector3f();
+
+    /**
+     * The scratch matrix used to compute the world bounds of the nodes when the hierarchy is built.
+     */
+    private final Matrix4f boundsMapping = new Matrix4f();
+
+    /**
+     * The scratch corners used to compute the world bounds of the nodes when the hierarchy is built.
+     */
+    private final Vector3f boundsMin = new Vector3f(), boundsMax = new Vector3f();
+
+    /**
+     * The bounds function used to build the hierarchy, cached to avoid allocating on each build.
+     */
+    private final BoundingVolumeHierarchy.BoundsFunction<Node> worldBounds =
+            (node, dest) -> node.getWorldBounds(dest, boundsMapping, boundsMin, boundsMax);
+
+    /**
+     * The mapping of the camera used by the last pick.
+     */
+    private final Matrix4f mapping = new Matrix4f();
+
+    /**
+     * The viewport of the camera used by the last pick.
+     */
+    private final Viewport vp = new Viewport();
+
+    /**
+     * The viewport of the camera in window pixels.
+     */
+    private final int[] viewport = new int[4];
+
+    /**
+     * Valid flag is set when the hierarchy contains the current nodes.
+     */
+    private boolean valid;
+
+    /**
+     * Constructor. Creates a node picker without any nodes.
+     *
+     * @param camera the camera used to unproject the cursor
+     */
+    public NodePicker(Camera camera) {
+        this.camera = camera;
+    }
+
+    /**
+     * Add a node that can be picked, nodes without bounds are ignored.
+     *
+     * @param node the node to add
+     */
+    public void add(Node node) {
+        nodes.add(node);
+        valid = false;
+    }
+
+    /**
+     * Add a node and all of its descendants.
+     *
+     * @param root the root of the nodes to add
+     */
+    public void addTree(Node root) {
+        add(root);
+        for (Node child : root.children()) {
+            addTree(child);
+        }
+    }
+
+    /**
+     * Remove a node so it can not be picked.
+     *
+     * @param node the node to remove
+     * @return true if the node was removed
+     */
+    public boolean remove(Node node) {
+        if (nodes.remove(node)) {
+            valid = false;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remove all the nodes.
+     */
+    public void clear() {
+        nodes.clear();
+        valid = false;
+    }
+
+    /**
+     * Rebuild the bounding volume hierarchy the next time a node is picked, has to be called when nodes are moved.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Set the camera used to unproject the cursor.
+     *
+     * @param camera the camera to use
+     */
+    public void setCamera(Camera camera) {
+        this.camera = camera;
+    }
+
+    /**
+     * Get the camera used to unproject the cursor.
+     *
+     * @return the camera
+     */
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /**
+     * Pick the nodes under a position in the window.
+     *
+     * @param x the x position in window pixels, from the left
+     * @param y the y position in window pixels, from the top
+     * @param width the width of the window
+     * @param height the height of the window
+     * @return the hit nodes sorted by depth, nearest first, the result is reused by the next pick
+     */
+    public RayHits<Node> pick(float x, float y, int width, int height) {
+        if (!valid) {
+            hierarchy.build(nodes, worldBounds);
+            valid = true;
+        }
+
+        camera.getViewport(vp);
+        viewport[0] = (int) (vp.x * width);
+        viewport[1] = (int) (vp.y * height);
+        viewport[2] = (int) (vp.width * width);
+        viewport[3] = (int) (vp.height * height);
+        camera.getMapping(mapping).unprojectRay(x, height - y, viewport, origin, direction);
+        hierarchy.raycast(origin, direction, Float.POSITIVE_INFINITY, hits);
+        return hits;
+    }
+
+    /**
+     * Dispatch a mouse event to the nodes under the cursor, nearest node first, until the event is handled.
+     *
+     * @param event the mouse event to dispatch
+     * @param width the width of the window
+     * @param height the height of the window
+     * @return the number of nodes the event was dispatched to
+     */
+    public int dispatch(MouseEvent event, int width, int height) {
+        RayHits<Node> hits = pick(event.getX(), event.getY(), width, height);
+        int count = 0;
+        for (int i = 0; i < hits.size() && !event.isHandled(); i++) {
+            if (EventDispatcher.invoke(hits.get(i), event))
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Dispatch a mouse event to the nodes under the cursor using the size of the window of the camera.
+     *
+     * @param event the mouse event to dispatch
+     * @return the number of nodes the event was dispatched to
+     * @see #dispatch(MouseEvent, int, int)
+     */
+    public int dispatch(MouseEvent event) {
+        if (camera.window == null)
+            throw new IllegalStateException("The camera is not attached to a window.");
+
+        return dispatch(event, camera.window.getWidth(), camera.window.getHeight());
+    }
+}
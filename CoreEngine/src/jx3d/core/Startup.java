@@ -0,0 +1,263 @@
+package jx3d.core;
+
+import jx3d.graphics.Image;
+import jx3d.graphics.Mesh;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Startup pipeline overlaps the work of starting an application. While the platform initializes the window
+ * and the graphics context on the main thread, the application listener preloads its assets on the workers of
+ * the {@link JobSystem}, see {@link ApplicationListener#onPreload(Startup)}, e.g. scanning directories, reading shader
+ * sources, decoding images and importing shapes. The layers then take the preloaded data when they are created
+ * and only upload it to the graphics card on the main thread.
+ * <p>
+ * Each phase of the startup is timed, both on the main thread and on the workers, and the report is available
+ * after the first frame, see {@link #report(PrintStream)}.
+ * </p>
+ */
+public final class Startup {
+
+    /**
+     * Task is a handle to data that is loaded in the background during startup.
+     * @param <T> the type of the data
+     */
+    public static final class Task<T> {
+
+        /**
+         * The future completed with the data.
+         */
+        private final CompletableFuture<T> future;
+
+        private Task(CompletableFuture<T> future) {
+            this.future = future;
+        }
+
+        /**
+         * Check if the data has been loaded, either successfully or not.
+         * @return true if the task is done
+         */
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        /**
+         * Get the data, waits until the data has been loaded.
+         * If loading failed the exception thrown by the task is rethrown.
+         * @return the loaded data
+         */
+        public T get() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException) cause;
+                if (cause instanceof Error)
+                    throw (Error) cause;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Phase is a timed part of the startup.
+     */
+    public static final class Phase {
+        private final String name;
+        private final String thread;
+        private final long start;
+        private final long duration;
+
+        private Phase(String name, String thread, long start, long duration) {
+            this.name = name;
+            this.thread = thread;
+            this.start = start;
+            this.duration = duration;
+        }
+
+        /**
+         * Get the name of the phase.
+         * @return the phase name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the name of the thread that ran the phase.
+         * @return the thread name
+         */
+        public String getThread() {
+            return thread;
+        }
+
+        /**
+         * Get the time the phase started, relative to the start of the application.
+         * @return the start time in nanoseconds
+         */
+        public long getStart() {
+            return start;
+        }
+
+        /**
+         * Get the time the phase took.
+         * @return the duration in nanoseconds
+         */
+        public long getDuration() {
+            return duration;
+        }
+    }
+
+    /**
+     * The job system running the background tasks, null if the tasks run on the calling thread.
+     */
+    private final JobSystem jobs;
+
+    /**
+     * The time the application started.
+     */
+    private final long startTime;
+
+    /**
+     * The phases recorded so far, from any thread.
+     */
+    private final ConcurrentLinkedQueue<Phase> phases = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The time from the start of the application until the first frame was presented, -1 until then.
+     */
+    private volatile long timeToFirstFrame = -1;
+
+    /**
+     * Constructs a startup pipeline, the startup is timed from this moment.
+     * @param jobs the job system to load the background tasks on, null to load them on the calling thread
+     */
+    public Startup(JobSystem jobs) {
+        this.jobs = jobs;
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Load data in the background, the task is recorded as a phase of the startup.
+     * @param name the name of the phase
+     * @param task the task loading the data
+     * @param <T> the type of the data
+     * @return the task handle
+     */
+    public <T> Task<T> submit(String name, Supplier<T> task) {
+        Supplier<T> timed = () -> {
+            long start = System.nanoTime();
+            try {
+                return task.get();
+            } finally {
+                record(name, start);
+            }
+        };
+
+        if (jobs == null) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            try {
+                future.complete(timed.get());
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+            }
+            return new Task<>(future);
+        }
+        return new Task<>(jobs.supply(timed));
+    }
+
+    /**
+     * Read a text file in the background, e.g. a shader source.
+     * @param file the file locator string
+     * @return the task handle
+     */
+    public Task<String> loadText(String file) {
+        return submit("Load " + file, () -> JX3D.files.loadText(file));
+    }
+
+    /**
+     * Decode an image in the background.
+     * @param file the file locator string
+     * @return the task handle
+     */
+    public Task<Image> loadImage(String file) {
+        return submit("Load " + file, () -> JX3D.files.loadImage(file));
+    }
+
+    /**
+     * Import a shape in the background.
+     * @param file the file locator string
+     * @return the task handle
+     */
+    public Task<Mesh> loadShape(String file) {
+        return submit("Load " + file, () -> JX3D.files.loadShape(file));
+    }
+
+    /**
+     * Record a phase of the startup that ran on the calling thread from a given time until now.
+     * @param name the name of the phase
+     * @param start the time the phase started, see {@link System#nanoTime()}
+     */
+    public void record(String name, long start) {
+        long end = System.nanoTime();
+        phases.add(new Phase(name, Thread.currentThread().getName(), start - startTime, end - start));
+    }
+
+    /**
+     * Finish the startup when the first frame has been presented, called by the platform.
+     * Calling this more than once has no effect.
+     */
+    public void finish() {
+        if (timeToFirstFrame < 0) {
+            timeToFirstFrame = System.nanoTime() - startTime;
+        }
+    }
+
+    /**
+     * Check if the first frame has been presented.
+     * @return true if the startup has finished
+     */
+    public boolean isFinished() {
+        return timeToFirstFrame >= 0;
+    }
+
+    /**
+     * Get the time from the start of the application until the first frame was presented.
+     * @return the time to first frame in nanoseconds, or -1 if the first frame has not been presented yet
+     */
+    public long getTimeToFirstFrame() {
+        return timeToFirstFrame;
+    }
+
+    /**
+     * Get the phases recorded so far ordered by their start time.
+     * @return the phases
+     */
+    public List<Phase> getPhases() {
+        List<Phase> result = new ArrayList<>(phases);
+        result.sort(Comparator.comparingLong(Phase::getStart));
+        return result;
+    }
+
+    /**
+     * Print the startup report, the phases ordered by their start time and the time to first frame.
+     * @param out the stream to print to
+     */
+    public void report(PrintStream out) {
+        out.printf("%-48s %-20s %10s %10s%n", "phase", "thread", "start (ms)", "time (ms)");
+        for (Phase phase : getPhases()) {
+            out.printf("%-48s %-20s %10.2f %10.2f%n", phase.name, phase.thread, phase.start / 1e6, phase.duration / 1e6);
+        }
+        if (timeToFirstFrame >= 0) {
+            out.printf("%-48s %-20s %10s %10.2f%n", "Time to first frame", "", "", timeToFirstFrame / 1e6);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import jx3d.core.Node;
 import jx3d.io.event.WindowEvent;
 import jx3d.math.Frustum;
 import jx3d.math.Transform;
+import jx3d.util.FrameArena;
 import org.joml.Matrix4f;
 
 /**
@@ -111,6 +112,20 @@ public abstract class Camera extends Node {
         return new Viewport(viewport);
     }
 
+    /**
+     * Get the viewport used by this camera without allocating.
+     *
+     * @param dest the viewport to store the result in
+     * @return the dest viewport
+     */
+    public Viewport getViewport(Viewport dest) {
+        dest.x = viewport.x;
+        dest.y = viewport.y;
+        dest.width = viewport.width;
+        dest.height = viewport.height;
+        return dest;
+    }
+
     /**
      * Set the viewport to be used by this camera.
      *
@@ -167,6 +182,16 @@ public abstract class Camera extends Node {
         return new Matrix4f(view);
     }
 
+    /**
+     * Get the view matrix without allocating.
+     *
+     * @param arena the arena to get the result from
+     * @return a temporary view matrix, valid until the end of the frame
+     */
+    public Matrix4f getView(FrameArena arena) {
+        return arena.mat4().set(view);
+    }
+
     /**
      * Get the projection matrix.
      *
@@ -187,6 +212,30 @@ public abstract class Camera extends Node {
         return new Matrix4f(combined);
     }
 
+    /**
+     * Get the mapping matrix without allocating.
+     * This is the view and projection matrices combined.
+     *
+     * @param arena the arena to get the result from
+     * @return a temporary mapping matrix, valid until the end of the frame
+     */
+    public Matrix4f getMapping(FrameArena arena) {
+        validate();
+        return arena.mat4().set(combined);
+    }
+
+    /**
+     * Get the mapping matrix without allocating.
+     * This is the view and projection matrices combined.
+     *
+     * @param dest the matrix to store the result in
+     * @return the dest matrix
+     */
+    public Matrix4f getMapping(Matrix4f dest) {
+        validate();
+        return dest.set(combined);
+    }
+
     /**
      * Validate the combined matrix.
      */
@@ -195,7 +244,7 @@ public abstract class Camera extends Node {
             validateProjection();
 
         if (!validView) {
-            view = new Matrix4f();
+            view.identity();
             validateView();
         }
 
@@ -0,0 +1,95 @@
+package jx3d.graphics;
+
+import java.util.Arrays;
+
+/**
+ * Command buffer records the rendering commands of a frame so that they can be executed later,
+ * possibly on another thread that owns the graphics context, see {@link RenderThread}.
+ * The buffer grows as needed and keeps its capacity when cleared.
+ */
+public final class CommandBuffer {
+
+    /**
+     * Command is a deferred call to the graphics API.
+     */
+    @FunctionalInterface
+    public interface Command {
+
+        /**
+         * Execute the command, called on the thread that owns the graphics context.
+         */
+        void execute();
+    }
+
+    /**
+     * The recorded commands.
+     */
+    private Command[] commands;
+
+    /**
+     * The number of recorded commands.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty command buffer.
+     */
+    public CommandBuffer() {
+        this(64);
+    }
+
+    /**
+     * Constructs an empty command buffer with a specific initial capacity.
+     * @param capacity the initial number of commands that can be recorded without growing
+     */
+    public CommandBuffer(int capacity) {
+        commands = new Command[Math.max(1, capacity)];
+    }
+
+    /**
+     * Record a command.
+     * @param command the command to record
+     */
+    public void add(Command command) {
+        if (command == null)
+            throw new IllegalArgumentException("The command can not be null.");
+
+        if (size == commands.length) {
+            commands = Arrays.copyOf(commands, size * 2);
+        }
+        commands[size++] = command;
+    }
+
+    /**
+     * Execute the recorded commands in the order they were recorded.
+     */
+    public void execute() {
+        for (int i = 0; i < size; i++) {
+            commands[i].execute();
+        }
+    }
+
+    /**
+     * Remove all the recorded commands.
+     */
+    public void clear() {
+        Arrays.fill(commands, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Get the number of recorded commands.
+     * @return the number of commands
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if no commands have been recorded.
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -34,6 +34,16 @@ public abstract class Context {
         Context.renderAPI = renderAPI;
     }
 
+    /**
+     * Make the context current on the calling thread, graphics calls can only be made on the thread the context is current on.
+     */
+    public abstract void makeCurrent();
+
+    /**
+     * Release the context from the calling thread so that it can be made current on another thread.
+     */
+    public abstract void releaseCurrent();
+
     /**
      * Get the render API.
      * @return the render API
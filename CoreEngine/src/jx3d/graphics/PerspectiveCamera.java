@@ -1,6 +1,7 @@
 package jx3d.graphics;
 
 import jx3d.core.Module;
+import jx3d.util.FrameArena;
 import org.joml.Vector3f;
 
 /**
@@ -108,8 +109,9 @@ public class PerspectiveCamera extends Camera {
 
     @Override
     protected void validateView() {
-        Vector3f pos = transform.getPos();
-        Vector3f rot = transform.getEulerAngles();
+        FrameArena arena = FrameArena.get();
+        Vector3f pos = transform.getPos(arena);
+        Vector3f rot = transform.getEulerAngles(arena);
         pos.negate();
         rot.negate();
         view.rotateXYZ(rot);
@@ -0,0 +1,199 @@
+package jx3d.graphics;
+
+import jx3d.util.Disposable;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Render thread owns the graphics context and executes the commands recorded by the update thread, so that
+ * the update of frame N+1 overlaps the submission of frame N to the GPU. There are two command buffers,
+ * the update thread records into one of them while the render thread executes the other, see {@link #getCommands()}.
+ * <p>
+ * Submitting a frame waits until the render thread is done with the previous frame, thus the render thread
+ * is never more than one frame behind the update thread. The graphics context is released by the calling thread
+ * when the render thread is created and made current again when the render thread is disposed.
+ * </p>
+ */
+public final class RenderThread implements Disposable {
+
+    /**
+     * Command buffer used to tell the render thread to stop.
+     */
+    private static final CommandBuffer STOP = new CommandBuffer(1);
+
+    /**
+     * The graphics context owned by the render thread.
+     */
+    private final Context context;
+
+    /**
+     * Called by the render thread after the commands of a frame has been executed e.g. to swap the buffers.
+     */
+    private final Runnable present;
+
+    /**
+     * The frame submitted to the render thread, at most one frame is waiting.
+     */
+    private final BlockingQueue<CommandBuffer> pending = new ArrayBlockingQueue<>(1);
+
+    /**
+     * The command buffers that the render thread is done with.
+     */
+    private final BlockingQueue<CommandBuffer> free = new ArrayBlockingQueue<>(2);
+
+    /**
+     * The thread executing the commands.
+     */
+    private final Thread thread;
+
+    /**
+     * The command buffer recorded by the update thread.
+     */
+    private CommandBuffer recording = new CommandBuffer();
+
+    /**
+     * The first exception thrown by the render thread, rethrown on the update thread.
+     */
+    private volatile Throwable failure;
+
+    /**
+     * The number of frames executed by the render thread.
+     */
+    private volatile long frames;
+
+    /**
+     * Constructs and starts a render thread.
+     * @param context the graphics context, has to be current on the calling thread
+     * @param present called after the commands of each frame have been executed, e.g. to swap the buffers
+     */
+    public RenderThread(Context context, Runnable present) {
+        this.context = context;
+        this.present = present;
+        free.add(new CommandBuffer());
+
+        context.releaseCurrent();
+        thread = new Thread(this::run, "jx3d-render");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Get the command buffer to record the commands of the current frame into.
+     * The buffer is owned by the update thread until the frame is submitted.
+     * @return the command buffer of the current frame
+     */
+    public CommandBuffer getCommands() {
+        return recording;
+    }
+
+    /**
+     * Submit the commands of the current frame to the render thread. Waits until the render thread is done with
+     * the previous frame, and then returns the other command buffer to record the next frame into.
+     * @return the command buffer of the next frame, also returned by {@link #getCommands()}
+     */
+    public CommandBuffer submit() {
+        checkFailure();
+        try {
+            pending.put(recording);
+            recording = free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while submitting a frame.", e);
+        }
+        checkFailure();
+        return recording;
+    }
+
+    /**
+     * Wait until the render thread has executed every submitted frame.
+     */
+    public void finish() {
+        try {
+            CommandBuffer buffer = free.take();
+            free.put(buffer);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the render thread.", e);
+        }
+        checkFailure();
+    }
+
+    /**
+     * Get the number of frames executed by the render thread.
+     * @return the number of frames
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Check if the calling thread is the render thread.
+     * @return true if called from the render thread
+     */
+    public boolean isRenderThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Stop the render thread after the submitted frames have been executed and make the context current on the calling thread.
+     */
+    @Override
+    public void dispose() {
+        if (!thread.isAlive())
+            return;
+
+        try {
+            pending.put(STOP);
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        context.makeCurrent();
+    }
+
+    /**
+     * The loop of the render thread.
+     */
+    private void run() {
+        context.makeCurrent();
+        try {
+            while (true) {
+                CommandBuffer buffer = pending.take();
+                if (buffer == STOP)
+                    break;
+
+                try {
+                    if (failure == null) {
+                        buffer.execute();
+                        present.run();
+                    }
+                } catch (Throwable t) {
+                    failure = t;
+                } finally {
+                    buffer.clear();
+                    frames++;
+                    free.put(buffer);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            context.releaseCurrent();
+        }
+    }
+
+    /**
+     * Rethrow the failure of the render thread on the calling thread.
+     */
+    private void checkFailure() {
+        Throwable t = failure;
+        if (t instanceof RuntimeException)
+            throw (RuntimeException) t;
+        if (t instanceof Error)
+            throw (Error) t;
+        if (t != null)
+            throw new IllegalStateException("The render thread failed.", t);
+    }
+}
@@ -4,6 +4,7 @@ import jx3d.graphics.Color;
 import jx3d.graphics.Shader;
 import jx3d.graphics.ShaderException;
 import jx3d.util.BufferUtils;
+import jx3d.util.FrameArena;
 import org.joml.*;
 
 import java.util.HashMap;
@@ -87,6 +88,25 @@ public class GLSLShader extends Shader {
         program = -1;
     }
 
+    /**
+     * Replace the program of this shader with the program of another shader, e.g. when the
+     * shader sources have been reloaded. The other shader is linked and then consumed, it cannot
+     * be used afterwards. The uniforms of this shader have to be set again after replacing.
+     *
+     * @param other the shader whose program to take over
+     */
+    public void replace(GLSLShader other) {
+        check();
+        other.check();
+        other.setup();
+
+        gl.deleteProgram(program);
+        program = other.program;
+        ready = true;
+        uniforms.clear();
+        other.program = -1;
+    }
+
     @Override
     public void set(String name, Integer value) {
         Uniform uniform = setImpl(name, value, INT);
@@ -147,7 +167,7 @@ public class GLSLShader extends Shader {
     public void set(String name, Matrix3f value) {
         Uniform uniform = setImpl(name, value, MAT3);
         if (uniform != null) {
-            gl.uniformMatrix3fv(uniform.location, 12, false, BufferUtils.toFloatBuffer(value));
+            gl.uniformMatrix3fv(uniform.location, 12, false, BufferUtils.toFloatBuffer(value, FrameArena.get()));
         }
     }
 
@@ -155,7 +175,7 @@ public class GLSLShader extends Shader {
     public void set(String name, Matrix4f value) {
         Uniform uniform = setImpl(name, value, MAT4);
         if (uniform != null) {
-            gl.uniformMatrix4fv(uniform.location, 16, false, BufferUtils.toFloatBuffer(value));
+            gl.uniformMatrix4fv(uniform.location, 16, false, BufferUtils.toFloatBuffer(value, FrameArena.get()));
         }
     }
 
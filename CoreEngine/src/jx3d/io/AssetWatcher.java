@@ -0,0 +1,355 @@
+package jx3d.io;
+
+import jx3d.core.JX3D;
+import jx3d.core.Log;
+import jx3d.graphics.Image;
+import jx3d.graphics.Mesh;
+import jx3d.graphics.ShaderException;
+import jx3d.graphics.Texture2D;
+import jx3d.graphics.opengl.GLSLShader;
+import jx3d.util.Disposable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+import static jx3d.core.Module.FRAGMENT_SHADER;
+import static jx3d.core.Module.VERTEX_SHADER;
+
+/**
+ * Asset watcher reloads assets when their files change on disk, e.g. while iterating on shaders, textures and models.
+ * The files are resolved through {@link Files#resolve(String)} and watched with a {@link WatchService}. When a file
+ * changes, the assets loaded from it are loaded again on a background thread, and the results are swapped in on the
+ * thread that owns the graphics context at the next frame boundary, see {@link #update()}. Only the assets of the changed
+ * file are reloaded, and the main loop is woken up after they have been loaded in case it is waiting for events.
+ * <p>
+ * Loading is split in two steps since graphics objects can only be modified on the thread that owns the context.
+ * The loader reads and decodes the file in the background, e.g. importing a model, and the apply step uploads
+ * the result, e.g. setting the vertex buffers. Files that are inside a jar or loaded from an URL cannot be watched,
+ * note that build tools may copy resources to an output directory which is then the directory that is watched.
+ * </p>
+ *
+ * @author Aleman778
+ * @since 1.0
+ */
+public final class AssetWatcher implements Disposable {
+
+    /**
+     * Loader reads an asset from a file on the background thread.
+     * @param <T> the type of the loaded data
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+
+        /**
+         * Load the asset.
+         * @param file the file locator string that is watched
+         * @return the loaded data, or null to skip applying it
+         * @throws Exception if the asset could not be loaded, the previous asset is then kept
+         */
+        T load(String file) throws Exception;
+    }
+
+    /**
+     * The time to wait for more changes after a file has changed, editors often write files in several steps.
+     */
+    private static final long SETTLE_MILLIS = 20;
+
+    /**
+     * The files used to resolve and load the watched files.
+     */
+    private final Files files;
+
+    /**
+     * Called after reloaded assets have been queued, may be null.
+     */
+    private final Runnable wakeUp;
+
+    /**
+     * The watch service, null until the first file is watched.
+     */
+    private WatchService service;
+
+    /**
+     * The background thread that waits for changes and loads the assets.
+     */
+    private Thread thread;
+
+    /**
+     * The watched directories.
+     */
+    private final Map<Path, WatchKey> directories = new ConcurrentHashMap<>();
+
+    /**
+     * The assets loaded from each watched file.
+     */
+    private final Map<Path, List<Asset<?>>> assets = new ConcurrentHashMap<>();
+
+    /**
+     * The assets that have been reloaded and are waiting to be applied.
+     */
+    private final ConcurrentLinkedQueue<Asset<?>> reloaded = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructs an asset watcher.
+     * @param files the files used to resolve and load the watched files
+     */
+    public AssetWatcher(Files files) {
+        this(files, null);
+    }
+
+    /**
+     * Constructs an asset watcher that wakes up the main loop when assets have been reloaded.
+     * @param files the files used to resolve and load the watched files
+     * @param wakeUp called on the background thread after reloaded assets have been queued,
+     *               e.g. {@link jx3d.core.Application#requestRender()}
+     */
+    public AssetWatcher(Files files, Runnable wakeUp) {
+        this.files = files;
+        this.wakeUp = wakeUp;
+    }
+
+    /**
+     * Watch a file and reload an asset from it every time the file changes.
+     * @param file the file locator string
+     * @param loader loads the asset on the background thread
+     * @param apply applies the loaded asset on the thread that owns the graphics context at the next frame boundary
+     * @param <T> the type of the loaded data
+     * @return true if the file is watched, false if the file is not on the local file system
+     */
+    public <T> boolean watch(String file, Loader<? extends T> loader, Consumer<? super T> apply) {
+        return watch(new Asset<T>(file, loader, apply), file);
+    }
+
+    /**
+     * Watch a file and reload an asset when it changes, the same asset may be watched in several files.
+     * @param asset the asset to reload
+     * @param file the file locator string
+     * @return true if the file is watched, false if the file is not on the local file system
+     */
+    private synchronized boolean watch(Asset<?> asset, String file) {
+        File resolved = files.resolve(file);
+        if (resolved == null) {
+            Log.CORE.warning("Cannot watch file that is not on the local file system: " + file);
+            return false;
+        }
+
+        Path path = resolved.toPath().toAbsolutePath().normalize();
+        Path directory = path.getParent();
+        try {
+            if (service == null) {
+                service = FileSystems.getDefault().newWatchService();
+                thread = new Thread(this::run, "jx3d-asset-watcher");
+                thread.setDaemon(true);
+                thread.start();
+            }
+            if (!directories.containsKey(directory)) {
+                directories.put(directory, directory.register(service, ENTRY_CREATE, ENTRY_MODIFY));
+            }
+        } catch (IOException e) {
+            Log.CORE.warning("Cannot watch file " + file + ": " + e.getMessage());
+            return false;
+        }
+
+        assets.computeIfAbsent(path, (Path key) -> new CopyOnWriteArrayList<>()).add(asset);
+        return true;
+    }
+
+    /**
+     * Watch the sources of a shader and replace the shader program when either source changes.
+     * The new program is compiled and linked at the frame boundary, if it fails to compile the old program is kept.
+     * Both sources are watched as one asset, so saving both files at once only replaces the program once.
+     * Note that the uniforms have to be set again after the program has been replaced.
+     * @param shader the shader to replace
+     * @param fragment the fragment shader source file
+     * @param vertex the vertex shader source file
+     * @return true if both files are watched
+     */
+    public boolean watchShader(GLSLShader shader, String fragment, String vertex) {
+        Loader<String[]> loader = (String file) -> new String[] {files.loadText(fragment), files.loadText(vertex)};
+        Consumer<String[]> apply = (String[] sources) -> {
+            if (sources[0] == null || sources[1] == null)
+                return;
+
+            GLSLShader replacement = new GLSLShader(JX3D.gl20);
+            try {
+                replacement.add(FRAGMENT_SHADER, sources[0]);
+                replacement.add(VERTEX_SHADER, sources[1]);
+            } catch (ShaderException e) {
+                replacement.dispose();
+                Log.CORE.warning("Failed to reload shader " + fragment + ", " + vertex + ": " + e.getMessage());
+                return;
+            }
+            shader.replace(replacement);
+            Log.CORE.info("Reloaded shader " + fragment + ", " + vertex);
+        };
+        Asset<String[]> asset = new Asset<>(fragment, loader, apply);
+        boolean watched = watch(asset, fragment);
+        return watch(asset, vertex) && watched;
+    }
+
+    /**
+     * Watch the image of a texture and upload the image again when it changes.
+     * @param texture the texture to update
+     * @param file the image file
+     */
+    public void watchTexture(Texture2D texture, String file) {
+        watch(file, files::loadImage, (Image image) -> {
+            texture.bind();
+            texture.image(image);
+            Log.CORE.info("Reloaded texture " + file);
+        });
+    }
+
+    /**
+     * Watch a shape and import it again when it changes, the import runs on the background thread.
+     * @param file the shape file
+     * @param apply applies the shape on the thread that owns the graphics context, e.g. updates the vertex and index buffers
+     */
+    public void watchShape(String file, Consumer<? super Mesh> apply) {
+        watch(file, files::loadShape, apply);
+    }
+
+    /**
+     * Apply the assets that have been reloaded since the last update.
+     * This is called by the platform at the frame boundary on the thread that owns the graphics context,
+     * i.e. the main thread or the render thread if there is one, see {@link jx3d.graphics.RenderThread}.
+     */
+    public void update() {
+        Asset<?> asset;
+        while ((asset = reloaded.poll()) != null) {
+            asset.apply();
+        }
+    }
+
+    /**
+     * Stop watching all files.
+     */
+    @Override
+    public synchronized void dispose() {
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                Log.CORE.warning("Failed to close watch service: " + e.getMessage());
+            }
+            service = null;
+        }
+        directories.clear();
+        assets.clear();
+        reloaded.clear();
+    }
+
+    /**
+     * The background thread, waits for changes and loads the changed assets.
+     */
+    private void run() {
+        WatchService service = this.service;
+        Set<Path> changed = new HashSet<>();
+        Set<Asset<?>> changedAssets = new LinkedHashSet<>();
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                do {
+                    Path directory = (Path) key.watchable();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == OVERFLOW)
+                            continue;
+                        changed.add(directory.resolve((Path) event.context()));
+                    }
+                    key.reset();
+                } while ((key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null);
+
+                for (Path path : changed) {
+                    List<Asset<?>> list = assets.get(path);
+                    if (list != null) {
+                        changedAssets.addAll(list);
+                    }
+                }
+                changed.clear();
+
+                boolean queued = false;
+                for (Asset<?> asset : changedAssets) {
+                    if (asset.load()) {
+                        reloaded.add(asset);
+                        queued = true;
+                    }
+                }
+                changedAssets.clear();
+                if (queued && wakeUp != null) {
+                    wakeUp.run();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // the watcher has been disposed
+        }
+    }
+
+    /**
+     * Asset loaded from a watched file.
+     * @param <T> the type of the loaded data
+     */
+    private static final class Asset<T> {
+        private final String file;
+        private final Loader<? extends T> loader;
+        private final Consumer<? super T> apply;
+
+        /**
+         * The loaded data waiting to be applied.
+         */
+        private final AtomicReference<T> pending = new AtomicReference<>();
+
+        Asset(String file, Loader<? extends T> loader, Consumer<? super T> apply) {
+            this.file = file;
+            this.loader = loader;
+            this.apply = apply;
+        }
+
+        /**
+         * Load the asset on the background thread.
+         * @return true if the asset has to be queued to be applied
+         */
+        boolean load() {
+            T data;
+            try {
+                data = loader.load(file);
+            } catch (Exception e) {
+                Log.CORE.warning("Failed to reload " + file + ": " + e);
+                return false;
+            }
+            return data != null && pending.getAndSet(data) == null;
+        }
+
+        /**
+         * Apply the pending data on the thread that owns the graphics context.
+         */
+        void apply() {
+            T data = pending.getAndSet(null);
+            if (data == null)
+                return;
+
+            try {
+                apply.accept(data);
+            } catch (RuntimeException e) {
+                Log.CORE.warning("Failed to apply reloaded " + file + ": " + e);
+            }
+        }
+    }
+}
@@ -144,6 +144,16 @@ public interface Files {
      */
     OutputStream createOutput(String file);
 
+    /**
+     * Resolve the file on the local file system that {@link #createInput(String)} reads from,
+     * e.g. to watch the file for changes.
+     *
+     * @param file the file locator string
+     * @return the resolved file, or null if the file is not on the local file system
+     *         e.g. when it is an URL or a resource inside a jar
+     */
+    File resolve(String file);
+
     /**
      * Get a file handle from a local directory.
      * Local files are located in you project folder,
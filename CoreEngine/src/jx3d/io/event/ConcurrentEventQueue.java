@@ -0,0 +1,121 @@
+package jx3d.io.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent event queue is a bounded lock-free ring buffer that any number of threads can add events to,
+ * while a single consumer thread (normally the main thread) polls the events. Each slot in the ring buffer
+ * has a sequence number that tells producers when the slot is free and the consumer when the slot is published,
+ * so neither producers or the consumer has to take a lock and adding or polling events does not allocate memory.
+ */
+public class ConcurrentEventQueue {
+
+    /**
+     * The events stored in the ring buffer.
+     */
+    private final Event[] events;
+
+    /**
+     * The sequence number of each slot in the ring buffer.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * Mask used to wrap positions into the ring buffer, the capacity is always a power of two.
+     */
+    private final int mask;
+
+    /**
+     * The position of the next slot to be claimed by a producer.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * The position of the next slot to be polled by the consumer, only accessed by the consumer thread.
+     */
+    private long head;
+
+    /**
+     * Constructs an empty concurrent event queue.
+     * @param capacity the maximum number of queued events, rounded up to the next power of two
+     */
+    public ConcurrentEventQueue(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid event queue capacity: " + capacity);
+        }
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+
+        events = new Event[size];
+        sequences = new AtomicLongArray(size);
+        mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add an event to the queue, can be called from any thread.
+     * @param event the event to add
+     * @return true if the event was added, false if the queue is full
+     */
+    public boolean offer(Event event) {
+        if (event == null)
+            throw new NullPointerException();
+
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    events[index] = event;
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Remove the next published event from the queue, should only be called from the consumer thread.
+     * @return the next event or null if there are no published events
+     */
+    public Event poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1)
+            return null;
+
+        Event event = events[index];
+        events[index] = null;
+        sequences.set(index, head + events.length);
+        head++;
+        return event;
+    }
+
+    /**
+     * Get the maximum number of events that can be queued.
+     * @return the queue capacity
+     */
+    public int capacity() {
+        return events.length;
+    }
+
+    /**
+     * Get an estimate of the number of queued events, the result may be out of date
+     * when other threads are adding events.
+     * @return the approximate number of queued events
+     */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, events.length));
+    }
+}
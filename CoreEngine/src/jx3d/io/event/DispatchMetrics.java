@@ -0,0 +1,191 @@
+package jx3d.io.event;
+
+import jx3d.io.FileHandle;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Dispatch metrics collects the dispatch count and a {@link LatencyHistogram} of the time spent in each
+ * listener or layer that events are dispatched to. The metrics are enabled by attaching them to an
+ * {@link EventDispatcher} or the {@link jx3d.core.Application}, see {@link EventDispatcher#setMetrics(DispatchMetrics)}
+ * and {@link jx3d.core.Application#setMetrics(DispatchMetrics)}.
+ * <p>
+ * The number of tracked histograms is limited by the capacity given to the constructor, when the capacity is
+ * reached the remaining sources are all recorded in a shared histogram called <code>other</code> without being
+ * tracked. Sources that are removed are untracked again, see {@link #untrack(Object)}, their histograms are
+ * kept in the report but the metrics no longer reference the sources. Thus the metrics use a fixed amount of
+ * memory no matter how many listeners come and go.
+ * </p>
+ */
+public final class DispatchMetrics {
+
+    /**
+     * The default maximum number of tracked sources.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * The name of the histogram shared by sources that did not fit.
+     */
+    public static final String OTHER = "other";
+
+    /**
+     * The maximum number of tracked sources.
+     */
+    private final int capacity;
+
+    /**
+     * The histogram of each tracked source, sources recorded in the <code>other</code> histogram are not kept.
+     */
+    private final IdentityHashMap<Object, LatencyHistogram> sources;
+
+    /**
+     * The names of the tracked histograms, in the order they were tracked.
+     */
+    private final ArrayList<String> names;
+
+    /**
+     * The tracked histograms, in the order they were tracked.
+     */
+    private final ArrayList<LatencyHistogram> histograms;
+
+    /**
+     * The histogram shared by the sources that did not fit, null until the capacity is reached.
+     */
+    private LatencyHistogram other;
+
+    /**
+     * Constructs dispatch metrics with the default capacity.
+     */
+    public DispatchMetrics() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs dispatch metrics with a specific capacity.
+     * @param capacity the maximum number of tracked sources
+     */
+    public DispatchMetrics(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Invalid metrics capacity: " + capacity);
+
+        this.capacity = capacity;
+        this.sources = new IdentityHashMap<>(capacity);
+        this.names = new ArrayList<>(capacity + 1);
+        this.histograms = new ArrayList<>(capacity + 1);
+    }
+
+    /**
+     * Get the histogram of a source, a new histogram is tracked if the source has not been tracked before.
+     * If the capacity has been reached the shared <code>other</code> histogram is returned instead.
+     * @param source the listener, layer or any other object that events are dispatched to
+     * @param name the name of the source used when the metrics are reported
+     * @return the histogram to record the dispatch durations of the source in
+     */
+    public LatencyHistogram track(Object source, String name) {
+        LatencyHistogram histogram = sources.get(source);
+        if (histogram != null)
+            return histogram;
+
+        if (histograms.size() - (other != null ? 1 : 0) >= capacity) {
+            if (other == null) {
+                other = new LatencyHistogram();
+                names.add(OTHER);
+                histograms.add(other);
+            }
+            return other;
+        }
+
+        histogram = new LatencyHistogram();
+        names.add(name);
+        histograms.add(histogram);
+        sources.put(source, histogram);
+        return histogram;
+    }
+
+    /**
+     * Stop tracking a source e.g. when a listener is removed or a layer is popped, so the metrics do not
+     * keep the source reachable. The histogram of the source is kept and still reported.
+     * @param source the source
+     * @return true if the source was tracked
+     */
+    public boolean untrack(Object source) {
+        return sources.remove(source) != null;
+    }
+
+    /**
+     * Get the histogram of a tracked source.
+     * @param source the source
+     * @return the histogram or null if the source has not been tracked
+     */
+    public LatencyHistogram get(Object source) {
+        return sources.get(source);
+    }
+
+    /**
+     * Get the histogram with a specific name, if several sources have the same name the first one is returned.
+     * @param name the name of the source
+     * @return the histogram or null if there is no such histogram
+     */
+    public LatencyHistogram get(String name) {
+        int index = names.indexOf(name);
+        return index != -1 ? histograms.get(index) : null;
+    }
+
+    /**
+     * Call an action for each tracked histogram in the order they were tracked.
+     * @param action the action taking the name and the histogram
+     */
+    public void forEach(BiConsumer<String, LatencyHistogram> action) {
+        for (int i = 0; i < names.size(); i++) {
+            action.accept(names.get(i), histograms.get(i));
+        }
+    }
+
+    /**
+     * Get the number of tracked histograms.
+     * @return the number of histograms
+     */
+    public int size() {
+        return histograms.size();
+    }
+
+    /**
+     * Reset all the histograms, the sources stay tracked.
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Print a table of the dispatch count, p50, p99 and max latency in microseconds of every histogram.
+     * @param out the stream to print to
+     */
+    public void dump(PrintStream out) {
+        out.printf("%-48s %10s %10s %10s %10s%n", "source", "count", "p50 (us)", "p99 (us)", "max (us)");
+        forEach((String name, LatencyHistogram h) -> out.printf("%-48s %10d %10.2f %10.2f %10.2f%n",
+                name, h.getCount(), h.getPercentile(50) / 1e3, h.getPercentile(99) / 1e3, h.getMax() / 1e3));
+    }
+
+    /**
+     * Dump the metrics to a file, see {@link #dump(PrintStream)}.
+     * @param file the file to write to
+     * @return true if the metrics were written, false if the file could not be opened
+     */
+    public boolean dump(FileHandle file) {
+        OutputStream output = file.toOutputStream();
+        if (output == null)
+            return false;
+
+        try (PrintStream out = new PrintStream(output)) {
+            dump(out);
+            return !out.checkError();
+        }
+    }
+}
@@ -10,6 +10,16 @@ public abstract class Event {
      */
     private boolean handled = false;
 
+    /**
+     * The pool this event was obtained from, null if the event is not pooled.
+     */
+    private EventPool<?> pool;
+
+    /**
+     * The number of references to a pooled event, the event is returned to its pool when this reaches zero.
+     */
+    private int references;
+
     /**
      * Get the type of the event.
      * @return the event type
@@ -56,6 +66,55 @@ public abstract class Event {
         handled = true;
     }
 
+    /**
+     * Check if this event was obtained from an {@link EventPool}.
+     * Pooled events are reused after they have been released so listeners have to
+     * {@link #retain()} them in order to keep a reference after the callback has returned.
+     * @return true if the event is pooled, false otherwise
+     */
+    public final boolean isPooled() {
+        return pool != null;
+    }
+
+    /**
+     * Retain a reference to this event, the event will not be reused until {@link #release()}
+     * has been called for each call to this method. Has no effect on events that are not pooled.
+     */
+    public final void retain() {
+        if (pool != null) {
+            if (references <= 0)
+                throw new IllegalStateException("Cannot retain an event that has already been released.");
+
+            references++;
+        }
+    }
+
+    /**
+     * Release a reference to this event, when the last reference is released the event is returned to its pool.
+     * Has no effect on events that are not pooled.
+     */
+    public final void release() {
+        if (pool != null) {
+            if (references <= 0)
+                throw new IllegalStateException("The event has already been released.");
+
+            if (--references == 0) {
+                pool.free(this);
+            }
+        }
+    }
+
+    /**
+     * Called by the {@link EventPool} when this event is obtained, resets the handled flag
+     * and gives the caller the first reference to the event.
+     * @param pool the pool the event was obtained from
+     */
+    final void obtained(EventPool<?> pool) {
+        this.pool = pool;
+        this.handled = false;
+        this.references = 1;
+    }
+
     @Override
     public String toString() {
         return "Event(" + getType() + "): " + getName() + " (handled=" + handled + ")";
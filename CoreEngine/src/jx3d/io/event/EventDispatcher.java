@@ -1,14 +1,53 @@
 package jx3d.io.event;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * The event dispatcher is used to dispatch events to event listeners.
  * If there are multiple listeners listening for the same event then the user can set priorities
  * e.g. nodes closer to the camera have higher priority.
+ * <p>
+ * Listeners are stored in dispatch tables indexed by {@link EventType}, by category bit and by the
+ * interned id of generic event names.
+ * Each bucket in the tables is a sorted array that is copied when a listener is added,
+ * so dispatching an event does not allocate any memory, never has to sort and only visits
+ * the listeners that match the event. The type listeners and the categorical listeners of an event type
+ * are merged into one bucket the first time the event type is dispatched after the listeners have changed,
+ * so the priorities are honoured across both kinds of listeners.
+ * </p>
+ * <p>
+ * Every <code>addListener</code> method returns the {@link ListenerEntry} of the listener which is used as
+ * a handle to remove the listener again, see {@link #removeListener(ListenerEntry)}. Removing a listener only
+ * marks the entry as removed, the removed entries are pruned from the dispatch tables the next time they are
+ * visited by {@link #dispatch(Event)}. Listeners can also be added as weak listeners, see
+ * {@link #addWeakListener(EventType, Listener)}, those are only weakly referenced by the dispatcher and are
+ * pruned in the same way once they have been garbage collected.
+ * </p>
+ * <p>
+ * The time spent in each listener can be measured by attaching {@link DispatchMetrics}, see
+ * {@link #setMetrics(DispatchMetrics)}. The bound callbacks of the listeners are then replaced by timed callbacks,
+ * so dispatching without metrics does not have to check if the metrics are enabled.
+ * </p>
  */
 public class EventDispatcher {
 
+    /**
+     * Number of different category bits that can be used in the category flags.
+     */
+    private static final int CATEGORY_BITS = Integer.SIZE;
+
+    /**
+     * Shared empty bucket used for event types and categories without any listeners.
+     */
+    private static final ListenerEntry[] EMPTY = new ListenerEntry[0];
+
+    /**
+     * The minimum number of entries in the listener lists before removed entries are purged.
+     */
+    private static final int PURGE_THRESHOLD = 16;
+
     /**
      * List of all listeners attached to this event dispatcher that are not specifically
      * prioritized by the user. The priority is based on when the event is added.
@@ -21,14 +60,51 @@ public class EventDispatcher {
      * The prioritizedListeners list of all listeners are based on the priority given to the listeners.
      * If no listeners are prioritized then this array will remain empty. Non prioritized
      * listeners are stored in a separate list called {@link #listeners}.
+     * The list is kept sorted with the highest priority first.
      */
     private ArrayList<ListenerEntry> prioritizedListeners;
 
     /**
-     * Flag used to check if the {@link #prioritizedListeners} list is sorted or not.
+     * Dispatch table of type listeners, indexed by {@link EventType#ordinal()}.
+     */
+    private ListenerEntry[][] typeTable;
+
+    /**
+     * Dispatch table of categorical listeners, indexed by the bit position of the category flag.
+     */
+    private ListenerEntry[][] categoryTable;
+
+    /**
+     * Dispatch table of the merged type and categorical listeners, indexed by {@link EventType#ordinal()}.
+     * The buckets are built on dispatch and null if they have to be built again.
+     */
+    private ListenerEntry[][] mergedTable;
+
+    /**
+     * The category flags of the events that each bucket in the {@link #mergedTable} was built for.
      */
-    private boolean sorted = true;
+    private int[] mergedFlags;
 
+    /**
+     * The number of entries that have been added, used to keep entries with equal priority in the order they were added.
+     */
+    private int sequence;
+
+    /**
+     * Dispatch table of generic listeners, indexed by the interned id of the generic event name.
+     * @see GenericEvent#id(String)
+     */
+    private ListenerEntry[][] genericTable;
+
+    /**
+     * The number of entries in the listener lists that triggers the next purge of removed entries.
+     */
+    private int purgeThreshold = PURGE_THRESHOLD;
+
+    /**
+     * The metrics that the dispatch latency of each listener is recorded in, null if metrics are disabled.
+     */
+    private DispatchMetrics metrics;
 
     /**
      * Constructor. Creates an empty event dispatcher.
@@ -36,26 +112,72 @@ public class EventDispatcher {
     public EventDispatcher() {
         listeners = new ArrayList<>();
         prioritizedListeners = new ArrayList<>();
+        typeTable = new ListenerEntry[EventType.values().length][];
+        categoryTable = new ListenerEntry[CATEGORY_BITS][];
+        genericTable = new ListenerEntry[0][];
+        mergedTable = new ListenerEntry[typeTable.length][];
+        mergedFlags = new int[typeTable.length];
+        Arrays.fill(typeTable, EMPTY);
+        Arrays.fill(categoryTable, EMPTY);
     }
 
     /**
      * Dispatch an event to everyone who wants listens to this event.
      * Some listeners may be prioritized so those are handled first.
+     * The dispatching stops as soon as the event has been marked as handled.
      * If there are no listeners for this event then nothing will happen.
      * @param event the event to dispatch
      */
     public void dispatch(Event event) {
         if (event instanceof GenericEvent) {
-            for (ListenerEntry le : getListeners(event.getName())) {
-                le.doDispatch(event);
+            int id = ((GenericEvent) event).getId();
+            if (id >= 0 && id < genericTable.length) {
+                boolean stale = false;
+                for (ListenerEntry le : genericTable[id]) {
+                    if (event.isHandled())
+                        break;
+
+                    GenericListener listener = le.callback;
+                    if (listener == null) {
+                        stale = true;
+                        continue;
+                    }
+                    listener.callback((GenericEvent) event);
+                }
+                if (stale) {
+                    genericTable[id] = prune(genericTable[id]);
+                }
             }
             return;
         }
-        for (ListenerEntry le : getListeners(event.getType())) {
-            le.doDispatch(event);
+        int ordinal = event.getType().ordinal();
+        int flag = event.getCategoryFlag();
+        ListenerEntry[] bucket = mergedTable[ordinal];
+        if (bucket == null || mergedFlags[ordinal] != flag) {
+            bucket = merge(ordinal, flag);
+        }
+
+        boolean stale = false;
+        for (ListenerEntry le : bucket) {
+            if (event.isHandled())
+                break;
+
+            Listener listener = le.get();
+            if (listener == null) {
+                stale = true;
+                continue;
+            }
+            Handler handler = le.handlers != null ? le.handlers[ordinal] : le.handler;
+            handler.handle(listener, event);
         }
-        for (ListenerEntry le : getListeners(event.getCategoryFlag())) {
-            le.doDispatch(event);
+        if (stale) {
+            typeTable[ordinal] = prune(typeTable[ordinal]);
+            while (flag != 0) {
+                int index = Integer.numberOfTrailingZeros(flag);
+                categoryTable[index] = prune(categoryTable[index]);
+                flag &= flag - 1;
+            }
+            Arrays.fill(mergedTable, null);
         }
     }
 
@@ -63,24 +185,46 @@ public class EventDispatcher {
      * Add a basic listener to the event dispatcher.
      * @param name the name is used to identify this event
      * @param listener the basic listener callback function to call
+     * @return the entry of the added listener, used to remove the listener
      */
-    public void addListener(String name, GenericListener listener) {
-        ListenerEntry entry = new ListenerEntry(name, listener, 0);
-        listeners.add(entry);
+    public ListenerEntry addListener(String name, GenericListener listener) {
+        return addEntry(new ListenerEntry(name, listener, 0, false));
+    }
+
+    /**
+     * Add a prioritized basic listener to the event dispatcher.
+     * Listeners with higher priority are called before listeners with lower priority.
+     * @param name the name is used to identify this event
+     * @param listener the basic listener callback function to call
+     * @param priority the listener priority
+     * @return the entry of the added listener, used to remove the listener
+     */
+    public ListenerEntry addListener(String name, GenericListener listener, int priority) {
+        return addEntry(new ListenerEntry(name, listener, priority, true));
     }
 
     /**
      * Add a listener to the event dispatcher with a specific event type to listen for.
      * @param type the event type to listen for
      * @param listener the listener to add
+     * @return the entry of the added listener, used to remove the listener
      */
-    public void addListener(EventType type, Listener listener) {
-        if (type == EventType.None) {
-            throw new IllegalArgumentException("Cannot add listener that does not listen for any events.");
-        }
+    public ListenerEntry addListener(EventType type, Listener listener) {
+        checkType(type);
+        return addEntry(new ListenerEntry(listener, type, 0, 0, false));
+    }
 
-        ListenerEntry entry = new ListenerEntry(listener, type, 0, 0);
-        listeners.add(entry);
+    /**
+     * Add a prioritized listener to the event dispatcher with a specific event type to listen for.
+     * Listeners with higher priority are called before listeners with lower priority.
+     * @param type the event type to listen for
+     * @param listener the listener to add
+     * @param priority the listener priority
+     * @return the entry of the added listener, used to remove the listener
+     */
+    public ListenerEntry addListener(EventType type, Listener listener, int priority) {
+        checkType(type);
+        return addEntry(new ListenerEntry(listener, type, 0, priority, true));
     }
 
     /**
@@ -88,14 +232,128 @@ public class EventDispatcher {
      * Event categories are bit flags thus you can listen for e.g. MOUSE_EVENTS | KEYBOARD_EVENTS
      * @param categories the event type to listen for
      * @param listener the listener to add
+     * @return the entry of the added listener, used to remove the listener
      */
-    public void addListener(int categories, Listener listener) {
-        if (categories == 0) {
-            throw new IllegalArgumentException("Cannot add listener that does not listen for any events.");
+    public ListenerEntry addListener(int categories, Listener listener) {
+        checkCategories(categories);
+        return addEntry(new ListenerEntry(listener, EventType.None, categories, 0, false));
+    }
+
+    /**
+     * Add a prioritized listener to the event dispatcher with some specific event categories to listen for.
+     * Listeners with higher priority are called before listeners with lower priority.
+     * @param categories the event type to listen for
+     * @param listener the listener to add
+     * @param priority the listener priority
+     * @return the entry of the added listener, used to remove the listener
+     */
+    public ListenerEntry addListener(int categories, Listener listener, int priority) {
+        checkCategories(categories);
+        return addEntry(new ListenerEntry(listener, EventType.None, categories, priority, true));
+    }
+
+    /**
+     * Add a weak listener to the event dispatcher with a specific event type to listen for.
+     * The dispatcher only keeps a weak reference to the listener so it does not prevent the listener
+     * from being garbage collected, collected listeners are removed automatically.
+     * @param type the event type to listen for
+     * @param listener the listener to add
+     * @return the entry of the added listener, used to remove the listener
+     */
+    public ListenerEntry addWeakListener(EventType type, Listener listener) {
+        checkType(type);
+        return addEntry(new ListenerEntry(listener, type, 0, 0, false).weak());
+    }
+
+    /**
+     * Add a prioritized weak listener to the event dispatcher with a specific event type to listen for.
+     * @param type the event type to listen for
+     * @param listener the listener to add
+     * @param priority the listener priority
+     * @return the entry of the added listener, used to remove the listener
+     * @see #addWeakListener(EventType, Listener)
+     */
+    public ListenerEntry addWeakListener(EventType type, Listener listener, int priority) {
+        checkType(type);
+        return addEntry(new ListenerEntry(listener, type, 0, priority, true).weak());
+    }
+
+    /**
+     * Add a weak listener to the event dispatcher with some specific event categories to listen for.
+     * @param categories the event categories to listen for
+     * @param listener the listener to add
+     * @return the entry of the added listener, used to remove the listener
+     * @see #addWeakListener(EventType, Listener)
+     */
+    public ListenerEntry addWeakListener(int categories, Listener listener) {
+        checkCategories(categories);
+        return addEntry(new ListenerEntry(listener, EventType.None, categories, 0, false).weak());
+    }
+
+    /**
+     * Add a prioritized weak listener to the event dispatcher with some specific event categories to listen for.
+     * @param categories the event categories to listen for
+     * @param listener the listener to add
+     * @param priority the listener priority
+     * @return the entry of the added listener, used to remove the listener
+     * @see #addWeakListener(EventType, Listener)
+     */
+    public ListenerEntry addWeakListener(int categories, Listener listener, int priority) {
+        checkCategories(categories);
+        return addEntry(new ListenerEntry(listener, EventType.None, categories, priority, true).weak());
+    }
+
+    /**
+     * Remove a listener from the event dispatcher. The entry is only marked as removed which
+     * takes constant time, it is pruned from the dispatch tables the next time they are visited.
+     * Events that are currently being dispatched are not dispatched to the removed listener anymore.
+     * @param entry the entry returned when the listener was added
+     * @return true if the listener was removed, false if it was not attached to this dispatcher
+     */
+    public boolean removeListener(ListenerEntry entry) {
+        if (entry.getDispatcher() != this || entry.isRemoved())
+            return false;
+
+        entry.listener = null;
+        entry.reference = null;
+        entry.genericListener = null;
+        entry.callback = null;
+        entry.removed = true;
+        if (metrics != null) {
+            metrics.untrack(entry);
+        }
+        return true;
+    }
+
+    /**
+     * Enable or disable recording the dispatch count and latency of every listener.
+     * The listeners are tracked by their entries in the metrics, see {@link ListenerEntry#toString()}.
+     * @param metrics the metrics to record in, null to disable the metrics
+     */
+    public void setMetrics(DispatchMetrics metrics) {
+        if (this.metrics != null && this.metrics != metrics) {
+            for (ListenerEntry le : prioritizedListeners) {
+                this.metrics.untrack(le);
+            }
+            for (ListenerEntry le : listeners) {
+                this.metrics.untrack(le);
+            }
+        }
+        this.metrics = metrics;
+        for (ListenerEntry le : prioritizedListeners) {
+            le.instrument(metrics);
         }
+        for (ListenerEntry le : listeners) {
+            le.instrument(metrics);
+        }
+    }
 
-        ListenerEntry entry = new ListenerEntry(listener, EventType.None, categories, 0);
-        listeners.add(entry);
+    /**
+     * Get the metrics that the dispatch latency of each listener is recorded in.
+     * @return the metrics or null if metrics are disabled
+     */
+    public DispatchMetrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -104,17 +362,16 @@ public class EventDispatcher {
      * @return a new {@link ArrayList} containing all matched listeners
      */
     public ArrayList<ListenerEntry> getListeners(Class<? extends Listener> listener) {
-        if (!sorted)
-            sortListeners();
-
         ArrayList<ListenerEntry> result = new ArrayList<>();
         for (ListenerEntry le : prioritizedListeners) {
-            if (le.listener.getClass() == listener) {
+            Listener l = le.get();
+            if (l != null && l.getClass() == listener) {
                 result.add(le);
             }
         }
         for (ListenerEntry le : listeners) {
-            if (le.listener.getClass() == listener) {
+            Listener l = le.get();
+            if (l != null && l.getClass() == listener) {
                 result.add(le);
             }
         }
@@ -127,21 +384,7 @@ public class EventDispatcher {
      * @return a new {@link ArrayList} containing all matched listeners
      */
     public ArrayList<ListenerEntry> getListeners(EventType type) {
-        if (!sorted)
-            sortListeners();
-
-        ArrayList<ListenerEntry> result = new ArrayList<>();
-        for (ListenerEntry le : prioritizedListeners) {
-            if (le.type == type) {
-                result.add(le);
-            }
-        }
-        for (ListenerEntry le : listeners) {
-            if (le.type == type) {
-                result.add(le);
-            }
-        }
-        return result;
+        return toList(typeTable[type.ordinal()]);
     }
 
     /**
@@ -150,17 +393,14 @@ public class EventDispatcher {
      * @return a new {@link ArrayList} containing all matched listeners
      */
     public ArrayList<ListenerEntry> getListeners(int categories) {
-        if (!sorted)
-            sortListeners();
-
         ArrayList<ListenerEntry> result = new ArrayList<>();
         for (ListenerEntry le : prioritizedListeners) {
-            if ((le.categories & categories) > 0) {
+            if ((le.categories & categories) != 0 && !le.isRemoved()) {
                 result.add(le);
             }
         }
         for (ListenerEntry le : listeners) {
-            if ((le.categories & categories) > 0) {
+            if ((le.categories & categories) != 0 && !le.isRemoved()) {
                 result.add(le);
             }
         }
@@ -173,18 +413,8 @@ public class EventDispatcher {
      * @return a new {@link ArrayList} containing all matched listeners
      */
     public ArrayList<ListenerEntry> getListeners(String name) {
-        ArrayList<ListenerEntry> result = new ArrayList<>();
-        for (ListenerEntry le : prioritizedListeners) {
-            if (le.name.equals(name)) {
-                result.add(le);
-            }
-        }
-        for (ListenerEntry le : listeners) {
-            if (le.name.equals(name)) {
-                result.add(le);
-            }
-        }
-        return result;
+        int id = GenericEvent.id(name);
+        return toList(id < genericTable.length ? genericTable[id] : EMPTY);
     }
 
     /**
@@ -194,22 +424,290 @@ public class EventDispatcher {
      */
     public int getListenerPriority(Listener listener) {
         for (ListenerEntry le : prioritizedListeners) {
-            if (le.listener == listener) {
+            if (le.get() == listener) {
                 return le.priority;
             }
         }
         throw new IllegalArgumentException("The given listener has no prioritization.");
     }
 
-    private void sortListeners() {
-        //TODO: implement this later
+    private static void checkType(EventType type) {
+        if (type == EventType.None) {
+            throw new IllegalArgumentException("Cannot add listener that does not listen for any events.");
+        }
+    }
+
+    private static void checkCategories(int categories) {
+        if (categories == 0) {
+            throw new IllegalArgumentException("Cannot add listener that does not listen for any events.");
+        }
+    }
+
+    /**
+     * Add a listener entry to the listener lists and insert it into every dispatch bucket it belongs to.
+     * The buckets are copied on write so events currently being dispatched are not affected.
+     * @param entry the entry to add
+     * @return the added entry
+     */
+    private ListenerEntry addEntry(ListenerEntry entry) {
+        if (listeners.size() + prioritizedListeners.size() >= purgeThreshold) {
+            purge();
+        }
+        if (metrics != null) {
+            entry.instrument(metrics);
+        }
+
+        entry.sequence = sequence++;
+        if (entry.prioritized) {
+            int index = 0;
+            while (index < prioritizedListeners.size() && prioritizedListeners.get(index).compareTo(entry) <= 0) {
+                index++;
+            }
+            prioritizedListeners.add(index, entry);
+        } else {
+            listeners.add(entry);
+        }
+
+        if (entry.genericListener != null) {
+            int id = GenericEvent.id(entry.name);
+            if (id >= genericTable.length) {
+                int length = genericTable.length;
+                genericTable = Arrays.copyOf(genericTable, Math.max(id + 1, length * 2));
+                Arrays.fill(genericTable, length, genericTable.length, EMPTY);
+            }
+            genericTable[id] = insert(genericTable[id], entry);
+        } else if (entry.type != EventType.None) {
+            typeTable[entry.type.ordinal()] = insert(typeTable[entry.type.ordinal()], entry);
+            mergedTable[entry.type.ordinal()] = null;
+        } else {
+            for (int i = 0; i < CATEGORY_BITS; i++) {
+                if ((entry.categories & (1 << i)) != 0) {
+                    categoryTable[i] = insert(categoryTable[i], entry);
+                }
+            }
+            Arrays.fill(mergedTable, null);
+        }
+        return entry;
+    }
+
+    /**
+     * Merge the type listeners of an event type with the categorical listeners of the event categories
+     * into one bucket sorted by priority, entries with equal priority are kept in the order they were added.
+     * Categorical listeners that do not handle the event type are left out, and listeners of several
+     * of the categories are only added once.
+     * @param ordinal the ordinal of the event type
+     * @param flag the category flags of the event
+     * @return the merged bucket
+     */
+    private ListenerEntry[] merge(int ordinal, int flag) {
+        ArrayList<ListenerEntry> result = new ArrayList<>();
+        for (ListenerEntry le : typeTable[ordinal]) {
+            if (!le.isRemoved())
+                result.add(le);
+        }
+        int visited = 0;
+        for (int bits = flag; bits != 0; bits &= bits - 1) {
+            int index = Integer.numberOfTrailingZeros(bits);
+            for (ListenerEntry le : categoryTable[index]) {
+                if (!le.isRemoved() && le.boundHandlers[ordinal] != null && (le.categories & visited) == 0)
+                    result.add(le);
+            }
+            visited |= 1 << index;
+        }
+        result.sort((ListenerEntry a, ListenerEntry b) -> {
+            int order = a.compareTo(b);
+            return order != 0 ? order : Integer.compare(a.sequence, b.sequence);
+        });
+
+        ListenerEntry[] bucket = result.isEmpty() ? EMPTY : result.toArray(new ListenerEntry[0]);
+        mergedTable[ordinal] = bucket;
+        mergedFlags[ordinal] = flag;
+        return bucket;
+    }
+
+    /**
+     * Purge all removed and garbage collected entries from the listener lists and the dispatch tables.
+     * The next purge happens when the number of entries has doubled so the cost of purging is amortized
+     * over the added listeners, and entries in buckets that are never dispatched to are still freed.
+     */
+    private void purge() {
+        if (metrics != null) {
+            for (ListenerEntry le : prioritizedListeners) {
+                if (le.isRemoved())
+                    metrics.untrack(le);
+            }
+            for (ListenerEntry le : listeners) {
+                if (le.isRemoved())
+                    metrics.untrack(le);
+            }
+        }
+        prioritizedListeners.removeIf(ListenerEntry::isRemoved);
+        listeners.removeIf(ListenerEntry::isRemoved);
+        for (int i = 0; i < typeTable.length; i++) {
+            typeTable[i] = prune(typeTable[i]);
+        }
+        for (int i = 0; i < categoryTable.length; i++) {
+            categoryTable[i] = prune(categoryTable[i]);
+        }
+        for (int i = 0; i < genericTable.length; i++) {
+            genericTable[i] = prune(genericTable[i]);
+        }
+        Arrays.fill(mergedTable, null);
+        purgeThreshold = Math.max(PURGE_THRESHOLD, (listeners.size() + prioritizedListeners.size()) * 2);
+    }
+
+    /**
+     * Create a copy of a sorted bucket with the entry inserted after all entries
+     * with the same or higher priority, thus equal priorities keep the order they were added in.
+     * @param bucket the sorted bucket
+     * @param entry the entry to insert
+     * @return a new sorted bucket containing the entry
+     */
+    private static ListenerEntry[] insert(ListenerEntry[] bucket, ListenerEntry entry) {
+        int low = 0;
+        int high = bucket.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bucket[mid].compareTo(entry) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        ListenerEntry[] result = new ListenerEntry[bucket.length + 1];
+        System.arraycopy(bucket, 0, result, 0, low);
+        result[low] = entry;
+        System.arraycopy(bucket, low, result, low + 1, bucket.length - low);
+        return result;
+    }
+
+    /**
+     * Create a copy of a bucket without the removed and garbage collected entries.
+     * @param bucket the bucket to prune
+     * @return the pruned bucket or the same bucket if there was nothing to prune
+     */
+    private static ListenerEntry[] prune(ListenerEntry[] bucket) {
+        int count = 0;
+        for (ListenerEntry le : bucket) {
+            if (!le.isRemoved())
+                count++;
+        }
+        if (count == bucket.length)
+            return bucket;
+        if (count == 0)
+            return EMPTY;
+
+        ListenerEntry[] result = new ListenerEntry[count];
+        int i = 0;
+        for (ListenerEntry le : bucket) {
+            if (!le.isRemoved())
+                result[i++] = le;
+        }
+        return result;
+    }
+
+    private static ArrayList<ListenerEntry> toList(ListenerEntry[] bucket) {
+        ArrayList<ListenerEntry> result = new ArrayList<>(bucket.length);
+        for (ListenerEntry le : bucket) {
+            if (!le.isRemoved())
+                result.add(le);
+        }
+        return result;
+    }
+
+    /**
+     * Handler is a listener callback function that has been bound to a specific event type.
+     * The handler does not capture the listener so it can also be used by weakly referenced listeners.
+     */
+    @FunctionalInterface
+    interface Handler {
+
+        /**
+         * Handle an event of the type that this handler is bound to.
+         * @param listener the listener to call
+         * @param event the event to handle
+         */
+        void handle(Listener listener, Event event);
+    }
+
+    /**
+     * Call the callback function of a listener that handles the type of an event, used to send an event directly
+     * to a listener without adding it to a dispatcher e.g. nodes picked by the mouse.
+     * @param listener the listener to call
+     * @param event the event to handle
+     * @return true if the listener handles the type of event, false if the listener was not called
+     */
+    public static boolean invoke(Listener listener, Event event) {
+        Handler handler = bind(listener, event.getType());
+        if (handler == null)
+            return false;
+
+        handler.handle(listener, event);
+        return true;
+    }
+
+    /**
+     * Create a handler that records the time spent in another handler.
+     * @param handler the handler to time
+     * @param histogram the histogram to record the time in
+     * @return the timed handler
+     */
+    private static Handler time(Handler handler, LatencyHistogram histogram) {
+        return (Listener listener, Event event) -> {
+            long start = System.nanoTime();
+            try {
+                handler.handle(listener, event);
+            } finally {
+                histogram.record(System.nanoTime() - start);
+            }
+        };
+    }
+
+    /**
+     * Bind a listener to the callback function of a specific event type. This is only done when the
+     * listener is added so dispatching an event calls the callback directly without checking the event type.
+     * @param listener the listener to bind
+     * @param type the event type
+     * @return the bound callback or null if the listener does not handle the event type
+     */
+    static Handler bind(Listener listener, EventType type) {
+        if (listener instanceof WindowListener) {
+            switch (type) {
+                case WindowMoved: return (l, e) -> ((WindowListener) l).windowMoved((WindowEvent) e);
+                case WindowResize: return (l, e) -> ((WindowListener) l).windowResized((WindowEvent) e);
+                case WindowFocus: return (l, e) -> ((WindowListener) l).windowFocus((WindowEvent) e);
+                case WindowLostFocus: return (l, e) -> ((WindowListener) l).windowLostFocus((WindowEvent) e);
+                case WindowIconified: return (l, e) -> ((WindowListener) l).windowIconify((WindowEvent) e);
+                case WindowMaximized: return (l, e) -> ((WindowListener) l).windowMaximize((WindowEvent) e);
+                case WindowClose: return (l, e) -> ((WindowListener) l).windowClose((WindowEvent) e);
+            }
+        }
+        if (listener instanceof MouseListener) {
+            switch (type) {
+                case MousePressed: return (l, e) -> ((MouseListener) l).mousePressed((MouseEvent) e);
+                case MouseReleased: return (l, e) -> ((MouseListener) l).mouseReleased((MouseEvent) e);
+                case MouseEntered: return (l, e) -> ((MouseListener) l).mouseEntered((MouseEvent) e);
+                case MouseExited: return (l, e) -> ((MouseListener) l).mouseExited((MouseEvent) e);
+                case MouseMoved: return (l, e) -> ((MouseListener) l).mouseMoved((MouseEvent) e);
+                case MouseDragged: return (l, e) -> ((MouseListener) l).mouseDragged((MouseEvent) e);
+                case MouseScrolled: return (l, e) -> ((MouseListener) l).mouseScrolled((MouseScrollEvent) e);
+            }
+        }
+        if (listener instanceof KeyListener) {
+            switch (type) {
+                case KeyDown: return (l, e) -> ((KeyListener) l).keyDown((KeyEvent) e);
+                case KeyUp: return (l, e) -> ((KeyListener) l).keyUp((KeyEvent) e);
+            }
+        }
+        return null;
     }
 
     /**
      * Listener entry is used to give listeners more information and help the dispatcher system to dispatch them
      * to the correct method.
      */
-    class ListenerEntry implements Comparable<ListenerEntry> {
+    public class ListenerEntry implements Comparable<ListenerEntry> {
 
         /**
          * The name of the listener.
@@ -218,7 +716,8 @@ public class EventDispatcher {
         public String name;
 
         /**
-         * The actual event listener.
+         * The actual event listener, null if the listener is weakly referenced.
+         * @see #get()
          */
         public Listener listener;
 
@@ -242,18 +741,79 @@ public class EventDispatcher {
          */
         public int priority;
 
+        /**
+         * Prioritized flag is set if the priority was given by the user,
+         * prioritized listeners are always dispatched before non prioritized listeners.
+         */
+        public boolean prioritized;
+
+        /**
+         * The order the entry was added to the dispatcher in.
+         */
+        int sequence;
+
+        /**
+         * Weak reference to the listener if the listener was added as a weak listener.
+         */
+        WeakReference<Listener> reference;
+
+        /**
+         * Removed flag is set when the listener is removed, removed entries are skipped and pruned by the dispatcher.
+         */
+        boolean removed;
+
+        /**
+         * The listener callback bound to the event {@link #type}, used by type listeners.
+         */
+        Handler handler;
+
+        /**
+         * The listener callbacks bound to each event type indexed by {@link EventType#ordinal()},
+         * used by categorical listeners. Event types that the listener does not handle are null.
+         */
+        Handler[] handlers;
+
+        /**
+         * The generic listener callback called by the dispatcher, used by generic listeners.
+         */
+        GenericListener callback;
+
+        /**
+         * The bound callbacks without timing, kept so the metrics can be disabled again.
+         */
+        private Handler boundHandler;
+        private Handler[] boundHandlers;
+
         /**
          * Constructs a listener entry with specified parameters.
          * @param listener the actual listener
          * @param type the type of event to listen for
          * @param categories the category of events to listen for
          * @param priority the listener priority
+         * @param prioritized true if the priority was given by the user
          */
-        public ListenerEntry(Listener listener, EventType type, int categories, int priority) {
+        public ListenerEntry(Listener listener, EventType type, int categories, int priority, boolean prioritized) {
             this.listener = listener;
             this.type = type;
             this.categories = categories;
             this.priority = priority;
+            this.prioritized = prioritized;
+
+            if (type != EventType.None) {
+                handler = bind(listener, type);
+                if (handler == null) {
+                    throw new IllegalArgumentException("The listener " + listener.getClass().getName()
+                            + " cannot listen for " + type + " events.");
+                }
+            } else {
+                EventType[] types = EventType.values();
+                handlers = new Handler[types.length];
+                for (EventType t : types) {
+                    handlers[t.ordinal()] = bind(listener, t);
+                }
+            }
+            boundHandler = handler;
+            boundHandlers = handlers;
         }
 
         /**
@@ -261,79 +821,120 @@ public class EventDispatcher {
          * @param name the name of the listener
          * @param listener the actual generic listener
          * @param priority the listener priority
+         * @param prioritized true if the priority was given by the user
          */
-        public ListenerEntry(String name, GenericListener listener, int priority) {
+        public ListenerEntry(String name, GenericListener listener, int priority, boolean prioritized) {
             this.name = name;
             this.genericListener = listener;
+            this.callback = listener;
             this.priority = priority;
+            this.prioritized = prioritized;
         }
 
         /**
-         * Dispatch an event to the correct listener callback function.
-         * @param event the event to dispatch
+         * Get the listener of this entry.
+         * @return the listener or null if it has been removed or garbage collected
          */
-        public void doDispatch(Event event) {
-            if (genericListener != null) {
-                genericListener.callback((GenericEvent) event);
+        public Listener get() {
+            if (reference != null)
+                return reference.get();
+
+            return listener;
+        }
+
+        /**
+         * Check if the listener has been removed from the dispatcher or garbage collected.
+         * @return true if the listener is not dispatched to anymore
+         */
+        public boolean isRemoved() {
+            return removed || (reference != null && reference.get() == null);
+        }
+
+        /**
+         * Get the event dispatcher this entry belongs to.
+         * @return the event dispatcher
+         */
+        public EventDispatcher getDispatcher() {
+            return EventDispatcher.this;
+        }
+
+        /**
+         * Replace the callbacks of this entry with callbacks that record the time spent in the listener,
+         * or restore the untimed callbacks if the metrics are disabled.
+         * @param metrics the metrics to record in, null to disable the metrics
+         */
+        void instrument(DispatchMetrics metrics) {
+            if (removed)
+                return;
+
+            if (metrics == null) {
+                handler = boundHandler;
+                handlers = boundHandlers;
+                callback = genericListener;
+                return;
             }
 
-            if (event.getType() == type || event.belongsTo(categories)) {
-                switch (event.getType()) {
-                    case WindowMoved:
-                        ((WindowListener) listener).windowMoved((WindowEvent) event);
-                        break;
-                    case WindowResize:
-                        ((WindowListener) listener).windowResized((WindowEvent) event);
-                        break;
-                    case WindowFocus:
-                        ((WindowListener) listener).windowFocus((WindowEvent) event);
-                        break;
-                    case WindowLostFocus:
-                        ((WindowListener) listener).windowLostFocus((WindowEvent) event);
-                        break;
-                    case WindowIconified:
-                        ((WindowListener) listener).windowIconify((WindowEvent) event);
-                        break;
-                    case WindowMaximized:
-                        ((WindowListener) listener).windowMaximize((WindowEvent) event);
-                        break;
-                    case WindowClose:
-                        ((WindowListener) listener).windowClose((WindowEvent) event);
-                        break;
-                    case MousePressed:
-                        ((MouseListener) listener).mousePressed((MouseEvent) event);
-                        break;
-                    case MouseReleased:
-                        ((MouseListener) listener).mouseReleased((MouseEvent) event);
-                        break;
-                    case MouseEntered:
-                        ((MouseListener) listener).mouseEntered((MouseEvent) event);
-                        break;
-                    case MouseExited:
-                        ((MouseListener) listener).mouseExited((MouseEvent) event);
-                        break;
-                    case MouseMoved:
-                        ((MouseListener) listener).mouseMoved((MouseEvent) event);
-                        break;
-                    case MouseDragged:
-                        ((MouseListener) listener).mouseDragged((MouseEvent) event);
-                        break;
-                    case MouseScrolled:
-                        ((MouseListener) listener).mouseScrolled((MouseScrollEvent) event);
-                        break;
-                    case KeyDown:
-                        ((KeyListener) listener).keyDown((KeyEvent) event);
-                        break;
-                    case KeyUp:
-                        ((KeyListener) listener).keyUp((KeyEvent) event);
-                        break;
+            LatencyHistogram histogram = metrics.track(this, toString());
+            if (genericListener != null) {
+                GenericListener target = genericListener;
+                callback = (GenericEvent event) -> {
+                    long start = System.nanoTime();
+                    try {
+                        target.callback(event);
+                    } finally {
+                        histogram.record(System.nanoTime() - start);
+                    }
+                };
+            } else if (boundHandler != null) {
+                handler = time(boundHandler, histogram);
+            } else {
+                handlers = new Handler[boundHandlers.length];
+                for (int i = 0; i < handlers.length; i++) {
+                    if (boundHandlers[i] != null)
+                        handlers[i] = time(boundHandlers[i], histogram);
                 }
             }
         }
 
+        /**
+         * Replace the listener of this entry with a weak reference.
+         * @return this entry
+         */
+        ListenerEntry weak() {
+            reference = new WeakReference<>(listener);
+            listener = null;
+            return this;
+        }
+
+        /**
+         * Compares the dispatch order of two listener entries, prioritized entries are ordered first
+         * and then by descending priority.
+         * @param o the other listener entry
+         * @return negative if this entry is dispatched before the other entry
+         */
         @Override
         public int compareTo(ListenerEntry o) {
-            return priority - o.priority;
+            if (prioritized != o.prioritized) {
+                return prioritized ? -1 : 1;
+            }
+            return Integer.compare(o.priority, priority);
+        }
+
+        /**
+         * Describes the listener and the events it listens for, used as the name of the listener in the metrics.
+         * @return the description of the listener
+         */
+        @Override
+        public String toString() {
+            if (genericListener != null || name != null)
+                return "GenericListener(" + name + ")";
+
+            Listener l = get();
+            String className = l != null ? l.getClass().getName() : "removed";
+            if (type != EventType.None)
+                return className + "(" + type + ")";
+
+            return className + "(categories=0x" + Integer.toHexString(categories) + ")";
         }
     }
 }
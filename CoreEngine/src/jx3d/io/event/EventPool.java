@@ -0,0 +1,91 @@
+package jx3d.io.event;
+
+import java.util.function.Supplier;
+
+/**
+ * Event pool is used to reuse event objects instead of creating a new event for every input callback.
+ * Events obtained from the pool have one reference that belongs to the producer of the event, the producer
+ * should call {@link Event#release()} after the event has been dispatched. Listeners that want to keep a reference
+ * to a pooled event after the callback has returned have to call {@link Event#retain()} and later
+ * {@link Event#release()} once they are done with the event. When the last reference is released the event is
+ * returned to the pool. Event pools are not thread safe and should only be used on the thread that polls events.
+ * @param <T> the type of event stored in this pool
+ */
+public class EventPool<T extends Event> {
+
+    /**
+     * The default maximum number of free events stored in the pool.
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Factory used to create new events when the pool is empty.
+     */
+    private final Supplier<T> factory;
+
+    /**
+     * Stack of free events that are ready to be obtained.
+     */
+    private final Event[] free;
+
+    /**
+     * The number of free events in the pool.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty event pool with default capacity.
+     * @param factory the factory used to create new events
+     */
+    public EventPool(Supplier<T> factory) {
+        this(factory, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty event pool.
+     * @param factory the factory used to create new events
+     * @param capacity the maximum number of free events to keep, events released when the pool is full
+     *                 are left to the garbage collector
+     */
+    public EventPool(Supplier<T> factory, int capacity) {
+        this.factory = factory;
+        this.free = new Event[capacity];
+    }
+
+    /**
+     * Obtain an event from the pool, if the pool is empty then a new event is created.
+     * The returned event is not handled and has a single reference owned by the caller.
+     * @return the obtained event
+     */
+    @SuppressWarnings("unchecked")
+    public T obtain() {
+        T event;
+        if (size > 0) {
+            event = (T) free[--size];
+            free[size] = null;
+        } else {
+            event = factory.get();
+        }
+        event.obtained(this);
+        return event;
+    }
+
+    /**
+     * Return an event to the pool, this is called by {@link Event#release()}
+     * when the last reference has been released.
+     * @param event the event to return
+     */
+    void free(Event event) {
+        if (size < free.length) {
+            free[size++] = event;
+        }
+    }
+
+    /**
+     * Get the number of free events currently stored in the pool.
+     * @return the number of free events
+     */
+    public int getFree() {
+        return size;
+    }
+}
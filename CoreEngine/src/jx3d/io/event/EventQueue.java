@@ -0,0 +1,170 @@
+package jx3d.io.event;
+
+import java.util.function.Consumer;
+
+/**
+ * Event queue is used to collect events during a frame and dispatch them once per frame.
+ * Consecutive {@link EventType#MouseMoved} and {@link EventType#MouseDragged} events are merged into
+ * a single event with the latest position and the accumulated change in position. Only the latest
+ * {@link EventType#WindowResize} and {@link EventType#WindowMoved} events are kept in the queue.
+ * <p>
+ * The queue retains a reference to every queued event and releases it after it has been dispatched,
+ * so pooled events can be queued safely. Event queues are not thread safe.
+ * </p>
+ */
+public class EventQueue {
+
+    /**
+     * The initial capacity of the queue.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The events waiting to be dispatched.
+     */
+    private Event[] pending;
+
+    /**
+     * Buffer that is swapped with {@link #pending} when draining the queue,
+     * events added while draining are queued for the next drain.
+     */
+    private Event[] spare;
+
+    /**
+     * The number of events waiting to be dispatched.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty event queue.
+     */
+    public EventQueue() {
+        pending = new Event[INITIAL_CAPACITY];
+        spare = new Event[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Check if an event can be merged with other events of the same type.
+     * @param event the event to check
+     * @return true if the event is coalesced by the queue, false otherwise
+     */
+    public static boolean isCoalescable(Event event) {
+        switch (event.getType()) {
+            case MouseMoved: case MouseDragged:
+            case WindowResize: case WindowMoved:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Add an event to the end of the queue. Mouse motion events are merged into the last queued
+     * event if possible and window resize and move events replaces the previously queued event of the same type.
+     * @param event the event to add
+     */
+    public void add(Event event) {
+        switch (event.getType()) {
+            case MouseMoved: case MouseDragged:
+                if (merge((MouseEvent) event))
+                    return;
+                break;
+            case WindowResize: case WindowMoved:
+                removeLast(event.getType());
+                break;
+        }
+
+        if (size == pending.length) {
+            Event[] grown = new Event[size * 2];
+            System.arraycopy(pending, 0, grown, 0, size);
+            pending = grown;
+        }
+        event.retain();
+        pending[size++] = event;
+    }
+
+    /**
+     * Dispatch all the queued events in order to the consumer and release them afterwards.
+     * Events that are added while draining will be dispatched by the next drain.
+     * @param consumer the consumer to dispatch the events to
+     */
+    public void drain(Consumer<? super Event> consumer) {
+        Event[] batch = pending;
+        int count = size;
+        pending = spare.length >= batch.length ? spare : new Event[batch.length];
+        spare = batch;
+        size = 0;
+
+        for (int i = 0; i < count; i++) {
+            Event event = batch[i];
+            batch[i] = null;
+            consumer.accept(event);
+            event.release();
+        }
+    }
+
+    /**
+     * Release all the queued events without dispatching them.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            pending[i].release();
+            pending[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Get the number of events waiting to be dispatched.
+     * @return the number of queued events
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if there are no events waiting to be dispatched.
+     * @return true if the queue is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Merge a mouse motion event into the last queued event, if it has the same type, button and modifiers.
+     * @param event the mouse motion event
+     * @return true if the event was merged, false otherwise
+     */
+    private boolean merge(MouseEvent event) {
+        if (size == 0)
+            return false;
+
+        Event last = pending[size - 1];
+        if (last.getClass() != event.getClass() || last.getType() != event.getType())
+            return false;
+
+        MouseEvent prev = (MouseEvent) last;
+        if (prev.getButton() != event.getButton() || prev.getMods() != event.getMods())
+            return false;
+
+        prev.set(event.getType(), event.getName(), event.getButton(), event.getMods(), event.getX(), event.getY(),
+                prev.getDeltaX() + event.getDeltaX(), prev.getDeltaY() + event.getDeltaY(), event.getClickCount());
+        return true;
+    }
+
+    /**
+     * Remove and release the last queued event of a specific type.
+     * @param type the event type to remove
+     */
+    private void removeLast(EventType type) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (pending[i].getType() == type) {
+                Event removed = pending[i];
+                System.arraycopy(pending, i + 1, pending, i, size - i - 1);
+                pending[--size] = null;
+                removed.release();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package jx3d.io.event;
+
+import java.io.*;
+import java.util.HashMap;
+
+/**
+ * Event recorder writes events into a compact binary event journal that can be replayed by an {@link EventReplayer}.
+ * Each event is stored with the index of the frame and the time it was recorded at, relative to when the recording
+ * was started. The application records every event that reaches {@link jx3d.core.Application#onEvent(Event)}
+ * once a recorder has been attached, see {@link jx3d.core.Application#setEventRecorder(EventRecorder)}.
+ * <p>
+ * The journal starts with a header followed by one record per event. Every record begins with the event type,
+ * the frame and time deltas since the previous record as variable length integers and then the event parameters.
+ * Event names and generic argument keys are written the first time they are used and referenced by index after that,
+ * so recording an event does not allocate any memory after the first few frames. Generic event arguments that are
+ * neither primitives nor strings can not be recorded and are left out.
+ * </p>
+ */
+public class EventRecorder implements Closeable {
+
+    /**
+     * The magic number at the start of every event journal, the characters JX3J.
+     */
+    static final int MAGIC = 0x4A58334A;
+
+    /**
+     * The version of the event journal format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * String references, a null string, a new string that follows or an index into the string table.
+     */
+    static final int NULL_STRING = 0, NEW_STRING = 1, STRING_INDEX = 2;
+
+    /**
+     * The stream to write the journal to.
+     */
+    private final DataOutputStream out;
+
+    /**
+     * Table of strings that have already been written, mapped to their index.
+     */
+    private final HashMap<String, Integer> strings = new HashMap<>();
+
+    /**
+     * The frame and time when the recording was started.
+     */
+    private long startFrame, startTime;
+
+    /**
+     * The frame and time of the previously recorded event relative to the start.
+     */
+    private long lastFrame, lastTime;
+
+    /**
+     * Started flag is set when the first frame of the recording is known.
+     */
+    private boolean started;
+
+    /**
+     * The number of events recorded.
+     */
+    private int eventCount;
+
+    /**
+     * Constructs an event recorder that writes the journal to the given output stream.
+     * @param output the stream to write to, the stream is closed when the recorder is closed
+     * @throws IOException if the journal header could not be written
+     */
+    public EventRecorder(OutputStream output) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(output));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+    }
+
+    /**
+     * Start the recording at a specific frame, events are recorded relative to this frame and the current time.
+     * If this is not called then the recording starts at the frame of the first recorded event.
+     * @param frame the index of the current frame
+     */
+    public void start(long frame) {
+        startFrame = frame;
+        startTime = System.nanoTime();
+        started = true;
+    }
+
+    /**
+     * Record an event into the journal.
+     * @param event the event to record
+     * @param frame the index of the frame the event is dispatched in
+     * @throws UncheckedIOException if the event could not be written
+     */
+    public void record(Event event, long frame) {
+        if (!started) {
+            start(frame);
+        }
+
+        long time = System.nanoTime() - startTime;
+        frame -= startFrame;
+        try {
+            if (event instanceof GenericEvent) {
+                writeHeader(EventType.None, frame, time);
+                writeGeneric((GenericEvent) event);
+            } else if (event instanceof MouseScrollEvent) {
+                MouseScrollEvent e = (MouseScrollEvent) event;
+                writeHeader(e.getType(), frame, time);
+                writeMouse(e);
+                out.writeFloat(e.getScrollX());
+                out.writeFloat(e.getScrollY());
+            } else if (event instanceof MouseEvent) {
+                MouseEvent e = (MouseEvent) event;
+                writeHeader(e.getType(), frame, time);
+                writeMouse(e);
+            } else if (event instanceof KeyEvent) {
+                KeyEvent e = (KeyEvent) event;
+                writeHeader(e.getType(), frame, time);
+                writeString(e.getName());
+                writeVarLong(e.getKey());
+                writeVarLong(e.getScancode());
+                writeVarLong(e.getMods());
+                writeVarLong(e.getKeyChar());
+                out.writeBoolean(e.isRepeated());
+            } else if (event instanceof WindowEvent) {
+                WindowEvent e = (WindowEvent) event;
+                writeHeader(e.getType(), frame, time);
+                writeString(e.getName());
+                out.writeFloat(e.getX());
+                out.writeFloat(e.getY());
+                out.writeFloat(e.getWidth());
+                out.writeFloat(e.getHeight());
+                out.writeByte((e.isIconified() ? 1 : 0) | (e.isMaximized() ? 2 : 0));
+            } else {
+                return;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to record the event " + event.getName() + ".", e);
+        }
+        eventCount++;
+    }
+
+    /**
+     * Get the number of events recorded so far.
+     * @return the number of events
+     */
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Flush the recorded events to the underlying stream.
+     * @throws IOException if the events could not be written
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Flush the recorded events and close the underlying stream.
+     * @throws IOException if the events could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeHeader(EventType type, long frame, long time) throws IOException {
+        out.writeByte(type.ordinal());
+        writeVarLong(frame - lastFrame);
+        writeVarLong(time - lastTime);
+        lastFrame = frame;
+        lastTime = time;
+    }
+
+    private void writeMouse(MouseEvent e) throws IOException {
+        writeString(e.getName());
+        writeVarLong(e.getButton());
+        writeVarLong(e.getMods());
+        out.writeFloat(e.getX());
+        out.writeFloat(e.getY());
+        out.writeFloat(e.getDeltaX());
+        out.writeFloat(e.getDeltaY());
+        writeVarLong(e.getClickCount());
+    }
+
+    private void writeGeneric(GenericEvent e) throws IOException {
+        writeString(e.getName());
+        writeString(e.getSubject());
+
+        int count = 0;
+        for (int i = 0; i < e.getArgumentCount(); i++) {
+            if (isRecordable(e, i))
+                count++;
+        }
+        writeVarLong(count);
+        for (int i = 0; i < e.getArgumentCount(); i++) {
+            if (!isRecordable(e, i))
+                continue;
+
+            writeString(GenericEvent.keyName(e.keyAt(i)));
+            out.writeByte(e.typeAt(i));
+            if (e.typeAt(i) == GenericEvent.OBJECT) {
+                writeString((String) e.objectAt(i));
+            } else {
+                out.writeLong(e.primitiveAt(i));
+            }
+        }
+    }
+
+    private static boolean isRecordable(GenericEvent e, int slot) {
+        return e.typeAt(slot) != GenericEvent.OBJECT || e.objectAt(slot) == null || e.objectAt(slot) instanceof String;
+    }
+
+    private void writeString(String string) throws IOException {
+        if (string == null) {
+            writeVarLong(NULL_STRING);
+            return;
+        }
+
+        Integer index = strings.get(string);
+        if (index != null) {
+            writeVarLong(STRING_INDEX + index);
+        } else {
+            strings.put(string, strings.size());
+            writeVarLong(NEW_STRING);
+            out.writeUTF(string);
+        }
+    }
+
+    /**
+     * Write a zigzag encoded variable length integer, small values of either sign only take a single byte.
+     */
+    private void writeVarLong(long value) throws IOException {
+        value = (value << 1) ^ (value >> 63);
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
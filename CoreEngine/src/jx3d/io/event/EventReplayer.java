@@ -0,0 +1,286 @@
+package jx3d.io.event;
+
+import jx3d.core.Window;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Event replayer reads an event journal written by an {@link EventRecorder} and feeds the events back
+ * to the application, see {@link jx3d.core.Application#setEventReplayer(EventReplayer)}.
+ * <p>
+ * The events can either be replayed at the original speed, where each event is dispatched once the same amount
+ * of time has passed as when it was recorded, or at maximum speed, where each event is dispatched in the same
+ * frame relative to the start as it was recorded in. Replaying at maximum speed does not depend on the time
+ * so the application gets the same input every run, which is useful when benchmarking the frame time of layers.
+ * The replayed events are obtained from event pools so replaying does not allocate any memory after warm up.
+ * </p>
+ */
+public class EventReplayer implements Closeable {
+
+    /**
+     * All the event types indexed by ordinal.
+     */
+    private static final EventType[] TYPES = EventType.values();
+
+    /**
+     * The stream to read the journal from.
+     */
+    private final DataInputStream in;
+
+    /**
+     * The window that replayed window events are related to.
+     */
+    private final Window window;
+
+    /**
+     * Real time flag is set if the events are replayed at the original speed instead of by frame.
+     */
+    private final boolean realTime;
+
+    /**
+     * Table of the strings read so far, indexed in the order they were read.
+     */
+    private final ArrayList<String> strings = new ArrayList<>();
+
+    private final EventPool<MouseEvent> mouseEvents = new EventPool<>(MouseEvent::new);
+    private final EventPool<MouseScrollEvent> mouseScrollEvents = new EventPool<>(MouseScrollEvent::new);
+    private final EventPool<KeyEvent> keyEvents = new EventPool<>(KeyEvent::new);
+    private final EventPool<WindowEvent> windowEvents = new EventPool<>(WindowEvent::new);
+    private final EventPool<GenericEvent> genericEvents = new EventPool<>(GenericEvent::new);
+
+    /**
+     * The next event to replay, null when the end of the journal has been reached.
+     */
+    private Event pending;
+
+    /**
+     * The frame and time of the pending event relative to the start of the recording.
+     */
+    private long pendingFrame, pendingTime;
+
+    /**
+     * The frame and time when the replay was started.
+     */
+    private long startFrame, startTime;
+
+    /**
+     * Started flag is set when the first frame of the replay is known.
+     */
+    private boolean started;
+
+    /**
+     * The number of events replayed.
+     */
+    private int eventCount;
+
+    /**
+     * Constructs an event replayer that reads the journal from the given input stream.
+     * @param input the stream to read from, the stream is closed when the replayer is closed
+     * @param window the window used by replayed window events, may be null
+     * @param realTime true to replay the events at the original speed, false to replay them by frame
+     * @throws IOException if the journal header could not be read or is not a valid journal
+     */
+    public EventReplayer(InputStream input, Window window, boolean realTime) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(input));
+        this.window = window;
+        this.realTime = realTime;
+
+        if (in.readInt() != EventRecorder.MAGIC)
+            throw new IOException("The stream is not an event journal.");
+
+        int version = in.readShort();
+        if (version != EventRecorder.VERSION)
+            throw new IOException("Unsupported event journal version " + version + ".");
+
+        readNext();
+    }
+
+    /**
+     * Start the replay at a specific frame, events are replayed relative to this frame and the current time.
+     * If this is not called then the replay starts at the frame of the first call to {@link #replay(Consumer, long)}.
+     * @param frame the index of the current frame
+     */
+    public void start(long frame) {
+        startFrame = frame;
+        startTime = System.nanoTime();
+        started = true;
+    }
+
+    /**
+     * Replay all the events that are due in the current frame. Each event is released after
+     * the handler has returned, handlers have to retain events they keep references to.
+     * @param handler the event handler e.g. {@link jx3d.core.Application#onEvent(Event)}
+     * @param frame the index of the current frame
+     * @return the number of events replayed
+     * @throws UncheckedIOException if the journal could not be read
+     */
+    public int replay(Consumer<? super Event> handler, long frame) {
+        if (!started) {
+            start(frame);
+        }
+
+        long elapsedFrames = frame - startFrame;
+        long elapsedTime = System.nanoTime() - startTime;
+        int count = 0;
+        while (pending != null && (realTime ? pendingTime <= elapsedTime : pendingFrame <= elapsedFrames)) {
+            Event event = pending;
+            try {
+                handler.accept(event);
+            } finally {
+                event.release();
+            }
+            count++;
+            try {
+                readNext();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read the event journal.", e);
+            }
+        }
+        eventCount += count;
+        return count;
+    }
+
+    /**
+     * Check if all the events in the journal have been replayed.
+     * @return true if there are no more events to replay
+     */
+    public boolean isFinished() {
+        return pending == null;
+    }
+
+    /**
+     * Get the number of events replayed so far.
+     * @return the number of events
+     */
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Close the underlying stream.
+     * @throws IOException if the stream could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (pending != null) {
+            pending.release();
+            pending = null;
+        }
+        in.close();
+    }
+
+    /**
+     * Read the next event from the journal into {@link #pending}.
+     */
+    private void readNext() throws IOException {
+        pending = null;
+        int ordinal = in.read();
+        if (ordinal == -1)
+            return;
+
+        if (ordinal >= TYPES.length)
+            throw new IOException("Unknown event type " + ordinal + " in the event journal.");
+
+        EventType type = TYPES[ordinal];
+        pendingFrame += readVarLong();
+        pendingTime += readVarLong();
+        switch (type) {
+            case None:
+                pending = readGeneric();
+                break;
+            case MouseScrolled: {
+                String name = readString();
+                readVarLong();
+                int mods = (int) readVarLong();
+                float x = in.readFloat(), y = in.readFloat(), dx = in.readFloat(), dy = in.readFloat();
+                int clickCount = (int) readVarLong();
+                MouseScrollEvent event = mouseScrollEvents.obtain();
+                event.set(name, mods, x, y, dx, dy, in.readFloat(), in.readFloat(), clickCount);
+                pending = event;
+                break;
+            }
+            case MousePressed: case MouseReleased: case MouseMoved:
+            case MouseDragged: case MouseEntered: case MouseExited: {
+                String name = readString();
+                int button = (int) readVarLong();
+                int mods = (int) readVarLong();
+                float x = in.readFloat(), y = in.readFloat(), dx = in.readFloat(), dy = in.readFloat();
+                MouseEvent event = mouseEvents.obtain();
+                event.set(type, name, button, mods, x, y, dx, dy, (int) readVarLong());
+                pending = event;
+                break;
+            }
+            case KeyDown: case KeyUp: {
+                String name = readString();
+                int key = (int) readVarLong();
+                int scancode = (int) readVarLong();
+                int mods = (int) readVarLong();
+                char keyChar = (char) readVarLong();
+                KeyEvent event = keyEvents.obtain();
+                event.set(name, type, key, scancode, mods, keyChar, in.readBoolean());
+                pending = event;
+                break;
+            }
+            case WindowMoved: case WindowResize: case WindowFocus: case WindowLostFocus:
+            case WindowIconified: case WindowMaximized: case WindowClose: {
+                String name = readString();
+                float x = in.readFloat(), y = in.readFloat(), width = in.readFloat(), height = in.readFloat();
+                int flags = in.readByte();
+                WindowEvent event = windowEvents.obtain();
+                event.set(name, type, window, x, y, width, height, (flags & 1) != 0, (flags & 2) != 0);
+                pending = event;
+                break;
+            }
+            default:
+                throw new IOException("Unexpected event type " + type + " in the event journal.");
+        }
+    }
+
+    private GenericEvent readGeneric() throws IOException {
+        GenericEvent event = genericEvents.obtain();
+        String name = readString();
+        event.set(name, readString());
+
+        int count = (int) readVarLong();
+        for (int i = 0; i < count; i++) {
+            int key = GenericEvent.key(readString());
+            byte type = in.readByte();
+            if (type == GenericEvent.OBJECT) {
+                event.put(key, type, 0, readString());
+            } else {
+                event.put(key, type, in.readLong(), null);
+            }
+        }
+        return event;
+    }
+
+    private String readString() throws IOException {
+        int reference = (int) readVarLong();
+        if (reference == EventRecorder.NULL_STRING)
+            return null;
+
+        if (reference == EventRecorder.NEW_STRING) {
+            String string = in.readUTF();
+            strings.add(string);
+            return string;
+        }
+        return strings.get(reference - EventRecorder.STRING_INDEX);
+    }
+
+    /**
+     * Read a zigzag encoded variable length integer.
+     */
+    private long readVarLong() throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -1,15 +1,43 @@
 package jx3d.io.event;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Map;
 
 /**
  * Generic event is a simple event that can be used to send information to another
  * {@link jx3d.core.Layer} or {@link jx3d.core.Node}. This event has a name, subject and multiple arguments.
- * Arguments are stored as key value pairs, values are stored as type {@link Object} and this class provides
- * some methods of casting to other types e.g. {@link #getInt(String)} returns argument as an integer.
+ * <p>
+ * Arguments are stored as key value pairs in a compact argument block. The argument keys are interned into
+ * integer ids, see {@link #key(String)}, and the values are stored in parallel arrays of primitive slots and
+ * object slots, so primitive arguments are never boxed. The arguments are added using the <code>put</code>
+ * methods which return the event itself so they can be chained like a builder e.g.
+ * <code>pool.obtain().set("hit", "player").put(DAMAGE, 12.5f)</code>. The argument arrays are reused when
+ * the event is reset by {@link #set(String, String)}, thus building pooled events does not allocate any memory.
+ * The getters e.g. {@link #getInt(int)} returns the argument as the requested type.
+ * </p>
  */
 public class GenericEvent extends Event {
 
+    /**
+     * Registry of all the interned event names.
+     */
+    private static final NameRegistry NAMES = new NameRegistry();
+
+    /**
+     * Registry of all the interned argument keys.
+     */
+    private static final NameRegistry KEYS = new NameRegistry();
+
+    /**
+     * The types of values stored in the argument slots.
+     */
+    static final byte INT = 0, LONG = 1, FLOAT = 2, DOUBLE = 3, BOOLEAN = 4, OBJECT = 5;
+
+    /**
+     * The initial number of argument slots.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
     /**
      * The name of the event identifies the type of event this is. The event dispatcher uses
      * the event name to find a listener that has the same name.
@@ -17,44 +45,291 @@ public class GenericEvent extends Event {
     protected String name;
 
     /**
-     *
+     * The interned id of the event name, used by the event dispatcher to find the listeners of this event.
+     */
+    private int id = -1;
+
+    /**
+     * The subject of the event e.g. the name of the object the event is about.
      */
     protected String subject;
 
-    protected HashMap<String, Object> arguments;
+    /**
+     * The number of arguments stored in this event.
+     */
+    private int argumentCount;
+
+    /**
+     * The interned argument key of each slot.
+     */
+    private int[] keys;
+
+    /**
+     * The type of value stored in each slot.
+     */
+    private byte[] types;
+
+    /**
+     * The primitive value of each slot, floating point values are stored as raw bits.
+     */
+    private long[] primitives;
+
+    /**
+     * The object value of each slot, null for primitive values.
+     */
+    private Object[] objects;
+
+    /**
+     * Constructs an empty generic event, used by event pools.
+     * @see #set(String, String)
+     */
+    public GenericEvent() {
+        keys = new int[INITIAL_CAPACITY];
+        types = new byte[INITIAL_CAPACITY];
+        primitives = new long[INITIAL_CAPACITY];
+        objects = new Object[INITIAL_CAPACITY];
+    }
 
     public GenericEvent(String name, String subject) {
-        this(name, subject, null);
+        this();
+        set(name, subject);
     }
 
-    public GenericEvent(String name, String subject, HashMap<String, Object> arguments) {
+    public GenericEvent(String name, String subject, Map<String, Object> arguments) {
+        this(name, subject);
+        if (arguments != null) {
+            for (Map.Entry<String, Object> argument : arguments.entrySet()) {
+                put(argument.getKey(), argument.getValue());
+            }
+        }
+    }
+
+    /**
+     * Intern an event name, the returned id can be stored in a constant and used instead of the
+     * event name to avoid looking up the name every time an event is created.
+     * @param name the event name
+     * @return the interned event name id
+     */
+    public static int id(String name) {
+        return NAMES.intern(name);
+    }
+
+    /**
+     * Intern an argument key, the returned id can be stored in a constant and used instead of the
+     * string key to avoid looking up the key for every argument.
+     * @param key the argument key
+     * @return the interned argument key id
+     */
+    public static int key(String key) {
+        return KEYS.intern(key);
+    }
+
+    /**
+     * Reset this event with a new name and subject and remove all the arguments, used when reusing pooled events.
+     * @param name the name of the event
+     * @param subject the subject of the event
+     * @return this event
+     */
+    public GenericEvent set(String name, String subject) {
+        return set(name != null ? NAMES.intern(name) : -1, name, subject);
+    }
+
+    /**
+     * Reset this event with a new interned name and subject and remove all the arguments,
+     * used when reusing pooled events.
+     * @param id the interned event name id, see {@link #id(String)}
+     * @param subject the subject of the event
+     * @return this event
+     */
+    public GenericEvent set(int id, String subject) {
+        return set(id, NAMES.name(id), subject);
+    }
+
+    private GenericEvent set(int id, String name, String subject) {
+        this.id = id;
         this.name = name;
         this.subject = subject;
-        this.arguments = arguments;
+        Arrays.fill(objects, 0, argumentCount, null);
+        argumentCount = 0;
+        return this;
+    }
+
+    public final GenericEvent put(int key, int value) {
+        return put(key, INT, value, null);
+    }
+
+    public final GenericEvent put(int key, long value) {
+        return put(key, LONG, value, null);
+    }
+
+    public final GenericEvent put(int key, float value) {
+        return put(key, FLOAT, Float.floatToRawIntBits(value), null);
+    }
+
+    public final GenericEvent put(int key, double value) {
+        return put(key, DOUBLE, Double.doubleToRawLongBits(value), null);
+    }
+
+    public final GenericEvent put(int key, boolean value) {
+        return put(key, BOOLEAN, value ? 1 : 0, null);
+    }
+
+    /**
+     * Put an argument of unknown type, boxed primitives are unboxed and stored in primitive slots.
+     * @param key the interned argument key
+     * @param value the argument value
+     * @return this event
+     */
+    public final GenericEvent put(int key, Object value) {
+        if (value instanceof Integer) return put(key, (int) (Integer) value);
+        if (value instanceof Long) return put(key, (long) (Long) value);
+        if (value instanceof Float) return put(key, (float) (Float) value);
+        if (value instanceof Double) return put(key, (double) (Double) value);
+        if (value instanceof Boolean) return put(key, (boolean) (Boolean) value);
+        return put(key, OBJECT, 0, value);
+    }
+
+    public final GenericEvent put(String key, int value) {
+        return put(key(key), value);
+    }
+
+    public final GenericEvent put(String key, long value) {
+        return put(key(key), value);
+    }
+
+    public final GenericEvent put(String key, float value) {
+        return put(key(key), value);
+    }
+
+    public final GenericEvent put(String key, double value) {
+        return put(key(key), value);
+    }
+
+    public final GenericEvent put(String key, boolean value) {
+        return put(key(key), value);
+    }
+
+    public final GenericEvent put(String key, Object value) {
+        return put(key(key), value);
+    }
+
+    /**
+     * Get the interned id of the event name.
+     * @return the event name id or -1 if the event has no name
+     */
+    public final int getId() {
+        return id;
     }
 
     public final String getSubject() {
         return subject;
     }
 
+    /**
+     * Check if this event has a specific argument.
+     * @param key the interned argument key
+     * @return true if the argument exists
+     */
+    public final boolean has(int key) {
+        return indexOf(key) != -1;
+    }
+
+    public final boolean has(String argument) {
+        int key = KEYS.find(argument);
+        return key != -1 && has(key);
+    }
+
+    /**
+     * Get an argument as an object, primitive values are boxed.
+     * @param key the interned argument key
+     * @return the argument value or null if there is no such argument
+     */
+    public final Object getObject(int key) {
+        int i = indexOf(key);
+        if (i == -1)
+            return null;
+
+        switch (types[i]) {
+            case INT: return (int) primitives[i];
+            case LONG: return primitives[i];
+            case FLOAT: return Float.intBitsToFloat((int) primitives[i]);
+            case DOUBLE: return Double.longBitsToDouble(primitives[i]);
+            case BOOLEAN: return primitives[i] != 0;
+            default: return objects[i];
+        }
+    }
+
+    public final String getString(int key) {
+        return (String) getObject(key);
+    }
+
+    public final int getInt(int key) {
+        int i = require(key);
+        return types[i] == INT || types[i] == LONG ? (int) primitives[i] : (int) getDouble(key);
+    }
+
+    public final long getLong(int key) {
+        int i = require(key);
+        return types[i] == INT || types[i] == LONG ? primitives[i] : (long) getDouble(key);
+    }
+
+    public final float getFloat(int key) {
+        int i = require(key);
+        return types[i] == FLOAT ? Float.intBitsToFloat((int) primitives[i]) : (float) getDouble(key);
+    }
+
+    public final double getDouble(int key) {
+        int i = require(key);
+        switch (types[i]) {
+            case INT: case LONG: return primitives[i];
+            case FLOAT: return Float.intBitsToFloat((int) primitives[i]);
+            case DOUBLE: return Double.longBitsToDouble(primitives[i]);
+            default: throw new ClassCastException("The argument " + KEYS.name(key) + " is not a number.");
+        }
+    }
+
+    public final boolean getBoolean(int key) {
+        int i = require(key);
+        if (types[i] != BOOLEAN)
+            throw new ClassCastException("The argument " + KEYS.name(key) + " is not a boolean.");
+
+        return primitives[i] != 0;
+    }
+
     public final Object getObject(String argument) {
-        return arguments.get(argument);
+        return getObject(KEYS.find(argument));
     }
 
     public final String getString(String argument) {
-        return (String) arguments.get(argument);
+        return getString(KEYS.find(argument));
     }
 
     public final int getInt(String argument) {
-        return (Integer) arguments.get(argument);
+        return getInt(KEYS.find(argument));
+    }
+
+    public final long getLong(String argument) {
+        return getLong(KEYS.find(argument));
     }
 
     public final float getFloat(String argument) {
-        return (Float) arguments.get(argument);
+        return getFloat(KEYS.find(argument));
     }
 
     public final double getDouble(String argument) {
-        return (Double) arguments.get(argument);
+        return getDouble(KEYS.find(argument));
+    }
+
+    public final boolean getBoolean(String argument) {
+        return getBoolean(KEYS.find(argument));
+    }
+
+    /**
+     * Get the number of arguments stored in this event.
+     * @return the number of arguments
+     */
+    public final int getArgumentCount() {
+        return argumentCount;
     }
 
     @Override
@@ -75,11 +350,91 @@ public class GenericEvent extends Event {
     @Override
     public String toString() {
         StringBuilder argString = new StringBuilder();
-        if (arguments != null) {
-            for (String key : arguments.keySet()) {
-                argString.append("," + key + "=" + arguments.get(key));
-            }
+        for (int i = 0; i < argumentCount; i++) {
+            argString.append(",").append(KEYS.name(keys[i])).append("=").append(getObject(keys[i]));
         }
         return "Generic" + super.toString() + " {subject=" + subject + argString.toString() + "}";
     }
+
+    /**
+     * Get the name of an interned argument key.
+     * @param key the interned argument key
+     * @return the argument key name
+     */
+    static String keyName(int key) {
+        return KEYS.name(key);
+    }
+
+    /**
+     * Get the interned argument key of a slot, used by the {@link EventRecorder}.
+     */
+    final int keyAt(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * Get the type of value stored in a slot, used by the {@link EventRecorder}.
+     */
+    final byte typeAt(int slot) {
+        return types[slot];
+    }
+
+    /**
+     * Get the primitive value stored in a slot, used by the {@link EventRecorder}.
+     */
+    final long primitiveAt(int slot) {
+        return primitives[slot];
+    }
+
+    /**
+     * Get the object value stored in a slot, used by the {@link EventRecorder}.
+     */
+    final Object objectAt(int slot) {
+        return objects[slot];
+    }
+
+    /**
+     * Store a value in the slot of the argument key, a new slot is used if the argument does not exist.
+     * The slot arrays only grow when there are more arguments than ever before.
+     */
+    final GenericEvent put(int key, byte type, long primitive, Object object) {
+        int i = indexOf(key);
+        if (i == -1) {
+            if (argumentCount == keys.length) {
+                int capacity = keys.length * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                types = Arrays.copyOf(types, capacity);
+                primitives = Arrays.copyOf(primitives, capacity);
+                objects = Arrays.copyOf(objects, capacity);
+            }
+            i = argumentCount++;
+            keys[i] = key;
+        }
+        types[i] = type;
+        primitives[i] = primitive;
+        objects[i] = object;
+        return this;
+    }
+
+    /**
+     * Find the slot of an argument, events only have a few arguments so a linear search is used.
+     * @param key the interned argument key
+     * @return the slot index or -1 if the argument does not exist
+     */
+    private int indexOf(int key) {
+        for (int i = 0; i < argumentCount; i++) {
+            if (keys[i] == key)
+                return i;
+        }
+        return -1;
+    }
+
+    private int require(int key) {
+        int i = indexOf(key);
+        if (i == -1)
+            throw new IllegalArgumentException("The event has no argument "
+                    + (key >= 0 && key < KEYS.size() ? KEYS.name(key) : "with key " + key) + ".");
+
+        return i;
+    }
 }
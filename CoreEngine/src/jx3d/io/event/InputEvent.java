@@ -18,12 +18,27 @@ public abstract class InputEvent extends Event {
      */
     private int mods;
 
+    /**
+     * Constructs an empty {@link InputEvent} object, used by event pools.
+     */
+    protected InputEvent() {
+    }
+
     /**
      * Constructs an {@link InputEvent} object with specific parameters.
      * @param when
      * @param mods
      */
     public InputEvent(long when, int mods) {
+        set(when, mods);
+    }
+
+    /**
+     * Set the common input event parameters, used when reusing pooled events.
+     * @param when the time (in milliseconds) when the input event was created
+     * @param mods the state of the modifiers
+     */
+    protected final void set(long when, int mods) {
         this.when = when;
         this.mods = mods;
     }
@@ -41,6 +41,13 @@ public class KeyEvent extends InputEvent {
      */
     private boolean repeat;
 
+    /**
+     * Constructs an empty {@link KeyEvent} object, used by event pools.
+     * @see #set(String, EventType, int, int, int, char, boolean)
+     */
+    public KeyEvent() {
+    }
+
     /**
      * Constructs a {@link KeyEvent} object with specific parameters.
      * @param name the name of the event
@@ -51,7 +58,21 @@ public class KeyEvent extends InputEvent {
      * @param repeat true if this is a repeated event
      */
     public KeyEvent(String name, EventType type, int key, int scancode, int mods, char keyChar, boolean repeat) {
-        super(System.currentTimeMillis(), mods);
+        set(name, type, key, scancode, mods, keyChar, repeat);
+    }
+
+    /**
+     * Set all the parameters of this key event, used when reusing pooled events.
+     * @param name the name of the event
+     * @param type the type of event
+     * @param key the key that triggered this event
+     * @param scancode the key scancode, unique for every key
+     * @param mods the state of the modifiers
+     * @param keyChar the character of the printable key
+     * @param repeat true if this is a repeated event
+     */
+    public void set(String name, EventType type, int key, int scancode, int mods, char keyChar, boolean repeat) {
+        set(System.currentTimeMillis(), mods);
         this.name = name;
         this.type = type;
         this.key = key;
@@ -0,0 +1,160 @@
+package jx3d.io.event;
+
+import java.util.Arrays;
+
+/**
+ * Latency histogram records durations in nanoseconds into a fixed number of log-linear buckets.
+ * Durations below 16 ns have their own bucket and every power of two above that is split into 8 buckets,
+ * thus percentiles are accurate to within 12.5% and the histogram never uses more memory than it does when created.
+ * Recording a duration does not allocate any memory. The histogram is not thread safe, it is meant to be
+ * recorded by the main thread, reading it from other threads can give slightly outdated results.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The number of sub buckets per power of two.
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Durations below this limit have one bucket each.
+     */
+    private static final int LINEAR_LIMIT = 16;
+    private static final int LINEAR_BITS = 4;
+
+    /**
+     * The total number of buckets, enough for any positive long duration.
+     */
+    private static final int BUCKETS = LINEAR_LIMIT + (Long.SIZE - 1 - LINEAR_BITS) * SUB_BUCKETS;
+
+    /**
+     * The number of recorded durations in each bucket.
+     */
+    private final long[] counts = new long[BUCKETS];
+
+    /**
+     * The total number of recorded durations.
+     */
+    private long count;
+
+    /**
+     * The sum of all recorded durations.
+     */
+    private long total;
+
+    /**
+     * The longest recorded duration.
+     */
+    private long max;
+
+    /**
+     * Record a duration.
+     * @param nanos the duration in nanoseconds, negative durations are recorded as zero
+     */
+    public void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+
+        counts[bucket(nanos)]++;
+        count++;
+        total += nanos;
+        if (nanos > max)
+            max = nanos;
+    }
+
+    /**
+     * Get the number of recorded durations.
+     * @return the number of durations
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the longest recorded duration.
+     * @return the longest duration in nanoseconds
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Get the mean of the recorded durations.
+     * @return the mean duration in nanoseconds or zero if nothing has been recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Get the duration at a specific percentile, the returned value is the upper bound of the bucket
+     * containing the percentile but never more than the longest recorded duration.
+     * @param percentile the percentile between 0 and 100 e.g. 99 for p99
+     * @return the duration in nanoseconds or zero if nothing has been recorded
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+
+        if (count == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    /**
+     * Add all the durations recorded by another histogram to this histogram.
+     * @param other the histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Remove all the recorded durations.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram {count=" + count + ", p50=" + getPercentile(50) + "ns, p99="
+                + getPercentile(99) + "ns, max=" + max + "ns}";
+    }
+
+    private static int bucket(long nanos) {
+        if (nanos < LINEAR_LIMIT)
+            return (int) nanos;
+
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - LINEAR_BITS) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < LINEAR_LIMIT)
+            return bucket;
+
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + LINEAR_BITS;
+        long sub = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (SUB_BUCKETS + sub) * width + width - 1;
+    }
+}
@@ -41,6 +41,13 @@ public class MouseEvent extends InputEvent {
      */
     private int clickCount;
 
+    /**
+     * Constructs an empty {@link MouseEvent} object, used by event pools.
+     * @see #set(EventType, String, int, int, float, float, float, float, int)
+     */
+    public MouseEvent() {
+    }
+
     /**
      * Constructs a {@link MouseEvent} object with specific parameters.
      * @param type the type of event e.g. MousePressed, MouseReleased etc.
@@ -53,7 +60,23 @@ public class MouseEvent extends InputEvent {
      * @param clickCount the total click count
      */
     public MouseEvent(EventType type, String name, int button, int mods, float x, float y, float dx, float dy, int clickCount) {
-        super(System.currentTimeMillis(), mods);
+        set(type, name, button, mods, x, y, dx, dy, clickCount);
+    }
+
+    /**
+     * Set all the parameters of this mouse event, used when reusing pooled events.
+     * @param type the type of event e.g. MousePressed, MouseReleased etc.
+     * @param name the name of the event
+     * @param button the mouse button that triggered this event
+     * @param mods the state of the modifiers
+     * @param x the mouse x position
+     * @param y the mouse y position
+     * @param dx the change in mouse x position
+     * @param dy the change in mouse y position
+     * @param clickCount the total click count
+     */
+    public void set(EventType type, String name, int button, int mods, float x, float y, float dx, float dy, int clickCount) {
+        set(System.currentTimeMillis(), mods);
         this.type = type;
         this.name = name;
         this.button = button;
@@ -104,6 +127,14 @@ public class MouseEvent extends InputEvent {
         return button;
     }
 
+    /**
+     * Get the total number of clicks since the start of the Application.
+     * @return the click count
+     */
+    public int getClickCount() {
+        return clickCount;
+    }
+
     @Override
     public EventType getType() {
         return type;
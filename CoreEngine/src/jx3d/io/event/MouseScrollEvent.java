@@ -18,6 +18,13 @@ public class MouseScrollEvent extends MouseEvent {
      */
     private float scrollY;
 
+    /**
+     * Constructs an empty {@link MouseScrollEvent} object, used by event pools.
+     * @see #set(String, int, float, float, float, float, float, float, int)
+     */
+    public MouseScrollEvent() {
+    }
+
     /**
      * Constructs a {@link MouseScrollEvent} object with specific parameters.
      * @param name the name of the event
@@ -32,7 +39,24 @@ public class MouseScrollEvent extends MouseEvent {
     public MouseScrollEvent(String name, int mods, float x, float y, float dx, float dy,
                             float scrollX, float scrollY, int clickCount) {
 
-        super(EventType.MouseScrolled, name, Module.MOUSE_NOBUTTON, mods, x, y, dx, dy, clickCount);
+        set(name, mods, x, y, dx, dy, scrollX, scrollY, clickCount);
+    }
+
+    /**
+     * Set all the parameters of this mouse scroll event, used when reusing pooled events.
+     * @param name the name of the event
+     * @param mods the state of the modifiers
+     * @param x the mouse x position
+     * @param y the mouse y position
+     * @param dx the change in mouse x position
+     * @param dy the change in mouse y position
+     * @param scrollX the horizontal mouse scroll
+     * @param scrollY the vertical mouse scroll
+     * @param clickCount the total click count
+     */
+    public void set(String name, int mods, float x, float y, float dx, float dy,
+                    float scrollX, float scrollY, int clickCount) {
+        set(EventType.MouseScrolled, name, Module.MOUSE_NOBUTTON, mods, x, y, dx, dy, clickCount);
 
         this.scrollX = scrollX;
         this.scrollY = scrollY;
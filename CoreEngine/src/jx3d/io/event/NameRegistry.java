@@ -0,0 +1,82 @@
+package jx3d.io.event;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Name registry interns strings into small integer ids, ids are given out in increasing order starting at zero.
+ * Interning a name is thread safe, looking up an already interned name does not allocate any memory.
+ */
+public final class NameRegistry {
+
+    /**
+     * Map of the interned names to their ids.
+     */
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+    /**
+     * The interned names indexed by id.
+     */
+    private volatile String[] names = new String[16];
+
+    /**
+     * The number of interned names.
+     */
+    private volatile int size;
+
+    /**
+     * Intern a name, if the name has not been interned before it is given the next id.
+     * @param name the name to intern
+     * @return the id of the name
+     */
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null)
+            return id;
+
+        synchronized (this) {
+            id = ids.get(name);
+            if (id != null)
+                return id;
+
+            int next = size;
+            if (next == names.length) {
+                names = Arrays.copyOf(names, next * 2);
+            }
+            names[next] = name;
+            size = next + 1;
+            ids.put(name, next);
+            return next;
+        }
+    }
+
+    /**
+     * Find the id of a name without interning it.
+     * @param name the name to find
+     * @return the id of the name or -1 if the name has not been interned
+     */
+    public int find(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Get the name of a specific id.
+     * @param id the id of the name
+     * @return the interned name
+     */
+    public String name(int id) {
+        if (id < 0 || id >= size)
+            throw new IndexOutOfBoundsException("No name has the id " + id);
+
+        return names[id];
+    }
+
+    /**
+     * Get the number of interned names.
+     * @return the number of names
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -46,6 +46,13 @@ public class WindowEvent extends Event {
      */
     private boolean maximized;
 
+    /**
+     * Constructs an empty {@link WindowEvent} object, used by event pools.
+     * @see #set(String, EventType, Window, float, float, float, float, boolean, boolean)
+     */
+    public WindowEvent() {
+    }
+
     /**
      * Constructs a {@link WindowEvent} object with specific parameters.
      * @param name the name of the event
@@ -60,6 +67,23 @@ public class WindowEvent extends Event {
      */
     public WindowEvent(String name, EventType type, Window window, float x, float y, float width, float height,
                        boolean iconified, boolean maximized) {
+        set(name, type, window, x, y, width, height, iconified, maximized);
+    }
+
+    /**
+     * Set all the parameters of this window event, used when reusing pooled events.
+     * @param name the name of the event
+     * @param type the type of event
+     * @param window the related window
+     * @param x the window x position
+     * @param y the window y position
+     * @param width the window width
+     * @param height the window height
+     * @param iconified is window iconified
+     * @param maximized is window maximized
+     */
+    public void set(String name, EventType type, Window window, float x, float y, float width, float height,
+                    boolean iconified, boolean maximized) {
         this.name = name;
         this.type = type;
         this.window = window;
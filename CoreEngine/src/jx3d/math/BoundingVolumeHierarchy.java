@@ -0,0 +1,305 @@
+package jx3d.math;
+
+import org.joml.AABBf;
+import org.joml.Vector3fc;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bounding volume hierarchy is a binary tree of axis aligned bounding boxes that is used to quickly find
+ * the items that intersect a ray. The tree is built top down by splitting the items at the median of the
+ * longest axis of their centers, and stored in flat arrays in depth first order, thus the left child of a
+ * node is always the next node and casting a ray does not allocate any memory.
+ * <p>
+ * The tree does not track changes to the items, when items are moved the tree has to be rebuilt,
+ * see {@link #build(List, BoundsFunction)}.
+ * </p>
+ *
+ * @param <T> the type of items stored in the tree
+ */
+public class BoundingVolumeHierarchy<T> {
+
+    /**
+     * The default maximum number of items in a leaf node.
+     */
+    public static final int DEFAULT_LEAF_SIZE = 4;
+
+    /**
+     * The maximum depth of the tree, the median split keeps the depth logarithmic in the number of items.
+     */
+    private static final int MAX_DEPTH = 64;
+
+    /**
+     * Bounds function is used to get the bounding box of an item when the tree is built.
+     *
+     * @param <T> the type of items
+     */
+    @FunctionalInterface
+    public interface BoundsFunction<T> {
+
+        /**
+         * Get the bounding box of an item in world space.
+         * @param item the item
+         * @param dest the bounding box to store the bounds in
+         * @return false if the item has no bounds and should not be stored in the tree
+         */
+        boolean getBounds(T item, AABBf dest);
+    }
+
+    /**
+     * The maximum number of items in a leaf node.
+     */
+    private final int leafSize;
+
+    /**
+     * The items stored in the tree, ordered so the items of each leaf are stored contiguously.
+     */
+    private Object[] items = new Object[0];
+
+    /**
+     * The bounds of each item, 6 floats per item (min x, y, z and max x, y, z).
+     */
+    private float[] itemBounds = new float[0];
+
+    /**
+     * The bounds of each tree node, 6 floats per node (min x, y, z and max x, y, z).
+     */
+    private float[] nodeBounds = new float[0];
+
+    /**
+     * For leaf nodes the index of the first item, for inner nodes the index of the right child.
+     */
+    private int[] offsets = new int[0];
+
+    /**
+     * The number of items in each leaf node, zero for inner nodes.
+     */
+    private int[] counts = new int[0];
+
+    /**
+     * The number of items and tree nodes.
+     */
+    private int size, nodeCount;
+
+    /**
+     * Traversal stack reused by every ray cast.
+     */
+    private final int[] stack = new int[MAX_DEPTH * 2];
+
+    /**
+     * Constructs an empty bounding volume hierarchy with the default leaf size.
+     */
+    public BoundingVolumeHierarchy() {
+        this(DEFAULT_LEAF_SIZE);
+    }
+
+    /**
+     * Constructs an empty bounding volume hierarchy.
+     * @param leafSize the maximum number of items in a leaf node
+     */
+    public BoundingVolumeHierarchy(int leafSize) {
+        if (leafSize <= 0)
+            throw new IllegalArgumentException("Invalid leaf size: " + leafSize);
+
+        this.leafSize = leafSize;
+    }
+
+    /**
+     * Build the tree from a list of items, any previously stored items are removed.
+     * @param items the items to store
+     * @param bounds the function giving the bounds of each item
+     */
+    public void build(List<? extends T> items, BoundsFunction<? super T> bounds) {
+        int capacity = items.size();
+        if (this.items.length < capacity) {
+            this.items = new Object[capacity];
+            this.itemBounds = new float[capacity * 6];
+            this.nodeBounds = new float[capacity * 2 * 6];
+            this.offsets = new int[capacity * 2];
+            this.counts = new int[capacity * 2];
+        }
+
+        AABBf box = new AABBf();
+        size = 0;
+        for (T item : items) {
+            if (!bounds.getBounds(item, box))
+                continue;
+
+            int b = size * 6;
+            itemBounds[b] = box.minX;
+            itemBounds[b + 1] = box.minY;
+            itemBounds[b + 2] = box.minZ;
+            itemBounds[b + 3] = box.maxX;
+            itemBounds[b + 4] = box.maxY;
+            itemBounds[b + 5] = box.maxZ;
+            this.items[size++] = item;
+        }
+        Arrays.fill(this.items, size, this.items.length, null);
+
+        nodeCount = 0;
+        if (size > 0) {
+            buildNode(0, size, 0);
+        }
+    }
+
+    /**
+     * Get the number of items stored in the tree.
+     * @return the number of items
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Cast a ray through the tree and collect every item whose bounding box is intersected by the ray.
+     * The hits are sorted by the distance along the ray to where the ray enters the bounding box.
+     * @param origin the origin of the ray
+     * @param direction the direction of the ray, does not have to be normalized
+     * @param maxDistance the maximum distance along the ray in units of the direction length
+     * @param hits the hits to store the result in, previous hits are cleared
+     * @return the number of hits
+     */
+    public int raycast(Vector3fc origin, Vector3fc direction, float maxDistance, RayHits<T> hits) {
+        hits.clear();
+        if (nodeCount == 0)
+            return 0;
+
+        float ox = origin.x(), oy = origin.y(), oz = origin.z();
+        float ix = 1.0f / direction.x(), iy = 1.0f / direction.y(), iz = 1.0f / direction.z();
+
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (intersect(nodeBounds, node, ox, oy, oz, ix, iy, iz, maxDistance) < 0)
+                continue;
+
+            int count = counts[node];
+            if (count > 0) {
+                int first = offsets[node];
+                for (int i = first; i < first + count; i++) {
+                    float t = intersect(itemBounds, i, ox, oy, oz, ix, iy, iz, maxDistance);
+                    if (t >= 0) {
+                        hits.add(items[i], t);
+                    }
+                }
+            } else {
+                stack[top++] = offsets[node];
+                stack[top++] = node + 1;
+            }
+        }
+        hits.sort();
+        return hits.size();
+    }
+
+    /**
+     * Build a node containing the items in the range [start, end) and its children.
+     * @return the index of the node
+     */
+    private int buildNode(int start, int end, int depth) {
+        int node = nodeCount++;
+        int b = node * 6;
+        nodeBounds[b] = nodeBounds[b + 1] = nodeBounds[b + 2] = Float.POSITIVE_INFINITY;
+        nodeBounds[b + 3] = nodeBounds[b + 4] = nodeBounds[b + 5] = Float.NEGATIVE_INFINITY;
+        float cMinX = Float.POSITIVE_INFINITY, cMinY = Float.POSITIVE_INFINITY, cMinZ = Float.POSITIVE_INFINITY;
+        float cMaxX = Float.NEGATIVE_INFINITY, cMaxY = Float.NEGATIVE_INFINITY, cMaxZ = Float.NEGATIVE_INFINITY;
+        for (int i = start; i < end; i++) {
+            int ib = i * 6;
+            for (int k = 0; k < 3; k++) {
+                nodeBounds[b + k] = Math.min(nodeBounds[b + k], itemBounds[ib + k]);
+                nodeBounds[b + 3 + k] = Math.max(nodeBounds[b + 3 + k], itemBounds[ib + 3 + k]);
+            }
+            float cx = itemBounds[ib] + itemBounds[ib + 3];
+            float cy = itemBounds[ib + 1] + itemBounds[ib + 4];
+            float cz = itemBounds[ib + 2] + itemBounds[ib + 5];
+            cMinX = Math.min(cMinX, cx);
+            cMinY = Math.min(cMinY, cy);
+            cMinZ = Math.min(cMinZ, cz);
+            cMaxX = Math.max(cMaxX, cx);
+            cMaxY = Math.max(cMaxY, cy);
+            cMaxZ = Math.max(cMaxZ, cz);
+        }
+
+        if (end - start <= leafSize || depth >= MAX_DEPTH - 1) {
+            offsets[node] = start;
+            counts[node] = end - start;
+            return node;
+        }
+
+        float ex = cMaxX - cMinX, ey = cMaxY - cMinY, ez = cMaxZ - cMinZ;
+        int axis = ex >= ey && ex >= ez ? 0 : (ey >= ez ? 1 : 2);
+        int mid = (start + end) >>> 1;
+        select(start, end - 1, mid, axis);
+
+        counts[node] = 0;
+        buildNode(start, mid, depth + 1);
+        offsets[node] = buildNode(mid, end, depth + 1);
+        return node;
+    }
+
+    /**
+     * Partially sort the items in the range [left, right] so the item at index k has the median center on the axis,
+     * items before k are not greater and items after k are not smaller.
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            float pivot = center(((left + right) >>> 1), axis);
+            int i = left, j = right;
+            while (i <= j) {
+                while (center(i, axis) < pivot) i++;
+                while (center(j, axis) > pivot) j--;
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private float center(int item, int axis) {
+        return itemBounds[item * 6 + axis] + itemBounds[item * 6 + 3 + axis];
+    }
+
+    private void swap(int a, int b) {
+        Object item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+        for (int k = 0; k < 6; k++) {
+            float f = itemBounds[a * 6 + k];
+            itemBounds[a * 6 + k] = itemBounds[b * 6 + k];
+            itemBounds[b * 6 + k] = f;
+        }
+    }
+
+    /**
+     * Intersect a ray with a bounding box using the slab method.
+     * @return the distance along the ray where it enters the box, zero if the origin is inside
+     * the box or -1 if the ray misses the box
+     */
+    private static float intersect(float[] bounds, int index, float ox, float oy, float oz,
+                                   float ix, float iy, float iz, float maxDistance) {
+        int b = index * 6;
+        float t1 = (bounds[b] - ox) * ix, t2 = (bounds[b + 3] - ox) * ix;
+        float near = Math.min(t1, t2), far = Math.max(t1, t2);
+        t1 = (bounds[b + 1] - oy) * iy;
+        t2 = (bounds[b + 4] - oy) * iy;
+        near = Math.max(near, Math.min(t1, t2));
+        far = Math.min(far, Math.max(t1, t2));
+        t1 = (bounds[b + 2] - oz) * iz;
+        t2 = (bounds[b + 5] - oz) * iz;
+        near = Math.max(near, Math.min(t1, t2));
+        far = Math.min(far, Math.max(t1, t2));
+
+        if (far < 0 || near > far || near > maxDistance)
+            return -1;
+
+        return Math.max(near, 0);
+    }
+}
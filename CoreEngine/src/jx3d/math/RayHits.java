@@ -0,0 +1,111 @@
+package jx3d.math;
+
+import java.util.Arrays;
+
+/**
+ * Ray hits is a reusable list of the items hit by a ray and the distance along the ray to each hit,
+ * see {@link BoundingVolumeHierarchy#raycast(org.joml.Vector3fc, org.joml.Vector3fc, float, RayHits)}.
+ * The hits are sorted by distance so the nearest hit comes first.
+ *
+ * @param <T> the type of items that can be hit
+ */
+public class RayHits<T> {
+
+    /**
+     * The hit items.
+     */
+    private Object[] items = new Object[16];
+
+    /**
+     * The distance along the ray to each hit.
+     */
+    private float[] distances = new float[16];
+
+    /**
+     * The number of hits.
+     */
+    private int size;
+
+    /**
+     * Get a hit item.
+     * @param index the index of the hit, zero is the nearest hit
+     * @return the hit item
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+        return (T) items[index];
+    }
+
+    /**
+     * Get the distance along the ray to a hit.
+     * @param index the index of the hit, zero is the nearest hit
+     * @return the distance in units of the ray direction length
+     */
+    public float getDistance(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+        return distances[index];
+    }
+
+    /**
+     * Get the number of hits.
+     * @return the number of hits
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if the ray did not hit anything.
+     * @return true if there are no hits
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all the hits.
+     */
+    public void clear() {
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Add a hit, the hits are not sorted until {@link #sort()} is called.
+     * @param item the hit item
+     * @param distance the distance along the ray to the hit
+     */
+    void add(Object item, float distance) {
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+            distances = Arrays.copyOf(distances, size * 2);
+        }
+        items[size] = item;
+        distances[size] = distance;
+        size++;
+    }
+
+    /**
+     * Sort the hits by distance, insertion sort is used since a ray usually only hits a few items.
+     * Hits at the same distance keep the order they were added in.
+     */
+    void sort() {
+        for (int i = 1; i < size; i++) {
+            Object item = items[i];
+            float distance = distances[i];
+            int j = i - 1;
+            while (j >= 0 && distances[j] > distance) {
+                items[j + 1] = items[j];
+                distances[j + 1] = distances[j];
+                j--;
+            }
+            items[j + 1] = item;
+            distances[j + 1] = distance;
+        }
+    }
+}
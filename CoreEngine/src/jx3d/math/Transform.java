@@ -1,5 +1,6 @@
 package jx3d.math;
 
+import jx3d.util.FrameArena;
 import org.joml.Matrix4f;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
@@ -131,6 +132,16 @@ public class Transform {
         return new Vector3f(position);
     }
 
+    /**
+     * Get the current position of the transformation without allocating.
+     *
+     * @param arena the arena to get the result from
+     * @return a temporary {@link Vector3f} holding the position, valid until the end of the frame
+     */
+    public Vector3f getPos(FrameArena arena) {
+        return arena.vec3().set(position);
+    }
+
     /**
      * Set the position of the transformation.
      *
@@ -195,6 +206,17 @@ public class Transform {
         return new Vector3f(eulerAngles);
     }
 
+    /**
+     * Get the rotation of the transformation represented in euler angles without allocating.
+     *
+     * @param arena the arena to get the result from
+     * @return a temporary vector holding the euler angles, valid until the end of the frame
+     */
+    public Vector3f getEulerAngles(FrameArena arena) {
+        validateEuler();
+        return arena.vec3().set(eulerAngles);
+    }
+
     /**
      * Set the rotation of the transformation using euler angles (in radians).
      *
@@ -296,6 +318,30 @@ public class Transform {
         return new Matrix4f(mapping);
     }
 
+    /**
+     * Get the matrix that maps a point according to
+     * the position, orientation and scaling without allocating.
+     *
+     * @param arena the arena to get the result from
+     * @return a temporary {@link Matrix4f} that performs the mapping, valid until the end of the frame
+     */
+    public Matrix4f getMapping(FrameArena arena) {
+        validateMapping();
+        return arena.mat4().set(mapping);
+    }
+
+    /**
+     * Get the matrix that maps a point according to
+     * the position, orientation and scaling without allocating.
+     *
+     * @param dest the matrix to store the result in
+     * @return the dest matrix
+     */
+    public Matrix4f getMapping(Matrix4f dest) {
+        validateMapping();
+        return dest.set(mapping);
+    }
+
     /**
      * Validate the quaternion that holds the rotation.
      */
@@ -328,15 +374,12 @@ public class Transform {
             return;
         validateQuaternion();
         if (originChanged) {
-            Vector3f invOrigin = new Vector3f(origin);
-            invOrigin.mul(scale);
-            invOrigin.negate();
-            mapping = new Matrix4f().translate(position)
+            mapping.translation(position)
                     .rotate(rotation)
-                    .translate(invOrigin)
+                    .translate(-origin.x * scale.x, -origin.y * scale.y, -origin.z * scale.z)
                     .scale(scale);
         } else {
-            mapping = new Matrix4f().translationRotateScale(position, rotation, scale);
+            mapping.translationRotateScale(position, rotation, scale);
         }
         validMapping = true;
     }
@@ -163,4 +163,26 @@ public class BufferUtils {
                 m.m20(), m.m21(), m.m22(), m.m23(),
                 m.m30(), m.m31(), m.m32(), m.m33());
     }
+
+    /**
+     * Stores a matrix in a temporary float buffer from the frame arena, in the same order as {@link #toFloatBuffer(Matrix3f)}.
+     *
+     * @param m the matrix to store
+     * @param arena the arena to get the buffer from
+     * @return a temporary float buffer, valid until the end of the frame
+     */
+    public static FloatBuffer toFloatBuffer(Matrix3f m, FrameArena arena) {
+        return m.get(arena.floats(9));
+    }
+
+    /**
+     * Stores a matrix in a temporary float buffer from the frame arena, in the same order as {@link #toFloatBuffer(Matrix4f)}.
+     *
+     * @param m the matrix to store
+     * @param arena the arena to get the buffer from
+     * @return a temporary float buffer, valid until the end of the frame
+     */
+    public static FloatBuffer toFloatBuffer(Matrix4f m, FrameArena arena) {
+        return m.get(arena.floats(16));
+    }
 }
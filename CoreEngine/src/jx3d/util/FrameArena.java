@@ -0,0 +1,224 @@
+package jx3d.util;
+
+import org.joml.Matrix3f;
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * Frame arena hands out temporary math objects and off-heap scratch buffers that are reused every frame.
+ * Each thread has its own arena, see {@link #get()}, so the arena can be used from jobs and layer updates as well.
+ * The main loop starts a new frame with {@link #nextFrame()}, and each arena is reset the next time it is used
+ * after that. Once the pools have grown to the needs of a typical frame, using the arena does not allocate.
+ * <p>
+ * Objects from the arena are only valid until the end of the frame. Do not store them in fields, and do not
+ * hand them to other threads, e.g. by capturing them in commands that are executed on the render thread.
+ * </p>
+ *
+ * @author Aleman778
+ * @since 1.0
+ */
+public final class FrameArena {
+
+    /**
+     * The initial number of pooled objects of each kind.
+     */
+    private static final int INITIAL_CAPACITY = 32;
+
+    /**
+     * The minimum number of elements in a scratch buffer.
+     */
+    private static final int MIN_SCRATCH_SIZE = 64;
+
+    /**
+     * The arena of each thread.
+     */
+    private static final ThreadLocal<FrameArena> ARENA = ThreadLocal.withInitial(FrameArena::new);
+
+    /**
+     * The current frame, the arenas reset themselves when they notice that the frame has changed.
+     */
+    private static volatile int frame = 0;
+
+    private Vector3f[] vectors = new Vector3f[0];
+    private Quaternionf[] quaternions = new Quaternionf[0];
+    private Matrix3f[] matrices3 = new Matrix3f[0];
+    private Matrix4f[] matrices4 = new Matrix4f[0];
+    private FloatBuffer[] floatBuffers = new FloatBuffer[0];
+    private ByteBuffer[] byteBuffers = new ByteBuffer[0];
+    private int vectorCount, quaternionCount, matrix3Count, matrix4Count, floatBufferCount, byteBufferCount;
+
+    /**
+     * The frame that this arena was last reset in.
+     */
+    private int arenaFrame;
+
+    /**
+     * The largest number of objects used by this arena in one frame.
+     */
+    private int highWaterMark;
+
+    /**
+     * Arenas are created per thread, see {@link #get()}.
+     */
+    private FrameArena() {
+        arenaFrame = frame;
+    }
+
+    /**
+     * Get the arena of the calling thread.
+     * @return the frame arena
+     */
+    public static FrameArena get() {
+        return ARENA.get();
+    }
+
+    /**
+     * Start a new frame, every object handed out by any arena before this call may be reused afterwards.
+     * This is called by the platform at the frame boundary of the main loop when no jobs are running.
+     */
+    public static void nextFrame() {
+        frame++;
+    }
+
+    /**
+     * Get a temporary vector set to zero.
+     * @return the vector
+     */
+    public Vector3f vec3() {
+        check();
+        if (vectorCount == vectors.length) {
+            vectors = grow(vectors);
+            for (int i = vectorCount; i < vectors.length; i++)
+                vectors[i] = new Vector3f();
+        }
+        return vectors[vectorCount++].zero();
+    }
+
+    /**
+     * Get a temporary quaternion set to identity.
+     * @return the quaternion
+     */
+    public Quaternionf quat() {
+        check();
+        if (quaternionCount == quaternions.length) {
+            quaternions = grow(quaternions);
+            for (int i = quaternionCount; i < quaternions.length; i++)
+                quaternions[i] = new Quaternionf();
+        }
+        return quaternions[quaternionCount++].identity();
+    }
+
+    /**
+     * Get a temporary 3x3 matrix set to identity.
+     * @return the matrix
+     */
+    public Matrix3f mat3() {
+        check();
+        if (matrix3Count == matrices3.length) {
+            matrices3 = grow(matrices3);
+            for (int i = matrix3Count; i < matrices3.length; i++)
+                matrices3[i] = new Matrix3f();
+        }
+        return matrices3[matrix3Count++].identity();
+    }
+
+    /**
+     * Get a temporary 4x4 matrix set to identity.
+     * @return the matrix
+     */
+    public Matrix4f mat4() {
+        check();
+        if (matrix4Count == matrices4.length) {
+            matrices4 = grow(matrices4);
+            for (int i = matrix4Count; i < matrices4.length; i++)
+                matrices4[i] = new Matrix4f();
+        }
+        return matrices4[matrix4Count++].identity();
+    }
+
+    /**
+     * Get a temporary off-heap float buffer, the position is zero and the limit is the requested size.
+     * The contents of the buffer are undefined.
+     * @param size the number of floats needed
+     * @return the float buffer
+     */
+    public FloatBuffer floats(int size) {
+        check();
+        if (floatBufferCount == floatBuffers.length)
+            floatBuffers = grow(floatBuffers);
+
+        FloatBuffer buffer = floatBuffers[floatBufferCount];
+        if (buffer == null || buffer.capacity() < size) {
+            buffer = BufferUtils.createEmptyFloatBuffer(Math.max(size, MIN_SCRATCH_SIZE));
+            floatBuffers[floatBufferCount] = buffer;
+        }
+        floatBufferCount++;
+        buffer.clear().limit(size);
+        return buffer;
+    }
+
+    /**
+     * Get a temporary off-heap byte buffer in native byte order, the position is zero and the limit is the requested size.
+     * The contents of the buffer are undefined.
+     * @param size the number of bytes needed
+     * @return the byte buffer
+     */
+    public ByteBuffer bytes(int size) {
+        check();
+        if (byteBufferCount == byteBuffers.length)
+            byteBuffers = grow(byteBuffers);
+
+        ByteBuffer buffer = byteBuffers[byteBufferCount];
+        if (buffer == null || buffer.capacity() < size) {
+            buffer = BufferUtils.createEmptyByteBuffer(Math.max(size, MIN_SCRATCH_SIZE));
+            byteBuffers[byteBufferCount] = buffer;
+        }
+        byteBufferCount++;
+        buffer.clear().limit(size);
+        return buffer;
+    }
+
+    /**
+     * Get the number of objects and buffers handed out by this arena in the current frame.
+     * @return the number of used objects
+     */
+    public int size() {
+        check();
+        return vectorCount + quaternionCount + matrix3Count + matrix4Count + floatBufferCount + byteBufferCount;
+    }
+
+    /**
+     * Get the largest number of objects and buffers that this arena has handed out in one frame.
+     * @return the high water mark
+     */
+    public int getHighWaterMark() {
+        return Math.max(highWaterMark, size());
+    }
+
+    /**
+     * Reset the arena if a new frame has started.
+     */
+    private void check() {
+        int current = frame;
+        if (arenaFrame != current) {
+            arenaFrame = current;
+            highWaterMark = Math.max(highWaterMark,
+                    vectorCount + quaternionCount + matrix3Count + matrix4Count + floatBufferCount + byteBufferCount);
+            vectorCount = 0;
+            quaternionCount = 0;
+            matrix3Count = 0;
+            matrix4Count = 0;
+            floatBufferCount = 0;
+            byteBufferCount = 0;
+        }
+    }
+
+    private static <T> T[] grow(T[] array) {
+        return Arrays.copyOf(array, Math.max(INITIAL_CAPACITY, array.length * 2));
+    }
+}
@@ -0,0 +1,69 @@
+package jx3d.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FixedTimestepTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void testAccumulator() {
+        FixedTimestep timestep = new FixedTimestep(100, 5);
+        assertEquals(10 * MS, timestep.getStepNanos());
+        assertEquals(0.01f, timestep.getStep(), 1e-6f);
+
+        assertEquals(0, timestep.advance(4 * MS));
+        assertEquals(0.4f, timestep.getAlpha(), 1e-6f);
+        assertEquals(1, timestep.advance(7 * MS));
+        assertEquals(0.1f, timestep.getAlpha(), 1e-6f);
+        assertEquals(2, timestep.advance(25 * MS));
+        assertEquals(0.6f, timestep.getAlpha(), 1e-6f);
+        assertEquals(3, timestep.getSteps());
+    }
+
+    @Test
+    public void testDeterministicSteps() {
+        FixedTimestep fast = new FixedTimestep(60, 5);
+        FixedTimestep slow = new FixedTimestep(60, 5);
+        long fastSteps = 0, slowSteps = 0;
+        for (int i = 0; i < 144; i++) {
+            fastSteps += fast.advance(1_000_000_000L / 144);
+        }
+        for (int i = 0; i < 30; i++) {
+            slowSteps += slow.advance(1_000_000_000L / 30);
+        }
+        assertEquals("Simulation speed does not depend on the frame rate", 60, fastSteps, 1);
+        assertEquals(60, slowSteps);
+    }
+
+    @Test
+    public void testMaxSteps() {
+        FixedTimestep timestep = new FixedTimestep(100, 4);
+        assertEquals(4, timestep.advance(1000 * MS + 5 * MS));
+        assertEquals("The time that could not be caught up is dropped", 960 * MS, timestep.getDroppedNanos());
+        assertEquals(0.5f, timestep.getAlpha(), 1e-6f);
+        assertEquals(0, timestep.advance(0));
+
+        timestep.reset();
+        assertEquals(0, timestep.getAlpha(), 0);
+    }
+
+    @Test
+    public void testFramePacer() {
+        FramePacer pacer = new FramePacer(200);
+        assertEquals(5 * MS, pacer.getFrameNanos());
+
+        long start = System.nanoTime();
+        pacer.sync();
+        for (int i = 0; i < 20; i++) {
+            pacer.sync();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertTrue("Frames are paced to the target frame rate: " + elapsed, elapsed >= 100 * MS - MS);
+
+        pacer.setFrameRate(Module.DEFAULT);
+        assertEquals(0, pacer.sync());
+    }
+}
@@ -0,0 +1,100 @@
+package jx3d.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameProfilerTest {
+
+    @Test
+    public void testDisabled() {
+        FrameProfiler profiler = new FrameProfiler(8);
+        profiler.beginFrame();
+        profiler.record(FrameProfiler.SWAP_BUFFERS);
+        profiler.record(new TestLayer());
+        profiler.endFrame();
+        assertFalse(profiler.isEnabled());
+        assertEquals(0, profiler.getFrameCount());
+        assertEquals("Layers are not tracked while disabled", FrameProfiler.LAYER_UPDATE + 1, profiler.getStageCount());
+    }
+
+    @Test
+    public void testStages() {
+        FrameProfiler profiler = new FrameProfiler(8);
+        profiler.setEnabled(true);
+        TestLayer layer = new TestLayer();
+        for (int i = 0; i < 20; i++) {
+            profiler.beginFrame();
+            busyWait(100_000);
+            profiler.record(FrameProfiler.LISTENER_UPDATE);
+            busyWait(i < 10 ? 500_000 : 1_000_000);
+            profiler.record(layer);
+            profiler.endFrame();
+        }
+
+        int stage = profiler.getStage(layer);
+        assertEquals(FrameProfiler.LAYER_UPDATE + 2, stage);
+        assertEquals("Layer(TestLayer).onRender", profiler.getStageName(stage));
+        assertEquals(FrameProfiler.LAYER_UPDATE + 1, profiler.getUpdateStage(layer));
+        assertEquals("Layer(TestLayer).onUpdate", profiler.getStageName(profiler.getUpdateStage(layer)));
+        assertEquals(20, profiler.getFrameCount());
+        assertEquals(8, profiler.size());
+
+        assertTrue(profiler.getTime(FrameProfiler.LISTENER_UPDATE, 0) >= 100_000);
+        assertTrue("Only the recent frames are kept", profiler.getPercentile(stage, 0) >= 1_000_000);
+        assertTrue(profiler.getTime(FrameProfiler.FRAME, 0) >= profiler.getTime(stage, 0));
+        assertTrue(profiler.getPercentile(FrameProfiler.FRAME, 50) <= profiler.getPercentile(FrameProfiler.FRAME, 99));
+        assertEquals(0, profiler.getTime(FrameProfiler.SWAP_BUFFERS, 0));
+
+        try {
+            profiler.getTime(FrameProfiler.FRAME, 8);
+            fail("Frames outside the ring buffer are not recorded");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testRemoveLayer() {
+        FrameProfiler profiler = new FrameProfiler(8);
+        profiler.setEnabled(true);
+        for (int i = 0; i < 100; i++) {
+            TestLayer layer = new TestLayer();
+            profiler.beginFrame();
+            profiler.record(layer);
+            profiler.endFrame();
+            assertTrue(profiler.remove(layer));
+            assertFalse(profiler.remove(layer));
+            assertEquals(-1, profiler.getStage(layer));
+        }
+        assertEquals("Stages of removed layers are reused", FrameProfiler.LAYER_UPDATE + 3, profiler.getStageCount());
+        assertNull(profiler.getStageName(FrameProfiler.LAYER_UPDATE + 1));
+        assertNull(profiler.getStageName(FrameProfiler.LAYER_UPDATE + 2));
+        assertEquals("Removed stages are cleared", 0, profiler.getPercentile(FrameProfiler.LAYER_UPDATE + 2, 100));
+    }
+
+    @Test
+    public void testSpikes() {
+        FrameProfiler profiler = new FrameProfiler(64);
+        profiler.setEnabled(true);
+        boolean[] spike = new boolean[1];
+        profiler.setSpikeListener((p, frame, nanos) -> spike[0] |= frame == 30 && nanos >= 20_000_000);
+        for (int i = 0; i < 40; i++) {
+            profiler.beginFrame();
+            busyWait(i == 30 ? 20_000_000 : 500_000);
+            profiler.endFrame();
+        }
+        assertTrue(profiler.getSpikeCount() >= 1);
+        assertTrue("The long frame is detected as a spike", spike[0]);
+    }
+
+    private static void busyWait(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+
+    static class TestLayer extends Layer {
+    }
+}
@@ -0,0 +1,95 @@
+package jx3d.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class JobSystemTest {
+
+    @Test
+    public void testDependencies() {
+        JobSystem jobs = new JobSystem(4);
+        StringBuffer order = new StringBuffer();
+        Job a = jobs.submit(() -> {
+            sleep(20);
+            order.append('a');
+        });
+        Job b = jobs.submit(() -> order.append('b'), a);
+        Job c = jobs.submit(() -> order.append('c'));
+        Job d = jobs.submit(() -> order.append('d'), b, c);
+        jobs.sync();
+
+        assertTrue(a.isDone() && b.isDone() && c.isDone() && d.isDone());
+        String result = order.toString();
+        assertEquals(4, result.length());
+        assertTrue("Jobs run after their dependencies", result.indexOf('a') < result.indexOf('b'));
+        assertTrue(result.indexOf('b') < result.indexOf('d'));
+        assertTrue(result.indexOf('c') < result.indexOf('d'));
+        jobs.dispose();
+    }
+
+    @Test
+    public void testParallelFor() {
+        JobSystem jobs = new JobSystem(4);
+        long[] values = new long[10_000];
+        AtomicInteger ranges = new AtomicInteger();
+        jobs.parallelFor(0, values.length, 100, (int start, int end) -> {
+            assertTrue(end - start <= 100);
+            ranges.incrementAndGet();
+            for (int i = start; i < end; i++) {
+                values[i] = i * 2L;
+            }
+        });
+        jobs.sync();
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i * 2L, values[i]);
+        }
+        assertTrue(ranges.get() >= 100);
+
+        List<Integer> items = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            items.add(i);
+        }
+        AtomicLong sum = new AtomicLong();
+        jobs.parallelFor(items, 16, (Integer item) -> sum.addAndGet(item));
+        jobs.sync();
+        assertEquals(500500, sum.get());
+        jobs.dispose();
+    }
+
+    @Test
+    public void testFailure() {
+        JobSystem jobs = new JobSystem(2);
+        Job failed = jobs.submit(() -> {
+            throw new IllegalStateException("failed");
+        });
+        AtomicInteger runs = new AtomicInteger();
+        Job dependent = jobs.submit(runs::incrementAndGet, failed);
+        try {
+            jobs.sync();
+            fail("The failure is rethrown by sync");
+        } catch (IllegalStateException e) {
+            assertEquals("failed", e.getMessage());
+        }
+        assertTrue(failed.isFailed());
+        assertTrue("Jobs do not run when a dependency fails", dependent.isFailed());
+        assertEquals(0, runs.get());
+
+        jobs.sync();
+        jobs.dispose();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package jx3d.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class LayerSchedulerTest {
+
+    @Test
+    public void testUndeclared() {
+        LayerStack stack = new LayerStack();
+        List<String> order = new ArrayList<>();
+        stack.pushLayer(new TestLayer("a", order));
+        stack.pushLayer(new TestLayer("b", order));
+        stack.pushOverlay(new TestLayer("c", order));
+
+        LayerScheduler scheduler = new LayerScheduler(stack);
+        assertFalse(scheduler.isParallel());
+        scheduler.update(null, 0.0f);
+        assertEquals(List.of("c", "b", "a"), trim(order));
+    }
+
+    @Test
+    public void testDependencies() {
+        LayerStack stack = new LayerStack();
+        TestLayer physics = new TestLayer("physics", null);
+        physics.writes("world");
+        TestLayer audio = new TestLayer("audio", null);
+        audio.writes("audio");
+        TestLayer animation = new TestLayer("animation", null);
+        animation.reads("world");
+        animation.writes("skeletons");
+        TestLayer camera = new TestLayer("camera", null);
+        camera.reads("world", "skeletons");
+        stack.pushLayer(camera);
+        stack.pushLayer(animation);
+        stack.pushLayer(audio);
+        stack.pushLayer(physics);
+
+        LayerScheduler scheduler = new LayerScheduler(stack);
+        assertTrue(scheduler.isParallel());
+        assertArrayEquals(new Layer[] {animation}, scheduler.getDependencies(camera));
+        assertArrayEquals(new Layer[0], scheduler.getDependencies(audio));
+        assertArrayEquals(new Layer[] {physics}, scheduler.getDependencies(animation));
+        assertArrayEquals(new Layer[0], scheduler.getDependencies(physics));
+
+        TestLayer undeclared = new TestLayer("undeclared", null);
+        stack.pushOverlay(undeclared);
+        assertArrayEquals(new Layer[] {animation}, scheduler.getDependencies(camera));
+        assertArrayEquals(new Layer[] {undeclared}, scheduler.getDependencies(physics));
+        assertArrayEquals(new Layer[] {undeclared}, scheduler.getDependencies(audio));
+    }
+
+    @Test
+    public void testConcurrent() {
+        JobSystem jobs = new JobSystem(2);
+        try {
+            CyclicBarrier barrier = new CyclicBarrier(2);
+            LayerStack stack = new LayerStack();
+            for (int i = 0; i < 2; i++) {
+                TestLayer layer = new TestLayer("layer" + i, null) {
+                    @Override
+                    public void onUpdate() {
+                        try {
+                            barrier.await(5, TimeUnit.SECONDS);
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                };
+                layer.writes(i);
+                stack.pushLayer(layer);
+            }
+
+            new LayerScheduler(stack).update(jobs, 0.5f);
+        } finally {
+            jobs.dispose();
+        }
+    }
+
+    @Test
+    public void testDeterministic() {
+        JobSystem jobs = new JobSystem(4);
+        try {
+            List<String> order = Collections.synchronizedList(new ArrayList<>());
+            LayerStack stack = new LayerStack();
+            for (int i = 0; i < 8; i++) {
+                TestLayer layer = new TestLayer(Integer.toString(i), order);
+                layer.writes(i % 2 == 0 ? "even" : "odd");
+                stack.pushLayer(layer);
+            }
+
+            LayerScheduler scheduler = new LayerScheduler(stack);
+            for (int frame = 0; frame < 50; frame++) {
+                order.clear();
+                scheduler.update(jobs, 0.0f);
+                List<String> even = new ArrayList<>(), odd = new ArrayList<>();
+                for (String name : order) {
+                    (Integer.parseInt(name.substring(0, 1)) % 2 == 0 ? even : odd).add(name);
+                }
+                assertEquals(8, order.size());
+                assertEquals(List.of("6", "4", "2", "0"), trim(even));
+                assertEquals(List.of("7", "5", "3", "1"), trim(odd));
+            }
+        } finally {
+            jobs.dispose();
+        }
+    }
+
+    @Test
+    public void testFailure() {
+        JobSystem jobs = new JobSystem(2);
+        try {
+            LayerStack stack = new LayerStack();
+            TestLayer failing = new TestLayer("failing", null) {
+                @Override
+                public void onUpdate() {
+                    throw new IllegalStateException("update failed");
+                }
+            };
+            failing.writes("a");
+            TestLayer other = new TestLayer("other", null);
+            other.writes("b");
+            stack.pushLayer(failing);
+            stack.pushLayer(other);
+
+            try {
+                new LayerScheduler(stack).update(jobs, 0.0f);
+                fail();
+            } catch (IllegalStateException e) {
+                assertEquals("update failed", e.getMessage());
+            }
+        } finally {
+            jobs.dispose();
+        }
+    }
+
+    @Test
+    public void testProfiledUpdates() {
+        JobSystem jobs = new JobSystem(2);
+        try {
+            for (boolean parallel : new boolean[] {false, true}) {
+                LayerStack stack = new LayerStack();
+                TestLayer[] layers = new TestLayer[2];
+                for (int i = 0; i < layers.length; i++) {
+                    long nanos = (i + 1) * 1_000_000L;
+                    layers[i] = new TestLayer("layer" + i, null) {
+                        @Override
+                        public void onUpdate() {
+                            long end = System.nanoTime() + nanos;
+                            while (System.nanoTime() < end) {
+                                Thread.onSpinWait();
+                            }
+                        }
+                    };
+                    if (parallel)
+                        layers[i].writes(i);
+                    stack.pushLayer(layers[i]);
+                }
+
+                LayerScheduler scheduler = new LayerScheduler(stack);
+                assertEquals(parallel, scheduler.isParallel());
+                FrameProfiler profiler = new FrameProfiler(4);
+                profiler.setEnabled(true);
+                profiler.beginFrame();
+                scheduler.update(jobs, 0.0f, profiler);
+                profiler.endFrame();
+
+                for (int i = 0; i < layers.length; i++) {
+                    int stage = profiler.getUpdateStage(layers[i]);
+                    assertNotEquals("Each layer update is recorded", -1, stage);
+                    assertTrue(profiler.getTime(stage, 0) >= (i + 1) * 1_000_000L);
+                }
+            }
+        } finally {
+            jobs.dispose();
+        }
+    }
+
+    private static List<String> trim(List<String> names) {
+        List<String> result = new ArrayList<>();
+        for (String name : names) {
+            result.add(name.substring(0, 1));
+        }
+        return result;
+    }
+
+    private static class TestLayer extends Layer {
+        private final List<String> order;
+
+        TestLayer(String name, List<String> order) {
+            super(name);
+            this.order = order;
+        }
+
+        @Override
+        public void onUpdate() {
+            if (order != null)
+                order.add(getName());
+        }
+    }
+}
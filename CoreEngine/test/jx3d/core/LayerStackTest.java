@@ -0,0 +1,98 @@
+package jx3d.core;
+
+import org.junit.Test;
+
+import java.util.ListIterator;
+
+import static org.junit.Assert.*;
+
+public class LayerStackTest {
+
+    private static String order(ListIterator<Layer> it) {
+        StringBuilder sb = new StringBuilder();
+        while (it.hasNext()) {
+            sb.append(it.next().getName().charAt(0));
+        }
+        return sb.toString();
+    }
+
+    private static LayerStack create() {
+        LayerStack stack = new LayerStack();
+        stack.pushLayer(new TestLayer("a"));
+        stack.pushOverlay(new TestLayer("X"));
+        stack.pushLayer(new TestLayer("b"));
+        stack.pushOverlay(new TestLayer("Y"));
+        stack.pushLayer(new TestLayer("c"));
+        return stack;
+    }
+
+    @Test
+    public void order() {
+        LayerStack stack = create();
+        assertEquals(5, stack.size());
+        assertEquals("YXcba", order(stack.begin()));
+        assertEquals("abcXY", order(stack.end()));
+
+        stack.popLayer();
+        stack.popOverlay();
+        assertEquals("Xba", order(stack.begin()));
+        assertEquals("abX", order(stack.end()));
+
+        stack.popOverlay();
+        try {
+            stack.popOverlay();
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            // expected, there are no overlays left
+        }
+        assertEquals("ba", order(stack.begin()));
+    }
+
+    @Test
+    public void popSpecific() {
+        LayerStack stack = new LayerStack();
+        Layer layer = new TestLayer("a");
+        Layer overlay = new TestLayer("X");
+        stack.pushLayer(layer);
+        stack.pushOverlay(overlay);
+
+        assertTrue(stack.popLayer(overlay));
+        assertFalse(stack.popLayer(overlay));
+        stack.pushLayer(new TestLayer("b"));
+        assertEquals("ba", order(stack.begin()));
+        assertTrue(stack.popLayer(layer));
+        stack.popLayer();
+        assertEquals(0, stack.size());
+    }
+
+    @Test
+    public void snapshot() {
+        LayerStack stack = create();
+        Layer[] snapshot = stack.snapshot();
+        assertSame(snapshot, stack.snapshot());
+
+        for (Layer layer : snapshot) {
+            if (layer.getName().startsWith("a"))
+                stack.pushLayer(new TestLayer("d"));
+        }
+        assertEquals(5, snapshot.length);
+        assertNotSame(snapshot, stack.snapshot());
+        assertEquals('d', stack.snapshot()[2].getName().charAt(0));
+
+        for (int i = 0; i < 20; i++) {
+            stack.pushOverlay(new TestLayer("Z"));
+        }
+        assertEquals(26, stack.snapshot().length);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void immutable() {
+        create().begin().remove();
+    }
+
+    private static class TestLayer extends Layer {
+        TestLayer(String name) {
+            super(name);
+        }
+    }
+}
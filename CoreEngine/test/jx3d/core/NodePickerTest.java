@@ -0,0 +1,75 @@
+package jx3d.core;
+
+import jx3d.graphics.PerspectiveCamera;
+import jx3d.io.event.EventType;
+import jx3d.io.event.MouseEvent;
+import jx3d.math.RayHits;
+import org.joml.AABBf;
+import org.joml.Vector3f;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NodePickerTest {
+
+    @Test
+    public void testDepthOrder() {
+        PerspectiveCamera camera = new PerspectiveCamera();
+        camera.setAspectRatio(1);
+        NodePicker picker = new NodePicker(camera);
+        StringBuilder order = new StringBuilder();
+
+        Box far = new Box("far", order, -20, false);
+        Box near = new Box("near", order, -5, false);
+        Box aside = new Box("aside", order, -5, false);
+        aside.getTransform().translate(new Vector3f(10, 0, 0));
+        picker.add(far);
+        picker.add(near);
+        picker.add(aside);
+        picker.add(new Box("unpickable", order, -10, false).unpickable());
+
+        RayHits<Node> hits = picker.pick(50, 50, 100, 100);
+        assertEquals(2, hits.size());
+        assertSame(near, hits.get(0));
+        assertSame(far, hits.get(1));
+
+        picker.dispatch(new MouseEvent(EventType.MousePressed, "press", 0, 0, 50, 50, 0, 0, 1), 100, 100);
+        assertEquals("Mouse events are routed nearest first", "near,far,", order.toString());
+
+        order.setLength(0);
+        near.handle = true;
+        picker.dispatch(new MouseEvent(EventType.MousePressed, "press", 0, 0, 50, 50, 0, 0, 1), 100, 100);
+        assertEquals("Routing stops when the event is handled", "near,", order.toString());
+
+        aside.getTransform().translate(new Vector3f(-10, 0, 0));
+        picker.invalidate();
+        assertEquals(3, picker.pick(50, 50, 100, 100).size());
+        assertEquals(0, picker.pick(0, 0, 100, 100).size());
+    }
+
+    static class Box extends Node {
+
+        private final StringBuilder order;
+        private boolean handle;
+
+        Box(String name, StringBuilder order, float z, boolean handle) {
+            this.order = order;
+            this.handle = handle;
+            setName(name);
+            setBounds(new AABBf(-1, -1, -1, 1, 1, 1));
+            getTransform().setPos(new Vector3f(0, 0, z));
+        }
+
+        Box unpickable() {
+            setBounds(null);
+            return this;
+        }
+
+        @Override
+        public void mousePressed(MouseEvent event) {
+            order.append(getName()).append(',');
+            if (handle)
+                event.markAsHandled();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package jx3d.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class StartupTest {
+
+    @Test
+    public void testOverlap() throws InterruptedException {
+        JobSystem jobs = new JobSystem(2);
+        try {
+            Startup startup = new Startup(jobs);
+            CountDownLatch windowCreated = new CountDownLatch(1);
+            Startup.Task<String> task = startup.submit("Decode", () -> {
+                try {
+                    assertTrue(windowCreated.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return "decoded";
+            });
+
+            long start = System.nanoTime();
+            windowCreated.countDown();
+            startup.record("Create window", start);
+            assertEquals("decoded", task.get());
+            assertTrue(task.isDone());
+
+            assertFalse(startup.isFinished());
+            assertEquals(-1, startup.getTimeToFirstFrame());
+            startup.finish();
+            assertTrue(startup.isFinished());
+            long timeToFirstFrame = startup.getTimeToFirstFrame();
+            assertTrue(timeToFirstFrame > 0);
+            startup.finish();
+            assertEquals(timeToFirstFrame, startup.getTimeToFirstFrame());
+
+            List<Startup.Phase> phases = startup.getPhases();
+            assertEquals(2, phases.size());
+            for (Startup.Phase phase : phases) {
+                if (phase.getName().equals("Decode")) {
+                    assertTrue(phase.getThread().startsWith("jx3d-worker-"));
+                } else {
+                    assertEquals(Thread.currentThread().getName(), phase.getThread());
+                }
+                assertTrue(phase.getStart() >= 0);
+                assertTrue(phase.getDuration() >= 0);
+            }
+            assertTrue(phases.get(0).getStart() <= phases.get(1).getStart());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            startup.report(new PrintStream(out));
+            String report = out.toString();
+            assertTrue(report.contains("Decode"));
+            assertTrue(report.contains("Create window"));
+            assertTrue(report.contains("Time to first frame"));
+        } finally {
+            jobs.dispose();
+        }
+    }
+
+    @Test
+    public void testFailure() {
+        JobSystem jobs = new JobSystem(1);
+        try {
+            Startup startup = new Startup(jobs);
+            Startup.Task<Object> task = startup.submit("Import", () -> {
+                throw new IllegalArgumentException("missing file");
+            });
+            try {
+                task.get();
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertEquals("missing file", e.getMessage());
+            }
+            assertEquals("Failed phases are recorded as well", 1, startup.getPhases().size());
+        } finally {
+            jobs.dispose();
+        }
+    }
+
+    @Test
+    public void testWithoutJobs() {
+        Startup startup = new Startup(null);
+        Startup.Task<Integer> task = startup.submit("Scan", () -> 42);
+        assertTrue(task.isDone());
+        assertEquals(42, (int) task.get());
+        assertEquals(Thread.currentThread().getName(), startup.getPhases().get(0).getThread());
+    }
+}
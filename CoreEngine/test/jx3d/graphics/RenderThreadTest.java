@@ -0,0 +1,118 @@
+package jx3d.graphics;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RenderThreadTest {
+
+    @Test
+    public void testCommandBuffer() {
+        CommandBuffer commands = new CommandBuffer(1);
+        StringBuilder order = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            int id = i;
+            commands.add(() -> order.append(id));
+        }
+        assertEquals(5, commands.size());
+        commands.execute();
+        assertEquals("Commands are executed in the order they were recorded", "01234", order.toString());
+
+        commands.clear();
+        assertTrue(commands.isEmpty());
+    }
+
+    @Test
+    public void testRenderThread() throws InterruptedException {
+        TestContext context = new TestContext();
+        context.makeCurrent();
+        AtomicInteger presented = new AtomicInteger();
+        RenderThread renderThread = new RenderThread(context, presented::incrementAndGet);
+        assertNotSame("The context is released by the update thread", Thread.currentThread(), context.owner);
+
+        StringBuffer executed = new StringBuffer();
+        for (int frame = 0; frame < 10; frame++) {
+            int id = frame;
+            CommandBuffer commands = renderThread.getCommands();
+            commands.add(() -> {
+                assertTrue(renderThread.isRenderThread());
+                assertSame("Commands are executed with the context current", Thread.currentThread(), context.owner);
+                executed.append(id);
+            });
+            CommandBuffer next = renderThread.submit();
+            assertNotSame("The next frame is recorded into the other buffer", commands, next);
+            assertTrue("The render thread is at most one frame behind", renderThread.getFrames() >= frame);
+        }
+        renderThread.finish();
+        assertEquals(10, renderThread.getFrames());
+        assertEquals(10, presented.get());
+        assertEquals("0123456789", executed.toString());
+
+        renderThread.dispose();
+        assertSame("The context is current on the update thread after dispose", Thread.currentThread(), context.owner);
+    }
+
+    @Test
+    public void testOverlap() throws InterruptedException {
+        TestContext context = new TestContext();
+        context.makeCurrent();
+        RenderThread renderThread = new RenderThread(context, () -> { });
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        renderThread.getCommands().add(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        renderThread.submit();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue("The next frame is recorded while the previous frame renders", renderThread.getCommands().isEmpty());
+        release.countDown();
+        renderThread.dispose();
+    }
+
+    @Test
+    public void testFailure() {
+        TestContext context = new TestContext();
+        context.makeCurrent();
+        RenderThread renderThread = new RenderThread(context, () -> { });
+        renderThread.getCommands().add(() -> {
+            throw new IllegalStateException("render failed");
+        });
+        try {
+            renderThread.submit();
+            renderThread.finish();
+            fail("The failure of the render thread is rethrown");
+        } catch (IllegalStateException e) {
+            assertEquals("render failed", e.getMessage());
+        }
+        renderThread.dispose();
+    }
+
+    static class TestContext extends Context {
+
+        private volatile Thread owner;
+
+        TestContext() {
+            super(RenderAPI.NONE);
+        }
+
+        @Override
+        public void makeCurrent() {
+            owner = Thread.currentThread();
+        }
+
+        @Override
+        public void releaseCurrent() {
+            if (owner == Thread.currentThread())
+                owner = null;
+        }
+    }
+}
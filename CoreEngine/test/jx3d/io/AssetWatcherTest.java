@@ -0,0 +1,192 @@
+package jx3d.io;
+
+import jx3d.graphics.Image;
+import jx3d.graphics.Mesh;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class AssetWatcherTest {
+
+    private File directory;
+    private AssetWatcher watcher;
+    private AtomicInteger wakeUps;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = java.nio.file.Files.createTempDirectory("jx3d-assets").toFile();
+        wakeUps = new AtomicInteger();
+        watcher = new AssetWatcher(new DirectoryFiles(directory), wakeUps::incrementAndGet);
+    }
+
+    @After
+    public void tearDown() {
+        watcher.dispose();
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testReload() throws Exception {
+        write("shader.glsl", "version 1");
+        write("other.glsl", "other");
+        AtomicInteger loads = new AtomicInteger();
+        AtomicReference<String> applied = new AtomicReference<>();
+
+        assertTrue(watcher.watch("shader.glsl", (String file) -> {
+            loads.incrementAndGet();
+            return new String(java.nio.file.Files.readAllBytes(new File(directory, file).toPath()), StandardCharsets.UTF_8);
+        }, applied::set));
+        assertFalse(watcher.watch("missing.glsl", (String file) -> file, applied::set));
+
+        write("other.glsl", "changed");
+        write("shader.glsl", "version 2");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (loads.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(loads.get() > 0);
+        assertNull("Reloaded assets are only applied in update", applied.get());
+
+        while (!"version 2".equals(applied.get()) && System.currentTimeMillis() < deadline) {
+            watcher.update();
+            Thread.sleep(5);
+        }
+        assertEquals("version 2", applied.get());
+        assertTrue("The main loop is woken up after a reload is queued", wakeUps.get() > 0);
+    }
+
+    @Test
+    public void testFailedLoadKeepsAsset() throws Exception {
+        write("texture.png", "data");
+        AtomicReference<String> applied = new AtomicReference<>("initial");
+        AtomicInteger loads = new AtomicInteger();
+        watcher.watch("texture.png", (String file) -> {
+            loads.incrementAndGet();
+            throw new IOException("corrupt image");
+        }, applied::set);
+
+        write("texture.png", "corrupt");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (loads.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        watcher.update();
+        assertTrue(loads.get() > 0);
+        assertEquals("initial", applied.get());
+        assertEquals(0, wakeUps.get());
+    }
+
+    private void write(String name, String text) throws IOException {
+        java.nio.file.Files.write(new File(directory, name).toPath(), text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Files resolved in a single directory.
+     */
+    private static class DirectoryFiles implements Files {
+        private final File directory;
+
+        DirectoryFiles(File directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        public File resolve(String file) {
+            File result = new File(directory, file);
+            return result.exists() ? result : null;
+        }
+
+        @Override
+        public InputStream createInput(String file) {
+            return local(file).toInputStream();
+        }
+
+        @Override
+        public OutputStream createOutput(String file) {
+            return local(file).toOutputStream();
+        }
+
+        @Override
+        public FileHandle local(String file) {
+            return new FileHandle(new File(directory, file));
+        }
+
+        @Override
+        public FileHandle external(String file) {
+            return local(file);
+        }
+
+        @Override
+        public byte[] loadBytes(String file) {
+            return IOUtils.loadBytes(createInput(file));
+        }
+
+        @Override
+        public boolean saveBytes(String file, byte[] bytes) {
+            return IOUtils.saveBytes(createOutput(file), bytes);
+        }
+
+        @Override
+        public String loadText(String file) {
+            return IOUtils.loadText(createInput(file));
+        }
+
+        @Override
+        public boolean saveText(String file, String text) {
+            return IOUtils.saveText(createOutput(file), text);
+        }
+
+        @Override
+        public String[] loadStrings(String file) {
+            return IOUtils.loadStrings(createInput(file));
+        }
+
+        @Override
+        public boolean saveStrings(String file, String[] strings) {
+            return IOUtils.saveStrings(createOutput(file), strings);
+        }
+
+        @Override
+        public Image loadImage(String file) {
+            return null;
+        }
+
+        @Override
+        public boolean saveImage(String file, Image image) {
+            return false;
+        }
+
+        @Override
+        public Mesh loadShape(String file) {
+            return null;
+        }
+
+        @Override
+        public boolean saveShape(String file, Mesh shape) {
+            return false;
+        }
+
+        @Override
+        public File selectFolder(String title, String current, String filter) {
+            return null;
+        }
+
+        @Override
+        public File selectFile(String title, String current, int action, String filter) {
+            return null;
+        }
+    }
+}
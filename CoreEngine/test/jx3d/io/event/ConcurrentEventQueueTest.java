@@ -0,0 +1,77 @@
+package jx3d.io.event;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentEventQueueTest {
+
+    @Test
+    public void testCapacity() {
+        ConcurrentEventQueue queue = new ConcurrentEventQueue(3);
+        assertEquals("Capacity is rounded to power of two", 4, queue.capacity());
+
+        GenericEvent event = new GenericEvent("gen", "test");
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(event));
+        }
+        assertFalse("Full queue rejects events", queue.offer(event));
+        assertSame(event, queue.poll());
+        assertTrue(queue.offer(event));
+    }
+
+    @Test
+    public void testOrder() {
+        ConcurrentEventQueue queue = new ConcurrentEventQueue(8);
+        assertNull(queue.poll());
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 6; i++) {
+                queue.offer(new GenericEvent("gen" + i, "test"));
+            }
+            for (int i = 0; i < 6; i++) {
+                assertEquals("gen" + i, queue.poll().getName());
+            }
+            assertNull(queue.poll());
+        }
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        final int producers = 4;
+        final int perProducer = 10000;
+        ConcurrentEventQueue queue = new ConcurrentEventQueue(64);
+
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            GenericEvent event = new GenericEvent("producer" + p, "test");
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!queue.offer(event)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads[p].start();
+        }
+
+        int[] received = new int[producers];
+        int total = 0;
+        while (total < producers * perProducer) {
+            Event event = queue.poll();
+            if (event == null) {
+                Thread.yield();
+                continue;
+            }
+            received[event.getName().charAt(8) - '0']++;
+            total++;
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(queue.poll());
+        for (int count : received) {
+            assertEquals(perProducer, count);
+        }
+    }
+}
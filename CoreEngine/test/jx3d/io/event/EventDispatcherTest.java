@@ -1,6 +1,7 @@
 package jx3d.io.event;
 
 import jx3d.core.Module;
+import jx3d.core.Node;
 import org.junit.Test;
 
 import java.util.HashMap;
@@ -36,6 +37,25 @@ public class EventDispatcherTest {
         assertTrue(event.isHandled());
     }
 
+    @Test
+    public void testGenericEventIds() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        int[] received = new int[1000];
+        for (int i = 0; i < received.length; i++) {
+            int index = i;
+            dispatcher.addListener("message" + i, (GenericEvent e) -> received[index]++);
+        }
+
+        int id = GenericEvent.id("message500");
+        dispatcher.dispatch(new GenericEvent("message500", "test"));
+        dispatcher.dispatch(new GenericEvent().set(id, "test"));
+        dispatcher.dispatch(new GenericEvent("unknown", "test"));
+        assertEquals("message500", new GenericEvent().set(id, "test").getName());
+        assertEquals(2, received[500]);
+        assertEquals(0, received[499]);
+        assertEquals(1, dispatcher.getListeners("message999").size());
+    }
+
     @Test
     public void testTypeListeners() {
         EventDispatcher dispatcher = new EventDispatcher();
@@ -104,20 +124,258 @@ public class EventDispatcherTest {
         assertTrue(event.isHandled());
     }
 
+    @Test
+    public void testDispatchTables() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        int[] count = new int[1];
+        EventAdapter counter = new EventAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent event) {
+                count[0]++;
+            }
+        };
+
+        dispatcher.addListener(Module.MOUSE_EVENTS | Module.KEY_EVENTS, counter);
+        dispatcher.dispatch(generateMouseEvent(MouseMoved));
+        assertEquals("Listener with multiple categories is dispatched once", 1, count[0]);
+
+        dispatcher.addListener(MouseMoved, counter);
+        dispatcher.dispatch(generateMouseEvent(MouseMoved));
+        assertEquals("Listener added after dispatch is found", 3, count[0]);
+
+        dispatcher.dispatch(generateMouseEvent(MousePressed));
+        assertEquals("Unrelated event types are not dispatched", 3, count[0]);
+        assertEquals(1, dispatcher.getListeners(MouseMoved).size());
+        assertEquals(0, dispatcher.getListeners(MouseDragged).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnboundListener() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        dispatcher.addListener(KeyDown, new OrderListener(new StringBuilder(), 'a'));
+    }
+
     @Test
     public void testPrioritizedListeners() {
-        fail("Not implemented yet!");
+        EventDispatcher dispatcher = new EventDispatcher();
+        StringBuilder order = new StringBuilder();
+        dispatcher.addListener(MousePressed, new OrderListener(order, 'd'));
+        dispatcher.addListener(MousePressed, new OrderListener(order, 'b'), 5);
+        dispatcher.addListener(MousePressed, new OrderListener(order, 'c'), -5);
+        dispatcher.addListener(MousePressed, new OrderListener(order, 'a'), 10);
+        dispatcher.addListener(MousePressed, new OrderListener(order, 'e'));
+
+        dispatcher.dispatch(generateMouseEvent(MousePressed));
+        assertEquals("Listeners are dispatched in priority order", "abcde", order.toString());
+
+        OrderListener handler = new OrderListener(order, 'x');
+        dispatcher.addListener(MousePressed, handler, 7);
+        assertEquals(7, dispatcher.getListenerPriority(handler));
+
+        order.setLength(0);
+        handler.handle = true;
+        MouseEvent event = generateMouseEvent(MousePressed);
+        dispatcher.dispatch(event);
+        assertTrue(event.isHandled());
+        assertEquals("Dispatching stops once the event is handled", "ax", order.toString());
+    }
+
+    @Test
+    public void testMixedListenerPriorities() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        StringBuilder order = new StringBuilder();
+        dispatcher.addListener(MousePressed, new OrderListener(order, 'd'));
+        dispatcher.addListener(Module.MOUSE_EVENTS, new OrderListener(order, 'a'), 100);
+        dispatcher.addListener(MousePressed, new OrderListener(order, 'b'), 50);
+        dispatcher.addListener(Module.MOUSE_EVENTS | Module.KEY_EVENTS, new OrderListener(order, 'c'), -1);
+        dispatcher.addListener(Module.MOUSE_EVENTS, new OrderListener(order, 'e'));
+
+        dispatcher.dispatch(generateMouseEvent(MousePressed));
+        assertEquals("Type and categorical listeners are dispatched in priority order", "abcde", order.toString());
+
+        order.setLength(0);
+        OrderListener handler = new OrderListener(order, 'x');
+        handler.handle = true;
+        dispatcher.addListener(MousePressed, handler, 75);
+        dispatcher.addListener(Module.MOUSE_EVENTS, new OrderListener(order, 'y'), 200);
+        dispatcher.dispatch(generateMouseEvent(MousePressed));
+        assertEquals("Handling the event in a type listener stops the categorical listeners", "yax", order.toString());
+    }
+
+    @Test
+    public void testRemoveListener() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        StringBuilder order = new StringBuilder();
+        EventDispatcher.ListenerEntry a = dispatcher.addListener(MousePressed, new OrderListener(order, 'a'));
+        EventDispatcher.ListenerEntry b = dispatcher.addListener(Module.MOUSE_EVENTS, new OrderListener(order, 'b'), 1);
+        EventDispatcher.ListenerEntry c = dispatcher.addListener("remove", (GenericEvent e) -> order.append('c'));
+        dispatcher.addListener(MousePressed, new OrderListener(order, 'd'));
+
+        assertTrue(dispatcher.removeListener(a));
+        assertTrue(dispatcher.removeListener(b));
+        assertTrue(dispatcher.removeListener(c));
+        assertFalse("Listeners are only removed once", dispatcher.removeListener(a));
+        assertFalse(new EventDispatcher().removeListener(a));
+        assertTrue(a.isRemoved());
+
+        dispatcher.dispatch(generateMouseEvent(MousePressed));
+        dispatcher.dispatch(new GenericEvent("remove", "test"));
+        assertEquals("Removed listeners are not dispatched to", "d", order.toString());
+        assertEquals(1, dispatcher.getListeners(MousePressed).size());
+        assertEquals(0, dispatcher.getListeners(Module.MOUSE_EVENTS).size());
+        assertEquals(0, dispatcher.getListeners("remove").size());
+
+        for (int i = 0; i < 1000; i++) {
+            dispatcher.removeListener(dispatcher.addListener(KeyDown, new EventAdapter()));
+        }
+        assertEquals(0, dispatcher.getListeners(KeyDown).size());
+    }
+
+    @Test
+    public void testWeakListener() throws InterruptedException {
+        EventDispatcher dispatcher = new EventDispatcher();
+        StringBuilder order = new StringBuilder();
+        OrderListener strong = new OrderListener(order, 's');
+        EventDispatcher.ListenerEntry entry = dispatcher.addWeakListener(MousePressed, strong);
+        dispatcher.addWeakListener(MousePressed, new OrderListener(order, 'w'));
+
+        for (int i = 0; i < 10 && dispatcher.getListeners(MousePressed).size() > 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        dispatcher.dispatch(generateMouseEvent(MousePressed));
+        assertEquals("Collected weak listeners are not dispatched to", "s", order.toString());
+        assertSame(strong, entry.get());
+        assertEquals(1, dispatcher.getListeners(MousePressed).size());
+    }
+
+    @Test
+    public void testMetrics() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        StringBuilder order = new StringBuilder();
+        EventDispatcher.ListenerEntry entry = dispatcher.addListener(MousePressed, new OrderListener(order, 'a'));
+        DispatchMetrics metrics = new DispatchMetrics(1);
+        dispatcher.setMetrics(metrics);
+        dispatcher.addListener(Module.MOUSE_EVENTS, new OrderListener(order, 'b'));
+        dispatcher.addListener("metrics", (GenericEvent e) -> order.append('c'));
+
+        dispatcher.dispatch(generateMouseEvent(MousePressed));
+        dispatcher.dispatch(generateMouseEvent(MousePressed));
+        dispatcher.dispatch(new GenericEvent("metrics", "test"));
+        assertEquals("ababc", order.toString());
+        assertEquals(2, metrics.get(entry).getCount());
+        assertEquals("Sources above the capacity share a histogram", 3, metrics.get(DispatchMetrics.OTHER).getCount());
+        assertEquals(2, metrics.size());
+
+        for (int i = 0; i < 100; i++) {
+            dispatcher.removeListener(dispatcher.addListener(MousePressed, new OrderListener(order, 'x')));
+        }
+        assertEquals("Sources above the capacity are not tracked", 2, metrics.size());
+
+        LatencyHistogram histogram = metrics.get(entry);
+        dispatcher.setMetrics(null);
+        dispatcher.dispatch(generateMouseEvent(MousePressed));
+        assertEquals(2, histogram.getCount());
+        assertNull("Detached metrics do not reference the listeners", metrics.get(entry));
+        assertSame("Untracked histograms are still reported", histogram, metrics.get(entry.toString()));
+
+        DispatchMetrics tracked = new DispatchMetrics(1);
+        dispatcher.setMetrics(tracked);
+        dispatcher.removeListener(entry);
+        assertNull("Removed listeners are untracked", tracked.get(entry));
     }
 
     @Test
     public void testEventPropogation() {
-        fail("Not implemented yet!");
+        StringBuilder order = new StringBuilder();
+        PathNode root = new PathNode(order, 'r');
+        PathNode parent = new PathNode(order, 'p');
+        PathNode child = new PathNode(order, 'c');
+        root.add(parent);
+        parent.add(child);
+
+        child.dispatchEvent(generateMouseEvent(MousePressed));
+        assertEquals("Events are captured from the root and bubble back up", "Rc>Pc>c<P<R", order.toString());
+
+        order.setLength(0);
+        parent.handleCapture = true;
+        MouseEvent event = generateMouseEvent(MousePressed);
+        child.dispatchEvent(event);
+        assertTrue(event.isHandled());
+        assertEquals("Handling the event during capture stops the propagation", "Rc>Pc>", order.toString());
+
+        order.setLength(0);
+        parent.handleCapture = false;
+        child.handle = true;
+        child.dispatchEvent(generateMouseEvent(MousePressed));
+        assertEquals("Handling the event in the target stops the bubbling", "Rc>Pc>c", order.toString());
+
+        order.setLength(0);
+        child.handle = false;
+        PathNode top = new PathNode(order, 't');
+        top.add(root);
+        child.dispatchEvent(generateMouseEvent(MousePressed));
+        assertEquals("Adding the root to a node invalidates the cached paths", "Tc>Rc>Pc>c<P<R<T", order.toString());
+
+        order.setLength(0);
+        parent.dispatchEvent(generateMouseEvent(MousePressed));
+        assertEquals("Tp>Rp>p<R<T", order.toString());
     }
 
     public MouseEvent generateMouseEvent(EventType type) {
         return new MouseEvent(type, "gen", 0, 0, 0, 0, 0, 0, 0);
     }
 
+    class OrderListener extends MouseAdapter implements Listener {
+
+        private final StringBuilder order;
+        private final char id;
+        private boolean handle;
+
+        OrderListener(StringBuilder order, char id) {
+            this.order = order;
+            this.id = id;
+        }
+
+        @Override
+        public void mousePressed(MouseEvent event) {
+            order.append(id);
+            if (handle)
+                event.markAsHandled();
+        }
+    }
+
+    class PathNode extends Node {
+
+        private final StringBuilder order;
+        private final char id;
+        private boolean handle, handleCapture;
+
+        PathNode(StringBuilder order, char id) {
+            this.order = order;
+            this.id = id;
+        }
+
+        @Override
+        public void mousePressed(MouseEvent event) {
+            order.append(id);
+            if (handle)
+                event.markAsHandled();
+        }
+
+        @Override
+        protected void onCapture(Event event, Node target) {
+            order.append(Character.toUpperCase(id)).append(((PathNode) target).id).append('>');
+            if (handleCapture)
+                event.markAsHandled();
+        }
+
+        @Override
+        protected void onBubble(Event event, Node target) {
+            order.append('<').append(Character.toUpperCase(id));
+        }
+    }
+
     class TestListener extends EventAdapter {
 
         @Override
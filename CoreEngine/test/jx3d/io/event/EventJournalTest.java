@@ -0,0 +1,84 @@
+package jx3d.io.event;
+
+import jx3d.core.Module;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class EventJournalTest {
+
+    @Test
+    public void testRecordAndReplay() throws IOException {
+        ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        EventRecorder recorder = new EventRecorder(journal);
+        recorder.start(100);
+        recorder.record(new MouseEvent(EventType.MouseMoved, "move", 0, Module.MOD_SHIFT, 10, 20, 1, -2, 3), 100);
+        recorder.record(new MouseScrollEvent("scroll", 0, 10, 20, 0, 0, 0.5f, -1, 3), 101);
+        recorder.record(new KeyEvent("key", EventType.KeyDown, Module.KEY_A, 30, 0, 'a', true), 103);
+        recorder.record(new WindowEvent("resize", EventType.WindowResize, null, 5, 6, 800, 600, false, true), 103);
+        recorder.record(new GenericEvent("hit", "player").put("damage", 12.5f).put("target", "enemy"), 104);
+        recorder.close();
+        assertEquals(5, recorder.getEventCount());
+
+        ArrayList<String> replayed = new ArrayList<>();
+        EventReplayer replayer = new EventReplayer(new ByteArrayInputStream(journal.toByteArray()), null, false);
+        replayer.start(0);
+        for (int frame = 0; !replayer.isFinished(); frame++) {
+            int index = frame;
+            replayer.replay((Event e) -> replayed.add(index + ":" + e.getName()), frame);
+        }
+        assertEquals("[0:move, 1:scroll, 3:key, 3:resize, 4:hit]", replayed.toString());
+        assertEquals(5, replayer.getEventCount());
+    }
+
+    @Test
+    public void testReplayedEvents() throws IOException {
+        ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        EventRecorder recorder = new EventRecorder(journal);
+        recorder.record(new MouseEvent(EventType.MouseDragged, "drag", 1, Module.MOD_SHIFT, 10, 20, 1, -2, 3), 0);
+        recorder.record(new KeyEvent("key", EventType.KeyUp, Module.KEY_A, 30, 0, 'a', true), 0);
+        recorder.record(new GenericEvent("hit", "player").put("damage", 12.5f).put("target", "enemy")
+                .put("ammo", 30).put("critical", true), 0);
+        recorder.close();
+
+        ArrayList<Event> events = new ArrayList<>();
+        EventReplayer replayer = new EventReplayer(new ByteArrayInputStream(journal.toByteArray()), null, false);
+        replayer.replay((Event e) -> {
+            e.retain();
+            events.add(e);
+        }, 0);
+        assertTrue(replayer.isFinished());
+
+        MouseEvent mouse = (MouseEvent) events.get(0);
+        assertEquals(EventType.MouseDragged, mouse.getType());
+        assertEquals(1, mouse.getButton());
+        assertTrue(mouse.isShiftDown());
+        assertEquals(20, mouse.getY(), 0);
+        assertEquals(-2, mouse.getDeltaY(), 0);
+        assertEquals(3, mouse.getClickCount());
+
+        KeyEvent key = (KeyEvent) events.get(1);
+        assertEquals(EventType.KeyUp, key.getType());
+        assertEquals(Module.KEY_A, key.getKey());
+        assertEquals('a', key.getKeyChar());
+        assertTrue(key.isRepeated());
+
+        GenericEvent generic = (GenericEvent) events.get(2);
+        assertEquals("hit", generic.getName());
+        assertEquals("player", generic.getSubject());
+        assertEquals(12.5f, generic.getFloat("damage"), 0);
+        assertEquals("enemy", generic.getString("target"));
+        assertEquals(30, generic.getInt("ammo"));
+        assertTrue(generic.getBoolean("critical"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidJournal() throws IOException {
+        new EventReplayer(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6}), null, false);
+    }
+}
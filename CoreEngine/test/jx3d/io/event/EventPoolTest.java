@@ -0,0 +1,53 @@
+package jx3d.io.event;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EventPoolTest {
+
+    @Test
+    public void testReuse() {
+        EventPool<MouseEvent> pool = new EventPool<>(MouseEvent::new);
+        MouseEvent event = pool.obtain();
+        assertTrue(event.isPooled());
+        event.markAsHandled();
+        event.release();
+        assertEquals(1, pool.getFree());
+
+        MouseEvent reused = pool.obtain();
+        assertSame("Released event is reused", event, reused);
+        assertFalse("Reused event is not handled", reused.isHandled());
+        assertEquals(0, pool.getFree());
+    }
+
+    @Test
+    public void testRetain() {
+        EventPool<KeyEvent> pool = new EventPool<>(KeyEvent::new);
+        KeyEvent event = pool.obtain();
+        event.retain();
+        event.release();
+        assertEquals("Retained event is not returned", 0, pool.getFree());
+        assertNotSame(event, pool.obtain());
+
+        event.release();
+        assertEquals(1, pool.getFree());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDoubleRelease() {
+        EventPool<WindowEvent> pool = new EventPool<>(WindowEvent::new);
+        WindowEvent event = pool.obtain();
+        event.release();
+        event.release();
+    }
+
+    @Test
+    public void testNotPooled() {
+        MouseEvent event = new MouseEvent(EventType.MouseMoved, "gen", 0, 0, 0, 0, 0, 0, 0);
+        assertFalse(event.isPooled());
+        event.retain();
+        event.release();
+        event.release();
+    }
+}
@@ -0,0 +1,69 @@
+package jx3d.io.event;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+import static jx3d.io.event.EventType.*;
+
+public class EventQueueTest {
+
+    @Test
+    public void testMouseCoalescing() {
+        EventQueue queue = new EventQueue();
+        queue.add(new MouseEvent(MouseMoved, "gen", 0, 0, 1, 1, 1, 1, 0));
+        queue.add(new MouseEvent(MouseMoved, "gen", 0, 0, 3, 4, 2, 3, 0));
+        queue.add(new MouseEvent(MouseDragged, "gen", 1, 0, 5, 5, 2, 1, 0));
+        queue.add(new MouseEvent(MouseDragged, "gen", 1, 0, 6, 7, 1, 2, 0));
+        assertEquals(2, queue.size());
+
+        ArrayList<Event> events = new ArrayList<>();
+        queue.drain(events::add);
+        assertTrue(queue.isEmpty());
+
+        MouseEvent moved = (MouseEvent) events.get(0);
+        assertEquals(MouseMoved, moved.getType());
+        assertEquals(3, moved.getX(), 0);
+        assertEquals(4, moved.getY(), 0);
+        assertEquals("Deltas are accumulated", 3, moved.getDeltaX(), 0);
+        assertEquals("Deltas are accumulated", 4, moved.getDeltaY(), 0);
+
+        MouseEvent dragged = (MouseEvent) events.get(1);
+        assertEquals(MouseDragged, dragged.getType());
+        assertEquals(3, dragged.getDeltaX(), 0);
+        assertEquals(3, dragged.getDeltaY(), 0);
+    }
+
+    @Test
+    public void testWindowCoalescing() {
+        EventQueue queue = new EventQueue();
+        queue.add(new WindowEvent("gen", WindowResize, null, 0, 0, 100, 100, false, false));
+        queue.add(new MouseEvent(MouseMoved, "gen", 0, 0, 1, 1, 1, 1, 0));
+        WindowEvent latest = new WindowEvent("gen", WindowResize, null, 0, 0, 200, 300, false, false);
+        queue.add(latest);
+        assertEquals(2, queue.size());
+
+        ArrayList<Event> events = new ArrayList<>();
+        queue.drain(events::add);
+        assertEquals(MouseMoved, events.get(0).getType());
+        assertSame("Only the latest resize is kept", latest, events.get(1));
+    }
+
+    @Test
+    public void testPooledEvents() {
+        EventPool<MouseEvent> pool = new EventPool<>(MouseEvent::new);
+        EventQueue queue = new EventQueue();
+        for (int i = 0; i < 4; i++) {
+            MouseEvent event = pool.obtain();
+            event.set(MouseMoved, "gen", 0, 0, i, i, 1, 1, 0);
+            queue.add(event);
+            event.release();
+        }
+        assertEquals("Merged events are returned to the pool", 1, pool.getFree());
+
+        queue.drain((Event event) -> assertEquals(4, ((MouseEvent) event).getDeltaX(), 0));
+        assertEquals("Queued events are released after dispatch", 2, pool.getFree());
+    }
+}
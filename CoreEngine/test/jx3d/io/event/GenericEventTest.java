@@ -0,0 +1,56 @@
+package jx3d.io.event;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GenericEventTest {
+
+    private static final int DAMAGE = GenericEvent.key("damage");
+    private static final int AMMO = GenericEvent.key("ammo");
+    private static final int TARGET = GenericEvent.key("target");
+
+    @Test
+    public void testArguments() {
+        GenericEvent event = new GenericEvent("hit", "player")
+                .put(DAMAGE, 12.5f)
+                .put(AMMO, 30)
+                .put(TARGET, "enemy")
+                .put("critical", true)
+                .put("time", 1.5);
+
+        assertEquals(5, event.getArgumentCount());
+        assertEquals(12.5f, event.getFloat(DAMAGE), 0);
+        assertEquals(12.5, event.getDouble("damage"), 0);
+        assertEquals(30, event.getInt(AMMO));
+        assertEquals(30L, event.getLong("ammo"));
+        assertEquals("enemy", event.getString(TARGET));
+        assertTrue(event.getBoolean("critical"));
+        assertEquals(1.5, event.getDouble("time"), 0);
+        assertEquals(30, event.getObject("ammo"));
+        assertNull(event.getObject("missing"));
+        assertFalse(event.has("missing"));
+
+        event.put(AMMO, 29);
+        assertEquals("Existing arguments are replaced", 5, event.getArgumentCount());
+        assertEquals(29, event.getInt(AMMO));
+    }
+
+    @Test
+    public void testPooledReset() {
+        EventPool<GenericEvent> pool = new EventPool<>(GenericEvent::new);
+        GenericEvent event = pool.obtain().set("hit", "player").put(TARGET, "enemy").put(AMMO, 1);
+        event.release();
+
+        GenericEvent reused = pool.obtain().set("tick", "world");
+        assertSame(event, reused);
+        assertEquals("tick", reused.getName());
+        assertEquals(0, reused.getArgumentCount());
+        assertFalse(reused.has(TARGET));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingArgument() {
+        new GenericEvent("hit", "player").getInt(AMMO);
+    }
+}
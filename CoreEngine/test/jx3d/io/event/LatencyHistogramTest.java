@@ -0,0 +1,33 @@
+package jx3d.io.event;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(99));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_500, histogram.getMean(), 0.001);
+        assertEquals(500_000, histogram.getPercentile(50), 500_000 * 0.125);
+        assertEquals(990_000, histogram.getPercentile(99), 990_000 * 0.125);
+        assertEquals(1_000_000, histogram.getPercentile(100));
+
+        histogram.record(3);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(3, histogram.getPercentile(0));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+}
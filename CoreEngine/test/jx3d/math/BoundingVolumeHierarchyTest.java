@@ -0,0 +1,56 @@
+package jx3d.math;
+
+import org.joml.AABBf;
+import org.joml.Vector3f;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BoundingVolumeHierarchyTest {
+
+    @Test
+    public void testRaycast() {
+        Random random = new Random(42);
+        ArrayList<AABBf> boxes = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            float x = random.nextFloat() * 100, y = random.nextFloat() * 100, z = random.nextFloat() * 100;
+            float size = 0.5f + random.nextFloat() * 3;
+            boxes.add(new AABBf(x, y, z, x + size, y + size, z + size));
+        }
+        BoundingVolumeHierarchy<AABBf> hierarchy = new BoundingVolumeHierarchy<>();
+        hierarchy.build(boxes, (AABBf item, AABBf dest) -> {
+            dest.setMin(item.minX, item.minY, item.minZ).setMax(item.maxX, item.maxY, item.maxZ);
+            return true;
+        });
+        assertEquals(2000, hierarchy.size());
+
+        RayHits<AABBf> hits = new RayHits<>();
+        for (int r = 0; r < 100; r++) {
+            Vector3f origin = new Vector3f(random.nextFloat() * 100, random.nextFloat() * 100, -10);
+            Vector3f direction = new Vector3f(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, 1);
+            hierarchy.raycast(origin, direction, Float.POSITIVE_INFINITY, hits);
+
+            int expected = 0;
+            for (AABBf box : boxes) {
+                if (box.testRay(origin.x, origin.y, origin.z, direction.x, direction.y, direction.z))
+                    expected++;
+            }
+            assertEquals("The hierarchy finds the same boxes as testing every box", expected, hits.size());
+            for (int i = 1; i < hits.size(); i++) {
+                assertTrue("Hits are sorted by distance", hits.getDistance(i - 1) <= hits.getDistance(i));
+            }
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        BoundingVolumeHierarchy<Object> hierarchy = new BoundingVolumeHierarchy<>();
+        hierarchy.build(new ArrayList<>(), (Object item, AABBf dest) -> false);
+        RayHits<Object> hits = new RayHits<>();
+        assertEquals(0, hierarchy.raycast(new Vector3f(), new Vector3f(0, 0, 1), 1, hits));
+        assertTrue(hits.isEmpty());
+    }
+}
@@ -0,0 +1,84 @@
+package jx3d.util;
+
+import jx3d.math.Transform;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.junit.Test;
+
+import java.nio.FloatBuffer;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class FrameArenaTest {
+
+    @Test
+    public void testReuse() {
+        FrameArena arena = FrameArena.get();
+        FrameArena.nextFrame();
+
+        Vector3f a = arena.vec3().set(1, 2, 3);
+        Vector3f b = arena.vec3();
+        assertNotSame(a, b);
+        assertEquals(new Vector3f(), b);
+        Matrix4f m = arena.mat4().translate(1, 0, 0);
+        assertEquals(3, arena.size());
+
+        FrameArena.nextFrame();
+        assertEquals(0, arena.size());
+        assertSame(a, arena.vec3());
+        assertEquals(new Vector3f(), a);
+        assertSame(m, arena.mat4());
+        assertEquals(new Matrix4f(), m);
+        assertTrue(arena.getHighWaterMark() >= 3);
+    }
+
+    @Test
+    public void testFloats() {
+        FrameArena arena = FrameArena.get();
+        FrameArena.nextFrame();
+
+        FloatBuffer buffer = arena.floats(16);
+        assertTrue(buffer.isDirect());
+        assertEquals(0, buffer.position());
+        assertEquals(16, buffer.limit());
+
+        Matrix4f m = new Matrix4f().translate(1, 2, 3).scale(2);
+        FloatBuffer expected = BufferUtils.toFloatBuffer(m);
+        assertEquals(expected, BufferUtils.toFloatBuffer(m, arena));
+
+        FrameArena.nextFrame();
+        assertSame(buffer, arena.floats(8));
+        assertEquals(8, buffer.limit());
+        assertNotSame(buffer, arena.floats(1000));
+    }
+
+    @Test
+    public void testPerThread() throws InterruptedException {
+        AtomicReference<FrameArena> other = new AtomicReference<>();
+        Thread thread = new Thread(() -> other.set(FrameArena.get()));
+        thread.start();
+        thread.join();
+        assertNotNull(other.get());
+        assertNotSame(FrameArena.get(), other.get());
+    }
+
+    @Test
+    public void testSteadyState() {
+        Transform transform = new Transform();
+        transform.setPos(new Vector3f(1, 2, 3));
+        transform.setOrigin(new Vector3f(1, 1, 1));
+        FrameArena arena = FrameArena.get();
+
+        Matrix4f expected = transform.getMapping();
+        for (int frame = 0; frame < 10; frame++) {
+            FrameArena.nextFrame();
+            for (int i = 0; i < 100; i++) {
+                assertEquals(expected, transform.getMapping(arena));
+                assertEquals(new Vector3f(1, 2, 3), transform.getPos(arena));
+                BufferUtils.toFloatBuffer(expected, arena);
+            }
+            assertEquals(300, arena.size());
+        }
+    }
+}
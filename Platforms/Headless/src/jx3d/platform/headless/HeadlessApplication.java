@@ -0,0 +1,200 @@
+package jx3d.platform.headless;
+
+import jx3d.core.*;
+import jx3d.graphics.CommandBuffer;
+import jx3d.graphics.Graphics;
+import jx3d.graphics.opengl.GLGraphics;
+import jx3d.io.Files;
+import jx3d.io.Input;
+import jx3d.io.event.ConcurrentEventQueue;
+import jx3d.io.event.EventQueue;
+import jx3d.util.FrameArena;
+
+/**
+ * Headless Application runs the application without a window or a GPU, e.g. in unit tests, benchmarks and on CI machines.
+ * The graphics are backed by the stub OpenGL implementations {@link HeadlessGL20} and {@link HeadlessGL30}, which track
+ * the objects and state but never render anything. The main loop is the same as on the desktop except that there are no
+ * buffers to swap or window events to poll. Frames can also be stepped one at a time, see {@link #step()}.
+ */
+public final class HeadlessApplication extends Application {
+
+    private final HeadlessWindow window;
+
+    private final Graphics graphics;
+    private final Files files;
+
+    /**
+     * The fixed timestep used to advance the simulation.
+     */
+    private final FixedTimestep timestep;
+
+    /**
+     * The frame pacer used to limit the frame rate.
+     */
+    private final FramePacer pacer;
+
+    /**
+     * The command buffer that the layers record their rendering commands into.
+     */
+    private final CommandBuffer commands = new CommandBuffer();
+
+    /**
+     * Whether to advance the simulation by the real time, see {@link HeadlessConfigurations#realTime}.
+     */
+    private final boolean realTime;
+
+    /**
+     * The number of frames to run, see {@link HeadlessConfigurations#maxFrames}.
+     */
+    private final long maxFrames;
+
+    /**
+     * The time of the previous frame, used when running in real time.
+     */
+    private long time;
+
+    /**
+     * Started flag is set when the application listener has been started.
+     */
+    private boolean started;
+
+    public HeadlessApplication(HeadlessConfigurations config, ApplicationListener listener) {
+        super(listener);
+
+        jobs = new JobSystem(config.workerThreads);
+        startup = new Startup(jobs);
+        files = new HeadlessFiles();
+        JX3D.files = files;
+
+        long start = System.nanoTime();
+        listener.onPreload(startup);
+        startup.record("Preload", start);
+
+        if (config.title == null) {
+            config.title = listener.getClass().getSimpleName();
+        }
+
+        if (config.coalesceEvents) {
+            eventQueue = new EventQueue();
+        }
+        postedEvents = new ConcurrentEventQueue(config.postedEventsCapacity);
+        timestep = new FixedTimestep(config.updateRate, config.maxUpdateSteps);
+        pacer = new FramePacer(config.targetFrameRate);
+        realTime = config.realTime;
+        maxFrames = config.maxFrames;
+
+        window = new HeadlessWindow(config.title, config.windowWidth, config.windowHeight);
+
+        start = System.nanoTime();
+        new HeadlessContext(config.gl30);
+        if (config.gl30) {
+            JX3D.gl30 = new HeadlessGL30();
+            JX3D.gl20 = JX3D.gl30;
+        } else {
+            JX3D.gl30 = null;
+            JX3D.gl20 = new HeadlessGL20();
+        }
+        graphics = new GLGraphics(window);
+        graphics.init();
+        startup.record("Create context", start);
+
+        JX3D.graphics = graphics;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!window.shouldClose() && (maxFrames < 0 || frame < maxFrames)) {
+                step();
+            }
+        } finally {
+            jobs.dispose();
+        }
+    }
+
+    /**
+     * Run a single frame, the application listener is started before the first frame.
+     */
+    public void step() {
+        if (!started) {
+            started = true;
+            long start = System.nanoTime();
+            listener.onStart();
+            startup.record("Start", start);
+            time = System.nanoTime();
+        }
+
+        FrameArena.nextFrame();
+        updateAssets(null);
+        profiler.beginFrame();
+        long now = System.nanoTime();
+        int steps = timestep.advance(realTime ? now - time : timestep.getStepNanos());
+        time = now;
+
+        float step = timestep.getStep();
+        for (int i = 0; i < steps; i++) {
+            listener.onFixedUpdate(step);
+            for (Layer layer : layerStack.snapshot()) {
+                layer.onFixedUpdate(step);
+            }
+        }
+        profiler.record(FrameProfiler.FIXED_UPDATE);
+
+        for (Layer layer : layerStack.snapshot()) {
+            layer.onSubmitJobs(jobs);
+        }
+        jobs.sync();
+        profiler.record(FrameProfiler.JOBS);
+
+        float alpha = timestep.getAlpha();
+        listener.onUpdate();
+        profiler.record(FrameProfiler.LISTENER_UPDATE);
+        scheduler.update(jobs, alpha, profiler);
+        profiler.record(FrameProfiler.LAYER_UPDATE);
+        for (Layer layer : layerStack.snapshot()) {
+            layer.onRender(commands);
+            profiler.record(layer);
+        }
+
+        commands.execute();
+        commands.clear();
+        profiler.record(FrameProfiler.SWAP_BUFFERS);
+        startup.finish();
+        processEvents();
+        nextFrame();
+        profiler.record(FrameProfiler.PROCESS_EVENTS);
+        pacer.sync();
+        profiler.record(FrameProfiler.SYNC);
+        profiler.endFrame();
+    }
+
+    /**
+     * Stop the application after the current frame.
+     */
+    public void exit() {
+        window.close();
+    }
+
+    /**
+     * Get the headless window of the application.
+     * @return the window
+     */
+    public HeadlessWindow getWindow() {
+        return window;
+    }
+
+    @Override
+    public Graphics getGraphics() {
+        return graphics;
+    }
+
+    @Override
+    public Files getFiles() {
+        return files;
+    }
+
+    @Override
+    public Input getInput() {
+        return window;
+    }
+}
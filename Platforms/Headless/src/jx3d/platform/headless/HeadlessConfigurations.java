@@ -0,0 +1,73 @@
+package jx3d.platform.headless;
+
+import jx3d.core.Application;
+import jx3d.core.Module;
+
+public class HeadlessConfigurations {
+
+    /**
+     * The title of the window.
+     * If set to null the application class name is used instead.
+     */
+    public String title = null;
+
+    /**
+     * The width of the window.
+     */
+    public int windowWidth = 640;
+
+    /**
+     * The height of the window.
+     */
+    public int windowHeight = 480;
+
+    /**
+     * Whether to use the stub OpenGL 3.3 implementation, otherwise the stub OpenGL 2.0 implementation is used.
+     */
+    public boolean gl30 = true;
+
+    /**
+     * Whether to advance the simulation by the real time that has passed between frames.
+     * If set to false every frame advances exactly one fixed update, so runs are deterministic.
+     */
+    public boolean realTime = false;
+
+    /**
+     * The number of frames to run before the application stops.
+     * If set to {@link Module#DEFAULT}, the application runs until the window is closed.
+     */
+    public long maxFrames = Module.DEFAULT;
+
+    /**
+     * The number of fixed updates per second, see {@link jx3d.core.Layer#onFixedUpdate(float)}.
+     */
+    public int updateRate = 60;
+
+    /**
+     * The maximum number of fixed updates in one frame.
+     */
+    public int maxUpdateSteps = 5;
+
+    /**
+     * The target number of frames per second.
+     * If set to {@link Module#DEFAULT}, frames run as fast as possible.
+     */
+    public int targetFrameRate = Module.DEFAULT;
+
+    /**
+     * Whether to coalesce mouse motion and window resize/move events and dispatch them once per frame.
+     */
+    public boolean coalesceEvents = false;
+
+    /**
+     * The maximum number of events that other threads can post to the application between two frames.
+     * @see jx3d.core.Application#postEvent(jx3d.io.event.Event)
+     */
+    public int postedEventsCapacity = Application.DEFAULT_POSTED_EVENTS_CAPACITY;
+
+    /**
+     * The number of worker threads of the job system, see {@link jx3d.core.JobSystem}.
+     * If set to {@link Module#DEFAULT}, one worker is used for each processor except the one running the main thread.
+     */
+    public int workerThreads = Module.DEFAULT;
+}
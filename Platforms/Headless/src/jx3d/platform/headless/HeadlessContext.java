@@ -0,0 +1,34 @@
+package jx3d.platform.headless;
+
+import jx3d.graphics.opengl.GLContext;
+
+/**
+ * Headless OpenGL context, reports the version of the stub OpenGL implementation in use.
+ * There is no native context, so making the context current has no effect.
+ *
+ * @see HeadlessGL20
+ * @see HeadlessGL30
+ */
+public class HeadlessContext extends GLContext {
+
+    /**
+     * Constructor.
+     *
+     * @param gl30 true if the context is OpenGL 3.3, otherwise the context is OpenGL 2.0
+     */
+    public HeadlessContext(boolean gl30) {
+        super(RenderAPI.OPENGL);
+
+        majorVersion = gl30 ? 3 : 2;
+        minorVersion = gl30 ? 3 : 0;
+        forwardCompat = false;
+    }
+
+    @Override
+    public void makeCurrent() {
+    }
+
+    @Override
+    public void releaseCurrent() {
+    }
+}
@@ -0,0 +1,161 @@
+package jx3d.platform.headless;
+
+import jx3d.core.Log;
+import jx3d.graphics.Image;
+import jx3d.graphics.Mesh;
+import jx3d.io.FileHandle;
+import jx3d.io.Files;
+import jx3d.io.IOUtils;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+
+/**
+ * Headless file system implementation, files are read from the class path, the local
+ * directory and external paths in that order. There is no user interface, so selecting
+ * files is not supported, and shapes can not be imported since there is no native model importer.
+ *
+ * @author Aleman778
+ * @since 1.0
+ */
+public class HeadlessFiles implements Files {
+
+    public static final String LOCAL_DIR = new File("").getAbsolutePath() + File.separator;
+    public static final String EXTERNAL_DIR = new File("").getPath() + File.separator;
+
+    @Override
+    public byte[] loadBytes(String file) {
+        return IOUtils.loadBytes(createInput(file));
+    }
+
+    @Override
+    public boolean saveBytes(String file, byte[] bytes) {
+        return IOUtils.saveBytes(createOutput(file), bytes);
+    }
+
+    @Override
+    public String loadText(String file) {
+        return IOUtils.loadText(createInput(file));
+    }
+
+    @Override
+    public boolean saveText(String file, String text) {
+        return IOUtils.saveText(createOutput(file), text);
+    }
+
+    @Override
+    public String[] loadStrings(String file) {
+        return IOUtils.loadStrings(createInput(file));
+    }
+
+    @Override
+    public boolean saveStrings(String file, String[] strings) {
+        return IOUtils.saveStrings(createOutput(file), strings);
+    }
+
+    @Override
+    public Image loadImage(String file) {
+        InputStream input = createInput(file);
+        return input != null ? IOUtils.loadImage(input) : null;
+    }
+
+    @Override
+    public boolean saveImage(String file, Image image) {
+        return false;
+    }
+
+    @Override
+    public Mesh loadShape(String file) {
+        Log.CORE.warning("Loading shapes is not supported by the headless platform: " + file);
+        return null;
+    }
+
+    @Override
+    public boolean saveShape(String file, Mesh shape) {
+        return false;
+    }
+
+    @Override
+    public File selectFolder(String title, String current, String filter) {
+        return null;
+    }
+
+    @Override
+    public File selectFile(String title, String current, int action, String filter) {
+        return null;
+    }
+
+    @Override
+    public InputStream createInput(String file) {
+        if (file == null || file.isEmpty())
+            return null;
+
+        //Project resource
+        InputStream input = getClass().getClassLoader().getResourceAsStream(file);
+
+        //Local directory
+        if (input == null)
+            input = local(file).toInputStream();
+
+        //External directory
+        if (input == null)
+            input = external(file).toInputStream();
+
+        return input;
+    }
+
+    @Override
+    public OutputStream createOutput(String file) {
+        if (file == null || file.isEmpty())
+            return null;
+
+        //Local directory
+        OutputStream output = local(file).toOutputStream();
+
+        //External directory
+        if (output == null)
+            output = external(file).toOutputStream();
+
+        return output;
+    }
+
+    @Override
+    public File resolve(String file) {
+        if (file == null || file.isEmpty())
+            return null;
+
+        //Project resource
+        URL url = getClass().getClassLoader().getResource(file);
+        if (url != null) {
+            if (!url.getProtocol().equals("file"))
+                return null;
+            try {
+                return new File(url.toURI());
+            } catch (URISyntaxException e) {
+                return null;
+            }
+        }
+
+        //Local directory
+        File result = new File(local(file).path());
+        if (result.exists())
+            return result;
+
+        //External directory
+        result = new File(external(file).path());
+        return result.exists() ? result : null;
+    }
+
+    @Override
+    public FileHandle local(String file) {
+        return new FileHandle(LOCAL_DIR + file);
+    }
+
+    @Override
+    public FileHandle external(String file) {
+        return new FileHandle(EXTERNAL_DIR + file);
+    }
+}
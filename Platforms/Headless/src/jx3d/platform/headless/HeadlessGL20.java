@@ -0,0 +1,1417 @@
+package jx3d.platform.headless;
+
+import jx3d.graphics.opengl.GL20;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.function.Supplier;
+
+/**
+ * Stub OpenGL 2.x implementation that issues no GPU calls. The names of the generated objects and the most common
+ * pipeline state e.g. bindings, enabled capabilities, viewport and clear values are tracked so that graphics code can run,
+ * and be verified, on machines without a GPU. Invalid calls record an error that is returned by {@link #getError()},
+ * in the same way as OpenGL. Shaders always compile and programs always link, uniform and attribute locations are
+ * assigned in the order they are first requested.
+ *
+ * @see HeadlessGL30
+ */
+public class HeadlessGL20 implements GL20 {
+
+    /**
+     * The maximum number of vertex attributes and texture units.
+     */
+    public static final int MAX_VERTEX_ATTRIBUTES = 16, MAX_TEXTURE_UNITS = 32;
+
+    /**
+     * The named objects of one kind e.g. the buffers, names are never reused.
+     */
+    static final class Names<T> {
+
+        private final HashMap<Integer, T> objects = new HashMap<>();
+        private int next = 1;
+
+        int create(T object) {
+            int name = next++;
+            objects.put(name, object);
+            return name;
+        }
+
+        T get(int name) {
+            return objects.get(name);
+        }
+
+        boolean contains(int name) {
+            return objects.containsKey(name);
+        }
+
+        boolean delete(int name) {
+            return objects.remove(name) != null;
+        }
+
+        int size() {
+            return objects.size();
+        }
+    }
+
+    static final class BufferObject {
+        int size, usage = STATIC_DRAW;
+        ByteBuffer mapped;
+    }
+
+    static final class ShaderObject {
+        int type;
+        String source;
+        boolean compiled;
+    }
+
+    static final class ProgramObject {
+        final HashSet<Integer> shaders = new HashSet<>();
+        final HashMap<String, Integer> uniforms = new HashMap<>();
+        final HashMap<String, Integer> attributes = new HashMap<>();
+        boolean linked, validated;
+    }
+
+    static final class TextureObject {
+        int target, width, height, depth;
+        final HashMap<Integer, Float> parameters = new HashMap<>();
+    }
+
+    final Names<BufferObject> buffers = new Names<>();
+    final Names<TextureObject> textures = new Names<>();
+    final Names<ShaderObject> shaders = new Names<>();
+    final Names<ProgramObject> programs = new Names<>();
+    final Names<Object> framebuffers = new Names<>();
+    final Names<Object> renderbuffers = new Names<>();
+
+    /**
+     * The buffer bound to each target.
+     */
+    final HashMap<Integer, Integer> bufferBindings = new HashMap<>();
+
+    /**
+     * The texture bound to each target of each texture unit.
+     */
+    private final HashMap<Integer, Integer>[] textureBindings = newTextureBindings();
+
+    private final HashSet<Integer> capabilities = new HashSet<>();
+    private final boolean[] vertexAttributes = new boolean[MAX_VERTEX_ATTRIBUTES];
+    private final int[] viewport = new int[4], scissor = new int[4];
+    private final float[] clearColor = new float[4];
+
+    private int error = NO_ERROR;
+    private int activeTexture, program, framebuffer, renderbuffer;
+    private int depthFunc = LESS, cullFace = BACK, frontFace = CCW;
+    private int blendSrcRGB = ONE, blendDstRGB = ZERO, blendSrcAlpha = ONE, blendDstAlpha = ZERO;
+    private int blendEquationRGB = FUNC_ADD, blendEquationAlpha = FUNC_ADD;
+    private int clearStencil, stencilMask = -1, packAlignment = 4, unpackAlignment = 4;
+    private float clearDepth = 1, lineWidth = 1;
+    private boolean depthMask = true;
+    private long drawCalls;
+
+    /**
+     * Record an error, only the first error is kept until the error is read by {@link #getError()}.
+     * @param error the error e.g. {@link #INVALID_OPERATION}
+     */
+    protected final void setError(int error) {
+        if (this.error == NO_ERROR)
+            this.error = error;
+    }
+
+    /**
+     * Get the number of draw calls since the stub was created or since {@link #resetDrawCalls()}.
+     * @return the number of draw calls
+     */
+    public long getDrawCalls() {
+        return drawCalls;
+    }
+
+    /**
+     * Reset the number of draw calls e.g. at the start of every frame.
+     */
+    public void resetDrawCalls() {
+        drawCalls = 0;
+    }
+
+    /**
+     * Count a draw call.
+     */
+    protected final void draw(int count) {
+        if (count < 0) {
+            setError(INVALID_VALUE);
+            return;
+        }
+        drawCalls++;
+    }
+
+    /**
+     * Get the number of live objects of every kind, useful to find leaked objects.
+     * @return the number of buffers, textures, shaders, programs, framebuffers and renderbuffers that have not been deleted
+     */
+    public int getObjectCount() {
+        return buffers.size() + textures.size() + shaders.size() + programs.size()
+                + framebuffers.size() + renderbuffers.size();
+    }
+
+    /**
+     * Get the buffer bound to a target.
+     * @param target the target e.g. {@link #ARRAY_BUFFER}
+     * @return the name of the buffer or zero if no buffer is bound
+     */
+    public int getBoundBuffer(int target) {
+        return bufferBindings.getOrDefault(target, 0);
+    }
+
+    /**
+     * Get the texture bound to a target of the active texture unit.
+     * @param target the target e.g. {@link #TEXTURE_2D}
+     * @return the name of the texture or zero if no texture is bound
+     */
+    public int getBoundTexture(int target) {
+        return textureBindings[activeTexture].getOrDefault(target, 0);
+    }
+
+    /**
+     * Get the size of a buffer.
+     * @param buffer the name of the buffer
+     * @return the size in bytes or -1 if there is no such buffer
+     */
+    public int getBufferSize(int buffer) {
+        BufferObject object = buffers.get(buffer);
+        return object != null ? object.size : -1;
+    }
+
+    /**
+     * Get the size of the data of a buffer.
+     */
+    static int bytes(Buffer data) {
+        if (data == null)
+            return 0;
+        if (data instanceof ByteBuffer)
+            return data.remaining();
+        if (data instanceof ShortBuffer)
+            return data.remaining() * Short.BYTES;
+        if (data instanceof DoubleBuffer || data instanceof LongBuffer)
+            return data.remaining() * Long.BYTES;
+        return data.remaining() * Integer.BYTES;
+    }
+
+    /**
+     * Generate names into a buffer.
+     */
+    static <T> void generate(Names<T> names, int n, IntBuffer buffer, Supplier<T> factory) {
+        for (int i = 0; i < n; i++) {
+            buffer.put(buffer.position() + i, names.create(factory.get()));
+        }
+    }
+
+    /**
+     * Get the buffer bound to a target, records an error if no buffer is bound.
+     */
+    final BufferObject boundBuffer(int target) {
+        BufferObject object = buffers.get(getBoundBuffer(target));
+        if (object == null)
+            setError(INVALID_OPERATION);
+        return object;
+    }
+
+    /**
+     * Get the texture bound to a target, records an error if no texture is bound.
+     */
+    final TextureObject boundTexture(int target) {
+        TextureObject object = textures.get(getBoundTexture(target));
+        if (object == null)
+            setError(INVALID_OPERATION);
+        return object;
+    }
+
+    /**
+     * Get a program, records an error if there is no such program.
+     */
+    final ProgramObject program(int program) {
+        ProgramObject object = programs.get(program);
+        if (object == null)
+            setError(programs.contains(program) || program == 0 ? INVALID_OPERATION : INVALID_VALUE);
+        return object;
+    }
+
+    /**
+     * Get a shader, records an error if there is no such shader.
+     */
+    final ShaderObject shader(int shader) {
+        ShaderObject object = shaders.get(shader);
+        if (object == null)
+            setError(INVALID_VALUE);
+        return object;
+    }
+
+    /**
+     * Check that a program is in use before setting uniforms.
+     */
+    final boolean uniform(int location) {
+        if (program == 0) {
+            setError(INVALID_OPERATION);
+            return false;
+        }
+        return location != -1;
+    }
+
+    /**
+     * Check that a vertex attribute index is valid.
+     */
+    final boolean attribute(int index) {
+        if (index < 0 || index >= MAX_VERTEX_ATTRIBUTES) {
+            setError(INVALID_VALUE);
+            return false;
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HashMap<Integer, Integer>[] newTextureBindings() {
+        HashMap<Integer, Integer>[] bindings = (HashMap<Integer, Integer>[]) new HashMap<?, ?>[MAX_TEXTURE_UNITS];
+        for (int i = 0; i < bindings.length; i++) {
+            bindings[i] = new HashMap<>();
+        }
+        return bindings;
+    }
+
+    private void unbind(HashMap<Integer, Integer> bindings, int name) {
+        bindings.values().removeIf((Integer bound) -> bound == name);
+    }
+
+    @Override
+    public void activeTexture(int texture) {
+        int unit = texture >= TEXTURE0 ? texture - TEXTURE0 : texture;
+        if (unit < 0 || unit >= MAX_TEXTURE_UNITS) {
+            setError(INVALID_ENUM);
+            return;
+        }
+        activeTexture = unit;
+    }
+
+    @Override
+    public void attachShader(int program, int shader) {
+        ProgramObject object = program(program);
+        if (object != null && shader(shader) != null && !object.shaders.add(shader))
+            setError(INVALID_OPERATION);
+    }
+
+    @Override
+    public void bindAttribLocation(int program, int index, String name) {
+        ProgramObject object = program(program);
+        if (object != null && attribute(index))
+            object.attributes.put(name, index);
+    }
+
+    @Override
+    public void bindBuffer(int target, int buffer) {
+        if (buffer != 0 && !buffers.contains(buffer)) {
+            setError(INVALID_OPERATION);
+            return;
+        }
+        bufferBindings.put(target, buffer);
+    }
+
+    @Override
+    public void bindFramebuffer(int target, int framebuffer) {
+        if (framebuffer != 0 && !framebuffers.contains(framebuffer)) {
+            setError(INVALID_OPERATION);
+            return;
+        }
+        this.framebuffer = framebuffer;
+    }
+
+    @Override
+    public void bindRenderbuffer(int target, int renderbuffer) {
+        if (renderbuffer != 0 && !renderbuffers.contains(renderbuffer)) {
+            setError(INVALID_OPERATION);
+            return;
+        }
+        this.renderbuffer = renderbuffer;
+    }
+
+    @Override
+    public void bindTexture(int target, int texture) {
+        TextureObject object = textures.get(texture);
+        if (texture != 0 && (object == null || (object.target != 0 && object.target != target))) {
+            setError(INVALID_OPERATION);
+            return;
+        }
+        if (object != null)
+            object.target = target;
+        textureBindings[activeTexture].put(target, texture);
+    }
+
+    @Override
+    public void blendColor(float red, float green, float blue, float alpha) {
+    }
+
+    @Override
+    public void blendEquation(int mode) {
+        blendEquationRGB = blendEquationAlpha = mode;
+    }
+
+    @Override
+    public void blendEquationSeparate(int modeRGB, int modeAlpha) {
+        blendEquationRGB = modeRGB;
+        blendEquationAlpha = modeAlpha;
+    }
+
+    @Override
+    public void blendFunc(int sfactor, int dfactor) {
+        blendSrcRGB = blendSrcAlpha = sfactor;
+        blendDstRGB = blendDstAlpha = dfactor;
+    }
+
+    @Override
+    public void blendFuncSeparate(int srcRGB, int dstRGB, int srcAlpha, int dstAlpha) {
+        blendSrcRGB = srcRGB;
+        blendDstRGB = dstRGB;
+        blendSrcAlpha = srcAlpha;
+        blendDstAlpha = dstAlpha;
+    }
+
+    @Override
+    public void bufferData(int target, int size, Buffer data, int usage) {
+        BufferObject object = boundBuffer(target);
+        if (object == null)
+            return;
+        if (object.mapped != null) {
+            setError(INVALID_OPERATION);
+            return;
+        }
+        object.size = data != null ? bytes(data) : size;
+        object.usage = usage;
+    }
+
+    @Override
+    public void bufferSubData(int target, int offset, int size, Buffer data) {
+        BufferObject object = boundBuffer(target);
+        if (object != null && (offset < 0 || offset + bytes(data) > object.size))
+            setError(INVALID_VALUE);
+    }
+
+    @Override
+    public int checkFramebufferStatus(int target) {
+        return FRAMEBUFFER_COMPLETE;
+    }
+
+    @Override
+    public void clear(int mask) {
+    }
+
+    @Override
+    public void clearColor(float red, float green, float blue, float alpha) {
+        clearColor[0] = red;
+        clearColor[1] = green;
+        clearColor[2] = blue;
+        clearColor[3] = alpha;
+    }
+
+    @Override
+    public void clearDepth(float depth) {
+        clearDepth = depth;
+    }
+
+    @Override
+    public void clearStencil(int s) {
+        clearStencil = s;
+    }
+
+    @Override
+    public void colorMask(boolean red, boolean green, boolean blue, boolean alpha) {
+    }
+
+    @Override
+    public void compileShader(int shader) {
+        ShaderObject object = shader(shader);
+        if (object != null)
+            object.compiled = object.source != null;
+    }
+
+    @Override
+    public void compressedTexImage2D(int target, int level, int internalformat, int width, int height, int border,
+                       int imageSize, Buffer data) {
+    }
+
+    @Override
+    public void compressedTexSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height,
+                       int format, int imageSize, Buffer data) {
+    }
+
+    @Override
+    public void copyTexImage2D(int target, int level, int internalformat, int x, int y, int width, int height,
+                       int border) {
+    }
+
+    @Override
+    public void copyTexSubImage2D(int target, int level, int xoffset, int yoffset, int x, int y, int width,
+                       int height) {
+    }
+
+    @Override
+    public int createProgram() {
+        return programs.create(new ProgramObject());
+    }
+
+    @Override
+    public int createShader(int type) {
+        if (type != VERTEX_SHADER && type != FRAGMENT_SHADER) {
+            setError(INVALID_ENUM);
+            return 0;
+        }
+        ShaderObject object = new ShaderObject();
+        object.type = type;
+        return shaders.create(object);
+    }
+
+    @Override
+    public void cullFace(int mode) {
+        cullFace = mode;
+    }
+
+    @Override
+    public void deleteBuffer(int buffer) {
+        if (buffers.delete(buffer))
+            unbind(bufferBindings, buffer);
+    }
+
+    @Override
+    public void deleteBuffers(int n, IntBuffer buffers) {
+        for (int i = 0; i < n; i++) {
+            deleteBuffer(buffers.get(buffers.position() + i));
+        }
+    }
+
+    @Override
+    public void deleteFramebuffer(int framebuffer) {
+        if (framebuffers.delete(framebuffer) && this.framebuffer == framebuffer)
+            this.framebuffer = 0;
+    }
+
+    @Override
+    public void deleteFramebuffers(int n, IntBuffer framebuffers) {
+        for (int i = 0; i < n; i++) {
+            deleteFramebuffer(framebuffers.get(framebuffers.position() + i));
+        }
+    }
+
+    @Override
+    public void deleteProgram(int program) {
+        if (program != 0 && !programs.delete(program))
+            setError(INVALID_VALUE);
+    }
+
+    @Override
+    public void deleteRenderbuffer(int renderbuffer) {
+        if (renderbuffers.delete(renderbuffer) && this.renderbuffer == renderbuffer)
+            this.renderbuffer = 0;
+    }
+
+    @Override
+    public void deleteRenderbuffers(int n, IntBuffer renderbuffers) {
+        for (int i = 0; i < n; i++) {
+            deleteRenderbuffer(renderbuffers.get(renderbuffers.position() + i));
+        }
+    }
+
+    @Override
+    public void deleteShader(int shader) {
+        if (shader != 0 && !shaders.delete(shader))
+            setError(INVALID_VALUE);
+    }
+
+    @Override
+    public void deleteTexture(int texture) {
+        if (textures.delete(texture)) {
+            for (HashMap<Integer, Integer> bindings : textureBindings) {
+                unbind(bindings, texture);
+            }
+        }
+    }
+
+    @Override
+    public void deleteTextures(int n, IntBuffer textures) {
+        for (int i = 0; i < n; i++) {
+            deleteTexture(textures.get(textures.position() + i));
+        }
+    }
+
+    @Override
+    public void depthFunc(int func) {
+        depthFunc = func;
+    }
+
+    @Override
+    public void depthMask(boolean flag) {
+        depthMask = flag;
+    }
+
+    @Override
+    public void depthRangef(float zNear, float zFar) {
+    }
+
+    @Override
+    public void detachShader(int program, int shader) {
+        ProgramObject object = program(program);
+        if (object != null && !object.shaders.remove(shader))
+            setError(INVALID_OPERATION);
+    }
+
+    @Override
+    public void disable(int cap) {
+        capabilities.remove(cap);
+    }
+
+    @Override
+    public void disableVertexAttribArray(int index) {
+        if (attribute(index))
+            vertexAttributes[index] = false;
+    }
+
+    @Override
+    public void drawArrays(int mode, int first, int count) {
+        draw(count);
+    }
+
+    @Override
+    public void drawElements(int mode, int count, int type, Buffer indices) {
+        draw(count);
+    }
+
+    @Override
+    public void drawElements(int mode, int count, int type, int indices) {
+        if (getBoundBuffer(ELEMENT_ARRAY_BUFFER) == 0) {
+            setError(INVALID_OPERATION);
+            return;
+        }
+        draw(count);
+    }
+
+    @Override
+    public void enable(int cap) {
+        capabilities.add(cap);
+    }
+
+    @Override
+    public void enableVertexAttribArray(int index) {
+        if (attribute(index))
+            vertexAttributes[index] = true;
+    }
+
+    @Override
+    public void finish() {
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void framebufferRenderbuffer(int target, int attachment, int renderbuffertarget, int renderbuffer) {
+    }
+
+    @Override
+    public void framebufferTexture2D(int target, int attachment, int textarget, int texture, int level) {
+    }
+
+    @Override
+    public void frontFace(int mode) {
+        frontFace = mode;
+    }
+
+    @Override
+    public int genBuffer() {
+        return buffers.create(new BufferObject());
+    }
+
+    @Override
+    public void genBuffers(int n, IntBuffer buffers) {
+        generate(this.buffers, n, buffers, BufferObject::new);
+    }
+
+    @Override
+    public void generateMipmap(int target) {
+        boundTexture(target);
+    }
+
+    @Override
+    public int genFramebuffer() {
+        return framebuffers.create(new Object());
+    }
+
+    @Override
+    public void genFramebuffers(int n, IntBuffer framebuffers) {
+        generate(this.framebuffers, n, framebuffers, Object::new);
+    }
+
+    @Override
+    public int genRenderbuffer() {
+        return renderbuffers.create(new Object());
+    }
+
+    @Override
+    public void genRenderbuffers(int n, IntBuffer renderbuffers) {
+        generate(this.renderbuffers, n, renderbuffers, Object::new);
+    }
+
+    @Override
+    public int genTexture() {
+        return textures.create(new TextureObject());
+    }
+
+    @Override
+    public void genTextures(int n, IntBuffer textures) {
+        generate(this.textures, n, textures, TextureObject::new);
+    }
+
+    @Override
+    public String getActiveAttrib(int program, int index, IntBuffer size, Buffer type) {
+        setError(INVALID_VALUE);
+        return "";
+    }
+
+    @Override
+    public String getActiveUniform(int program, int index, IntBuffer size, Buffer type) {
+        setError(INVALID_VALUE);
+        return "";
+    }
+
+    @Override
+    public void getAttachedShaders(int program, int maxcount, Buffer count, IntBuffer shaders) {
+        ProgramObject object = program(program);
+        if (object == null)
+            return;
+        int i = 0;
+        for (int shader : object.shaders) {
+            if (i == maxcount)
+                break;
+            shaders.put(shaders.position() + i++, shader);
+        }
+        if (count instanceof IntBuffer)
+            ((IntBuffer) count).put(count.position(), i);
+    }
+
+    @Override
+    public int getAttribLocation(int program, String name) {
+        ProgramObject object = program(program);
+        if (object == null || !object.linked) {
+            setError(INVALID_OPERATION);
+            return -1;
+        }
+        Integer location = object.attributes.get(name);
+        if (location == null) {
+            location = object.attributes.size();
+            if (location >= MAX_VERTEX_ATTRIBUTES)
+                return -1;
+            object.attributes.put(name, location);
+        }
+        return location;
+    }
+
+    @Override
+    public void getBooleanv(int pname, Buffer params) {
+        boolean value;
+        if (pname == DEPTH_WRITEMASK)
+            value = depthMask;
+        else if (pname == DEPTH_TEST || pname == CULL_FACE || pname == BLEND || pname == STENCIL_TEST || pname == SCISSOR_TEST)
+            value = capabilities.contains(pname);
+        else
+            value = getInteger(pname) != 0;
+        if (params instanceof ByteBuffer)
+            ((ByteBuffer) params).put(params.position(), (byte) (value ? TRUE : FALSE));
+        else if (params instanceof IntBuffer)
+            ((IntBuffer) params).put(params.position(), value ? TRUE : FALSE);
+    }
+
+    @Override
+    public void getBufferParameteriv(int target, int pname, IntBuffer params) {
+        BufferObject object = boundBuffer(target);
+        if (object == null)
+            return;
+        if (pname == BUFFER_SIZE)
+            params.put(params.position(), object.size);
+        else if (pname == BUFFER_USAGE)
+            params.put(params.position(), object.usage);
+        else
+            setError(INVALID_ENUM);
+    }
+
+    @Override
+    public int getError() {
+        int error = this.error;
+        this.error = NO_ERROR;
+        return error;
+    }
+
+    @Override
+    public float getFloat(int pname) {
+        switch (pname) {
+            case DEPTH_CLEAR_VALUE: return clearDepth;
+            case LINE_WIDTH: return lineWidth;
+            case COLOR_CLEAR_VALUE: return clearColor[0];
+            default: return getInteger(pname);
+        }
+    }
+
+    @Override
+    public void getFloatv(int pname, FloatBuffer params) {
+        if (pname == COLOR_CLEAR_VALUE) {
+            for (int i = 0; i < 4; i++) {
+                params.put(params.position() + i, clearColor[i]);
+            }
+        } else {
+            params.put(params.position(), getFloat(pname));
+        }
+    }
+
+    @Override
+    public void getFramebufferAttachmentParameteriv(int target, int attachment, int pname, IntBuffer params) {
+        params.put(params.position(), 0);
+    }
+
+    @Override
+    public int getInteger(int pname) {
+        switch (pname) {
+            case ACTIVE_TEXTURE: return TEXTURE0 + activeTexture;
+            case ARRAY_BUFFER_BINDING: return getBoundBuffer(ARRAY_BUFFER);
+            case ELEMENT_ARRAY_BUFFER_BINDING: return getBoundBuffer(ELEMENT_ARRAY_BUFFER);
+            case TEXTURE_BINDING_2D: return getBoundTexture(TEXTURE_2D);
+            case TEXTURE_BINDING_CUBE_MAP: return getBoundTexture(TEXTURE_CUBE_MAP);
+            case CURRENT_PROGRAM: return program;
+            case FRAMEBUFFER_BINDING: return framebuffer;
+            case RENDERBUFFER_BINDING: return renderbuffer;
+            case DEPTH_FUNC: return depthFunc;
+            case CULL_FACE_MODE: return cullFace;
+            case FRONT_FACE: return frontFace;
+            case BLEND_SRC_RGB: return blendSrcRGB;
+            case BLEND_DST_RGB: return blendDstRGB;
+            case BLEND_SRC_ALPHA: return blendSrcAlpha;
+            case BLEND_DST_ALPHA: return blendDstAlpha;
+            case BLEND_EQUATION_RGB: return blendEquationRGB;
+            case BLEND_EQUATION_ALPHA: return blendEquationAlpha;
+            case DEPTH_WRITEMASK: return depthMask ? TRUE : FALSE;
+            case STENCIL_CLEAR_VALUE: return clearStencil;
+            case STENCIL_WRITEMASK: return stencilMask;
+            case PACK_ALIGNMENT: return packAlignment;
+            case UNPACK_ALIGNMENT: return unpackAlignment;
+            case MAX_TEXTURE_SIZE: return 8192;
+            case MAX_TEXTURE_IMAGE_UNITS: return MAX_TEXTURE_UNITS / 2;
+            case MAX_COMBINED_TEXTURE_IMAGE_UNITS: return MAX_TEXTURE_UNITS;
+            case MAX_VERTEX_ATTRIBS: return MAX_VERTEX_ATTRIBUTES;
+            case VIEWPORT: return viewport[0];
+            case SCISSOR_BOX: return scissor[0];
+            default:
+                setError(INVALID_ENUM);
+                return 0;
+        }
+    }
+
+    @Override
+    public void getIntegerv(int pname, IntBuffer params) {
+        if (pname == VIEWPORT || pname == SCISSOR_BOX) {
+            int[] box = pname == VIEWPORT ? viewport : scissor;
+            for (int i = 0; i < 4; i++) {
+                params.put(params.position() + i, box[i]);
+            }
+        } else {
+            params.put(params.position(), getInteger(pname));
+        }
+    }
+
+    @Override
+    public String getProgramInfoLog(int program) {
+        program(program);
+        return "";
+    }
+
+    @Override
+    public int getProgrami(int program, int pname) {
+        ProgramObject object = program(program);
+        if (object == null)
+            return 0;
+        switch (pname) {
+            case LINK_STATUS: return object.linked ? TRUE : FALSE;
+            case VALIDATE_STATUS: return object.validated ? TRUE : FALSE;
+            case DELETE_STATUS: return FALSE;
+            case INFO_LOG_LENGTH: return 0;
+            case ATTACHED_SHADERS: return object.shaders.size();
+            case ACTIVE_UNIFORMS: return object.uniforms.size();
+            case ACTIVE_ATTRIBUTES: return object.attributes.size();
+            default:
+                setError(INVALID_ENUM);
+                return 0;
+        }
+    }
+
+    @Override
+    public void getProgramiv(int program, int pname, IntBuffer params) {
+        params.put(params.position(), getProgrami(program, pname));
+    }
+
+    @Override
+    public void getRenderbufferParameteriv(int target, int pname, IntBuffer params) {
+        params.put(params.position(), 0);
+    }
+
+    @Override
+    public String getShaderInfoLog(int shader) {
+        shader(shader);
+        return "";
+    }
+
+    @Override
+    public int getShaderi(int shader, int pname) {
+        ShaderObject object = shader(shader);
+        if (object == null)
+            return 0;
+        switch (pname) {
+            case SHADER_TYPE: return object.type;
+            case COMPILE_STATUS: return object.compiled ? TRUE : FALSE;
+            case DELETE_STATUS: return FALSE;
+            case INFO_LOG_LENGTH: return 0;
+            case SHADER_SOURCE_LENGTH: return object.source != null ? object.source.length() + 1 : 0;
+            default:
+                setError(INVALID_ENUM);
+                return 0;
+        }
+    }
+
+    @Override
+    public void getShaderiv(int shader, int pname, IntBuffer params) {
+        params.put(params.position(), getShaderi(shader, pname));
+    }
+
+    @Override
+    public void getShaderPrecisionFormat(int shadertype, int precisiontype, IntBuffer range, IntBuffer precision) {
+    }
+
+    @Override
+    public String getString(int name) {
+        switch (name) {
+            case VENDOR: return "jx3d";
+            case RENDERER: return "Headless";
+            case VERSION: return "2.0 Headless";
+            case SHADING_LANGUAGE_VERSION: return "1.10";
+            case EXTENSIONS: return "";
+            default:
+                setError(INVALID_ENUM);
+                return null;
+        }
+    }
+
+    @Override
+    public void getTexParameterfv(int target, int pname, FloatBuffer params) {
+        TextureObject object = boundTexture(target);
+        if (object != null)
+            params.put(params.position(), object.parameters.getOrDefault(pname, 0f));
+    }
+
+    @Override
+    public void getTexParameteriv(int target, int pname, IntBuffer params) {
+        TextureObject object = boundTexture(target);
+        if (object != null)
+            params.put(params.position(), object.parameters.getOrDefault(pname, 0f).intValue());
+    }
+
+    @Override
+    public void getUniformfv(int program, int location, FloatBuffer params) {
+    }
+
+    @Override
+    public void getUniformiv(int program, int location, IntBuffer params) {
+    }
+
+    @Override
+    public int getUniformLocation(int program, String name) {
+        ProgramObject object = program(program);
+        if (object == null || !object.linked) {
+            setError(INVALID_OPERATION);
+            return -1;
+        }
+        return object.uniforms.computeIfAbsent(name, (String key) -> object.uniforms.size());
+    }
+
+    @Override
+    public void getVertexAttribfv(int index, int pname, FloatBuffer params) {
+    }
+
+    @Override
+    public void getVertexAttribiv(int index, int pname, IntBuffer params) {
+        if (attribute(index))
+            params.put(params.position(), pname == VERTEX_ATTRIB_ARRAY_ENABLED && vertexAttributes[index] ? TRUE : FALSE);
+    }
+
+    @Override
+    public void getVertexAttribPointerv(int index, int pname, Buffer pointer) {
+    }
+
+    @Override
+    public void hint(int target, int mode) {
+    }
+
+    @Override
+    public boolean isBuffer(int buffer) {
+        return buffers.contains(buffer);
+    }
+
+    @Override
+    public boolean isEnabled(int cap) {
+        return capabilities.contains(cap);
+    }
+
+    @Override
+    public boolean isFramebuffer(int framebuffer) {
+        return framebuffers.contains(framebuffer);
+    }
+
+    @Override
+    public boolean isProgram(int program) {
+        return programs.contains(program);
+    }
+
+    @Override
+    public boolean isRenderbuffer(int renderbuffer) {
+        return renderbuffers.contains(renderbuffer);
+    }
+
+    @Override
+    public boolean isShader(int shader) {
+        return shaders.contains(shader);
+    }
+
+    @Override
+    public boolean isTexture(int texture) {
+        return textures.contains(texture);
+    }
+
+    @Override
+    public void lineWidth(float width) {
+        if (width <= 0) {
+            setError(INVALID_VALUE);
+            return;
+        }
+        lineWidth = width;
+    }
+
+    @Override
+    public void linkProgram(int program) {
+        ProgramObject object = program(program);
+        if (object == null)
+            return;
+        object.linked = !object.shaders.isEmpty();
+        for (int shader : object.shaders) {
+            ShaderObject attached = shaders.get(shader);
+            if (attached != null && !attached.compiled)
+                object.linked = false;
+        }
+    }
+
+    @Override
+    public ByteBuffer mapBuffer(int target, int access) {
+        BufferObject object = boundBuffer(target);
+        if (object == null)
+            return null;
+        if (object.mapped != null) {
+            setError(INVALID_OPERATION);
+            return null;
+        }
+        object.mapped = ByteBuffer.allocateDirect(object.size).order(ByteOrder.nativeOrder());
+        return object.mapped;
+    }
+
+    @Override
+    public ByteBuffer mapBuffer(int target, int access, long size, ByteBuffer buffer) {
+        return mapBuffer(target, access);
+    }
+
+    @Override
+    public void pixelStorei(int pname, int param) {
+        if (pname == PACK_ALIGNMENT)
+            packAlignment = param;
+        else if (pname == UNPACK_ALIGNMENT)
+            unpackAlignment = param;
+    }
+
+    @Override
+    public void polygonOffset(float factor, float units) {
+    }
+
+    @Override
+    public void readPixels(int x, int y, int width, int height, int format, int type, Buffer pixels) {
+        if (pixels instanceof ByteBuffer) {
+            ByteBuffer bytes = (ByteBuffer) pixels;
+            for (int i = bytes.position(); i < bytes.limit(); i++) {
+                bytes.put(i, (byte) 0);
+            }
+        }
+    }
+
+    @Override
+    public void releaseShaderCompiler() {
+    }
+
+    @Override
+    public void renderbufferStorage(int target, int internalformat, int width, int height) {
+        if (renderbuffer == 0)
+            setError(INVALID_OPERATION);
+    }
+
+    @Override
+    public void sampleCoverage(float value, boolean invert) {
+    }
+
+    @Override
+    public void scissor(int x, int y, int width, int height) {
+        if (width < 0 || height < 0) {
+            setError(INVALID_VALUE);
+            return;
+        }
+        scissor[0] = x;
+        scissor[1] = y;
+        scissor[2] = width;
+        scissor[3] = height;
+    }
+
+    @Override
+    public void shaderBinary(int n, IntBuffer shaders, int binaryformat, Buffer binary, int length) {
+    }
+
+    @Override
+    public void shaderSource(int shader, String string) {
+        ShaderObject object = shader(shader);
+        if (object != null)
+            object.source = string;
+    }
+
+    @Override
+    public void stencilFunc(int func, int ref, int mask) {
+    }
+
+    @Override
+    public void stencilFuncSeparate(int face, int func, int ref, int mask) {
+    }
+
+    @Override
+    public void stencilMask(int mask) {
+        stencilMask = mask;
+    }
+
+    @Override
+    public void stencilMaskSeparate(int face, int mask) {
+        stencilMask = mask;
+    }
+
+    @Override
+    public void stencilOp(int fail, int zfail, int zpass) {
+    }
+
+    @Override
+    public void stencilOpSeparate(int face, int fail, int zfail, int zpass) {
+    }
+
+    @Override
+    public void texImage2D(int target, int level, int internalformat, int width, int height, int border, int format,
+                       int type, Buffer pixels) {
+        TextureObject object = boundTexture(target);
+        if (object == null)
+            return;
+        if (width < 0 || height < 0 || level < 0) {
+            setError(INVALID_VALUE);
+            return;
+        }
+        if (level == 0) {
+            object.width = width;
+            object.height = height;
+        }
+    }
+
+    @Override
+    public void texParameterf(int target, int pname, float param) {
+        TextureObject object = boundTexture(target);
+        if (object != null)
+            object.parameters.put(pname, param);
+    }
+
+    @Override
+    public void texParameterfv(int target, int pname, FloatBuffer params) {
+        texParameterf(target, pname, params.get(params.position()));
+    }
+
+    @Override
+    public void texParameteri(int target, int pname, int param) {
+        TextureObject object = boundTexture(target);
+        if (object != null)
+            object.parameters.put(pname, (float) param);
+    }
+
+    @Override
+    public void texParameteriv(int target, int pname, IntBuffer params) {
+        texParameteri(target, pname, params.get(params.position()));
+    }
+
+    @Override
+    public void texSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height, int format,
+                       int type, Buffer pixels) {
+        TextureObject object = boundTexture(target);
+        if (object != null && (xoffset < 0 || yoffset < 0 || xoffset + width > object.width || yoffset + height > object.height))
+            setError(INVALID_VALUE);
+    }
+
+    @Override
+    public void uniform1f(int location, float x) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform1fv(int location, int count, float[] v, int offset) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform1fv(int location, int count, FloatBuffer v) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform1i(int location, int x) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform1iv(int location, int count, int[] v, int offset) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform1iv(int location, int count, IntBuffer v) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform2f(int location, float x, float y) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform2fv(int location, int count, float[] v, int offset) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform2fv(int location, int count, FloatBuffer v) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform2i(int location, int x, int y) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform2iv(int location, int count, int[] v, int offset) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform2iv(int location, int count, IntBuffer v) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform3f(int location, float x, float y, float z) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform3fv(int location, int count, float[] v, int offset) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform3fv(int location, int count, FloatBuffer v) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform3i(int location, int x, int y, int z) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform3iv(int location, int count, int[] v, int offset) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform3iv(int location, int count, IntBuffer v) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform4f(int location, float x, float y, float z, float w) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform4fv(int location, int count, float[] v, int offset) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform4fv(int location, int count, FloatBuffer v) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform4i(int location, int x, int y, int z, int w) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform4iv(int location, int count, int[] v, int offset) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform4iv(int location, int count, IntBuffer v) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniformMatrix2fv(int location, int count, boolean transpose, float[] value, int offset) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniformMatrix2fv(int location, int count, boolean transpose, FloatBuffer value) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniformMatrix3fv(int location, int count, boolean transpose, float[] value, int offset) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniformMatrix3fv(int location, int count, boolean transpose, FloatBuffer value) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniformMatrix4fv(int location, int count, boolean transpose, float[] value, int offset) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniformMatrix4fv(int location, int count, boolean transpose, FloatBuffer value) {
+        uniform(location);
+    }
+
+    @Override
+    public boolean unmapBuffer(int target) {
+        BufferObject object = boundBuffer(target);
+        if (object == null || object.mapped == null) {
+            setError(INVALID_OPERATION);
+            return false;
+        }
+        object.mapped = null;
+        return true;
+    }
+
+    @Override
+    public void useProgram(int program) {
+        if (program != 0) {
+            ProgramObject object = program(program);
+            if (object == null || !object.linked) {
+                setError(INVALID_OPERATION);
+                return;
+            }
+        }
+        this.program = program;
+    }
+
+    @Override
+    public void validateProgram(int program) {
+        ProgramObject object = program(program);
+        if (object != null)
+            object.validated = object.linked;
+    }
+
+    @Override
+    public void vertexAttrib1f(int indx, float x) {
+        attribute(indx);
+    }
+
+    @Override
+    public void vertexAttrib1fv(int indx, FloatBuffer values) {
+        attribute(indx);
+    }
+
+    @Override
+    public void vertexAttrib2f(int indx, float x, float y) {
+        attribute(indx);
+    }
+
+    @Override
+    public void vertexAttrib2fv(int indx, FloatBuffer values) {
+        attribute(indx);
+    }
+
+    @Override
+    public void vertexAttrib3f(int indx, float x, float y, float z) {
+        attribute(indx);
+    }
+
+    @Override
+    public void vertexAttrib3fv(int indx, FloatBuffer values) {
+        attribute(indx);
+    }
+
+    @Override
+    public void vertexAttrib4f(int indx, float x, float y, float z, float w) {
+        attribute(indx);
+    }
+
+    @Override
+    public void vertexAttrib4fv(int indx, FloatBuffer values) {
+        attribute(indx);
+    }
+
+    @Override
+    public void vertexAttribPointer(int indx, int size, int type, boolean normalized, int stride, Buffer ptr) {
+        if (attribute(indx) && (size < 1 || size > 4 || stride < 0))
+            setError(INVALID_VALUE);
+    }
+
+    @Override
+    public void vertexAttribPointer(int indx, int size, int type, boolean normalized, int stride, int ptr) {
+        if (!attribute(indx))
+            return;
+        if (size < 1 || size > 4 || stride < 0)
+            setError(INVALID_VALUE);
+        else if (getBoundBuffer(ARRAY_BUFFER) == 0 && ptr != 0)
+            setError(INVALID_OPERATION);
+    }
+
+    @Override
+    public void viewport(int x, int y, int width, int height) {
+        if (width < 0 || height < 0) {
+            setError(INVALID_VALUE);
+            return;
+        }
+        viewport[0] = x;
+        viewport[1] = y;
+        viewport[2] = width;
+        viewport[3] = height;
+    }
+
+}
@@ -0,0 +1,578 @@
+package jx3d.platform.headless;
+
+import jx3d.graphics.opengl.GL30;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.HashMap;
+
+/**
+ * Stub OpenGL 3.x implementation that issues no GPU calls, see {@link HeadlessGL20}.
+ * Vertex arrays, queries, samplers, transform feedbacks and indexed buffer bindings are tracked as well.
+ */
+public class HeadlessGL30 extends HeadlessGL20 implements GL30 {
+
+    final Names<Object> vertexArrays = new Names<>();
+    final Names<Object> queries = new Names<>();
+    final Names<Object> samplers = new Names<>();
+    final Names<Object> transformFeedbacks = new Names<>();
+
+    /**
+     * The buffer bound to each index of the indexed targets e.g. uniform buffers, the key is the target and index.
+     */
+    private final HashMap<Long, Integer> indexedBufferBindings = new HashMap<>();
+
+    /**
+     * The query that is active for each target.
+     */
+    private final HashMap<Integer, Integer> activeQueries = new HashMap<>();
+
+    private int vertexArray, transformFeedback;
+
+    @Override
+    public int getObjectCount() {
+        return super.getObjectCount() + vertexArrays.size() + queries.size() + samplers.size() + transformFeedbacks.size();
+    }
+
+    /**
+     * Get the buffer bound to an index of an indexed target.
+     * @param target the target e.g. {@link #UNIFORM_BUFFER}
+     * @param index the binding index
+     * @return the name of the buffer or zero if no buffer is bound
+     */
+    public int getBoundBuffer(int target, int index) {
+        return indexedBufferBindings.getOrDefault(((long) target << 32) | index, 0);
+    }
+
+    /**
+     * Generate names into an array.
+     */
+    private static void generate(Names<Object> names, int n, int[] array, int offset) {
+        for (int i = 0; i < n; i++) {
+            array[offset + i] = names.create(new Object());
+        }
+    }
+
+    /**
+     * Delete the names in an array.
+     */
+    private static void delete(Names<Object> names, int n, int[] array, int offset) {
+        for (int i = 0; i < n; i++) {
+            names.delete(array[offset + i]);
+        }
+    }
+
+    /**
+     * Delete the names in a buffer.
+     */
+    private static void delete(Names<Object> names, int n, IntBuffer buffer) {
+        for (int i = 0; i < n; i++) {
+            names.delete(buffer.get(buffer.position() + i));
+        }
+    }
+
+    private void bindBufferIndexed(int target, int index, int buffer) {
+        if (buffer != 0 && !buffers.contains(buffer)) {
+            setError(INVALID_OPERATION);
+            return;
+        }
+        indexedBufferBindings.put(((long) target << 32) | index, buffer);
+        bufferBindings.put(target, buffer);
+    }
+
+    @Override
+    public int getInteger(int pname) {
+        switch (pname) {
+            case VERTEX_ARRAY_BINDING: return vertexArray;
+            case MAJOR_VERSION: return 3;
+            case MINOR_VERSION: return 3;
+            case NUM_EXTENSIONS: return 0;
+            case TEXTURE_BINDING_3D: return getBoundTexture(TEXTURE_3D);
+            case TEXTURE_BINDING_2D_ARRAY: return getBoundTexture(TEXTURE_2D_ARRAY);
+            case UNIFORM_BUFFER_BINDING: return getBoundBuffer(UNIFORM_BUFFER);
+            case MAX_UNIFORM_BUFFER_BINDINGS: return 36;
+            default: return super.getInteger(pname);
+        }
+    }
+
+    @Override
+    public String getString(int name) {
+        switch (name) {
+            case VERSION: return "3.3 Headless";
+            case SHADING_LANGUAGE_VERSION: return "3.30";
+            default: return super.getString(name);
+        }
+    }
+
+    @Override
+    public void beginQuery(int target, int id) {
+        if (!queries.contains(id) || activeQueries.containsKey(target)) {
+            setError(INVALID_OPERATION);
+            return;
+        }
+        activeQueries.put(target, id);
+    }
+
+    @Override
+    public void beginTransformFeedback(int primitiveMode) {
+    }
+
+    @Override
+    public void bindBufferBase(int target, int index, int buffer) {
+        bindBufferIndexed(target, index, buffer);
+    }
+
+    @Override
+    public void bindBufferRange(int target, int index, int buffer, int offset, int size) {
+        if (size <= 0 || offset < 0) {
+            setError(INVALID_VALUE);
+            return;
+        }
+        bindBufferIndexed(target, index, buffer);
+    }
+
+    @Override
+    public void bindSampler(int unit, int sampler) {
+        if (sampler != 0 && !samplers.contains(sampler))
+            setError(INVALID_OPERATION);
+    }
+
+    @Override
+    public void bindTransformFeedback(int target, int id) {
+        if (id != 0 && !transformFeedbacks.contains(id)) {
+            setError(INVALID_OPERATION);
+            return;
+        }
+        transformFeedback = id;
+    }
+
+    @Override
+    public void bindVertexArray(int array) {
+        if (array != 0 && !vertexArrays.contains(array)) {
+            setError(INVALID_OPERATION);
+            return;
+        }
+        vertexArray = array;
+    }
+
+    @Override
+    public void blitFramebuffer(int srcX0, int srcY0, int srcX1, int srcY1, int dstX0, int dstY0, int dstX1, int dstY1,
+                       int mask, int filter) {
+    }
+
+    @Override
+    public void clearBufferfi(int buffer, int drawbuffer, float depth, int stencil) {
+    }
+
+    @Override
+    public void clearBufferfv(int buffer, int drawbuffer, FloatBuffer value) {
+    }
+
+    @Override
+    public void clearBufferiv(int buffer, int drawbuffer, IntBuffer value) {
+    }
+
+    @Override
+    public void clearBufferuiv(int buffer, int drawbuffer, IntBuffer value) {
+    }
+
+    @Override
+    public void copyBufferSubData(int readTarget, int writeTarget, int readOffset, int writeOffset, int size) {
+    }
+
+    @Override
+    public void copyTexSubImage3D(int target, int level, int xoffset, int yoffset, int zoffset, int x, int y, int width,
+                       int height) {
+    }
+
+    @Override
+    public void deleteQueries(int n, int[] ids, int offset) {
+        delete(queries, n, ids, offset);
+    }
+
+    @Override
+    public void deleteQueries(int n, IntBuffer ids) {
+        delete(queries, n, ids);
+    }
+
+    @Override
+    public void deleteSamplers(int count, int[] samplers, int offset) {
+        delete(this.samplers, count, samplers, offset);
+    }
+
+    @Override
+    public void deleteSamplers(int count, IntBuffer samplers) {
+        delete(this.samplers, count, samplers);
+    }
+
+    @Override
+    public void deleteTransformFeedbacks(int n, int[] ids, int offset) {
+        delete(transformFeedbacks, n, ids, offset);
+    }
+
+    @Override
+    public void deleteTransformFeedbacks(int n, IntBuffer ids) {
+        delete(transformFeedbacks, n, ids);
+    }
+
+    @Override
+    public void deleteVertexArray(int array) {
+        if (vertexArrays.delete(array) && vertexArray == array)
+            vertexArray = 0;
+    }
+
+    @Override
+    public void deleteVertexArrays(int n, int[] arrays, int offset) {
+        for (int i = 0; i < n; i++) {
+            deleteVertexArray(arrays[offset + i]);
+        }
+    }
+
+    @Override
+    public void deleteVertexArrays(int n, IntBuffer arrays) {
+        for (int i = 0; i < n; i++) {
+            deleteVertexArray(arrays.get(arrays.position() + i));
+        }
+    }
+
+    @Override
+    public void drawArraysInstanced(int mode, int first, int count, int instanceCount) {
+        draw(instanceCount < 0 ? instanceCount : count);
+    }
+
+    @Override
+    public void drawBuffers(int n, IntBuffer bufs) {
+    }
+
+    @Override
+    public void drawElementsInstanced(int mode, int count, int type, int indicesOffset, int instanceCount) {
+        draw(instanceCount < 0 ? instanceCount : count);
+    }
+
+    @Override
+    public void drawRangeElements(int mode, int start, int end, int count, int type, Buffer indices) {
+        draw(end < start ? -1 : count);
+    }
+
+    @Override
+    public void drawRangeElements(int mode, int start, int end, int count, int type, int offset) {
+        draw(end < start ? -1 : count);
+    }
+
+    @Override
+    public void endQuery(int target) {
+        if (activeQueries.remove(target) == null)
+            setError(INVALID_OPERATION);
+    }
+
+    @Override
+    public void endTransformFeedback() {
+    }
+
+    @Override
+    public void flushMappedBufferRange(int target, int offset, int length) {
+    }
+
+    @Override
+    public void framebufferTextureLayer(int target, int attachment, int texture, int level, int layer) {
+    }
+
+    @Override
+    public void genQueries(int n, int[] ids, int offset) {
+        generate(queries, n, ids, offset);
+    }
+
+    @Override
+    public void genQueries(int n, IntBuffer ids) {
+        generate(queries, n, ids, Object::new);
+    }
+
+    @Override
+    public void genSamplers(int count, int[] samplers, int offset) {
+        generate(this.samplers, count, samplers, offset);
+    }
+
+    @Override
+    public void genSamplers(int count, IntBuffer samplers) {
+        generate(this.samplers, count, samplers, Object::new);
+    }
+
+    @Override
+    public void genTransformFeedbacks(int n, int[] ids, int offset) {
+        generate(transformFeedbacks, n, ids, offset);
+    }
+
+    @Override
+    public void genTransformFeedbacks(int n, IntBuffer ids) {
+        generate(transformFeedbacks, n, ids, Object::new);
+    }
+
+    @Override
+    public int genVertexArray() {
+        return vertexArrays.create(new Object());
+    }
+
+    @Override
+    public void genVertexArrays(int n, int[] arrays, int offset) {
+        generate(vertexArrays, n, arrays, offset);
+    }
+
+    @Override
+    public void genVertexArrays(int n, IntBuffer arrays) {
+        generate(vertexArrays, n, arrays, Object::new);
+    }
+
+    @Override
+    public void getActiveUniformBlockiv(int program, int uniformBlockIndex, int pname, IntBuffer params) {
+    }
+
+    @Override
+    public String getActiveUniformBlockName(int program, int uniformBlockIndex) {
+        program(program);
+        setError(INVALID_VALUE);
+        return null;
+    }
+
+    @Override
+    public void getActiveUniformBlockName(int program, int uniformBlockIndex, Buffer length, Buffer uniformBlockName) {
+    }
+
+    @Override
+    public void getActiveUniformsiv(int program, int uniformCount, IntBuffer uniformIndices, int pname,
+                       IntBuffer params) {
+    }
+
+    @Override
+    public void getBufferParameteri64v(int target, int pname, LongBuffer params) {
+    }
+
+    @Override
+    public Buffer getBufferPointerv(int target, int pname) {
+        return null;
+    }
+
+    @Override
+    public int getFragDataLocation(int program, String name) {
+        program(program);
+        return -1;
+    }
+
+    @Override
+    public void getInteger64v(int pname, LongBuffer params) {
+    }
+
+    @Override
+    public void getQueryiv(int target, int pname, IntBuffer params) {
+        if (pname == CURRENT_QUERY)
+            params.put(params.position(), activeQueries.getOrDefault(target, 0));
+        else
+            params.put(params.position(), 0);
+    }
+
+    @Override
+    public void getQueryObjectuiv(int id, int pname, IntBuffer params) {
+        if (!queries.contains(id)) {
+            setError(INVALID_OPERATION);
+            return;
+        }
+        params.put(params.position(), pname == QUERY_RESULT_AVAILABLE ? TRUE : 0);
+    }
+
+    @Override
+    public void getSamplerParameterfv(int sampler, int pname, FloatBuffer params) {
+    }
+
+    @Override
+    public void getSamplerParameteriv(int sampler, int pname, IntBuffer params) {
+    }
+
+    @Override
+    public String getStringi(int name, int index) {
+        setError(INVALID_VALUE);
+        return null;
+    }
+
+    @Override
+    public int getUniformBlockIndex(int program, String uniformBlockName) {
+        program(program);
+        return INVALID_INDEX;
+    }
+
+    @Override
+    public void getUniformIndices(int program, String[] uniformNames, IntBuffer uniformIndices) {
+    }
+
+    @Override
+    public void getUniformuiv(int program, int location, IntBuffer params) {
+    }
+
+    @Override
+    public void getVertexAttribIiv(int index, int pname, IntBuffer params) {
+    }
+
+    @Override
+    public void getVertexAttribIuiv(int index, int pname, IntBuffer params) {
+    }
+
+    @Override
+    public void invalidateFramebuffer(int target, int numAttachments, IntBuffer attachments) {
+    }
+
+    @Override
+    public void invalidateSubFramebuffer(int target, int numAttachments, IntBuffer attachments, int x, int y, int width,
+                       int height) {
+    }
+
+    @Override
+    public boolean isQuery(int id) {
+        return queries.contains(id);
+    }
+
+    @Override
+    public boolean isSampler(int sampler) {
+        return samplers.contains(sampler);
+    }
+
+    @Override
+    public boolean isTransformFeedback(int id) {
+        return transformFeedbacks.contains(id);
+    }
+
+    @Override
+    public boolean isVertexArray(int array) {
+        return vertexArrays.contains(array);
+    }
+
+    @Override
+    public void pauseTransformFeedback() {
+    }
+
+    @Override
+    public void programParameteri(int program, int pname, int value) {
+    }
+
+    @Override
+    public void readBuffer(int mode) {
+    }
+
+    @Override
+    public void renderbufferStorageMultisample(int target, int samples, int internalformat, int width, int height) {
+    }
+
+    @Override
+    public void resumeTransformFeedback() {
+    }
+
+    @Override
+    public void samplerParameterf(int sampler, int pname, float param) {
+    }
+
+    @Override
+    public void samplerParameterfv(int sampler, int pname, FloatBuffer param) {
+    }
+
+    @Override
+    public void samplerParameteri(int sampler, int pname, int param) {
+    }
+
+    @Override
+    public void samplerParameteriv(int sampler, int pname, IntBuffer param) {
+    }
+
+    @Override
+    public void texImage3D(int target, int level, int internalformat, int width, int height, int depth, int border,
+                       int format, int type, Buffer pixels) {
+    }
+
+    @Override
+    public void texImage3D(int target, int level, int internalformat, int width, int height, int depth, int border,
+                       int format, int type, int offset) {
+    }
+
+    @Override
+    public void texSubImage3D(int target, int level, int xoffset, int yoffset, int zoffset, int width, int height,
+                       int depth, int format, int type, Buffer pixels) {
+    }
+
+    @Override
+    public void texSubImage3D(int target, int level, int xoffset, int yoffset, int zoffset, int width, int height,
+                       int depth, int format, int type, int offset) {
+    }
+
+    @Override
+    public void transformFeedbackVaryings(int program, String[] varyings, int bufferMode) {
+    }
+
+    @Override
+    public void uniform1uiv(int location, int count, IntBuffer value) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform3uiv(int location, int count, IntBuffer value) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniform4uiv(int location, int count, IntBuffer value) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniformBlockBinding(int program, int uniformBlockIndex, int uniformBlockBinding) {
+    }
+
+    @Override
+    public void uniformMatrix2x3fv(int location, int count, boolean transpose, FloatBuffer value) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniformMatrix2x4fv(int location, int count, boolean transpose, FloatBuffer value) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniformMatrix3x2fv(int location, int count, boolean transpose, FloatBuffer value) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniformMatrix3x4fv(int location, int count, boolean transpose, FloatBuffer value) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniformMatrix4x2fv(int location, int count, boolean transpose, FloatBuffer value) {
+        uniform(location);
+    }
+
+    @Override
+    public void uniformMatrix4x3fv(int location, int count, boolean transpose, FloatBuffer value) {
+        uniform(location);
+    }
+
+    @Override
+    public void vertexAttribDivisor(int index, int divisor) {
+        attribute(index);
+    }
+
+    @Override
+    public void vertexAttribI4i(int index, int x, int y, int z, int w) {
+        attribute(index);
+    }
+
+    @Override
+    public void vertexAttribI4ui(int index, int x, int y, int z, int w) {
+        attribute(index);
+    }
+
+    @Override
+    public void vertexAttribIPointer(int index, int size, int type, int stride, int offset) {
+        if (attribute(index) && (size < 1 || size > 4 || stride < 0))
+            setError(INVALID_VALUE);
+    }
+
+}
@@ -0,0 +1,151 @@
+package jx3d.platform.headless;
+
+import jx3d.core.Screen;
+import jx3d.core.Window;
+
+/**
+ * Headless window has a size but is never shown, it stays open until {@link #close()} is called.
+ * There is no input, no keys or mouse buttons are ever down.
+ *
+ * @author Aleman778
+ * @since 1.0
+ */
+public class HeadlessWindow extends Window {
+
+    private final String title;
+    private final int width, height;
+    private final Screen screen;
+    private volatile boolean shouldClose;
+
+    /**
+     * Constructor.
+     *
+     * @param title the title of the window
+     * @param width the width of the window
+     * @param height the height of the window
+     */
+    public HeadlessWindow(String title, int width, int height) {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("Invalid window size: " + width + "x" + height);
+
+        this.title = title;
+        this.width = width;
+        this.height = height;
+        this.screen = new HeadlessScreen(width, height);
+    }
+
+    /**
+     * Close the window, the application stops after the current frame.
+     */
+    public void close() {
+        shouldClose = true;
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public Screen getScreen() {
+        return screen;
+    }
+
+    @Override
+    public Screen[] getAllScreens() {
+        return new Screen[] {screen};
+    }
+
+    @Override
+    public boolean shouldClose() {
+        return shouldClose;
+    }
+
+    @Override
+    public boolean isKeyDown(int key) {
+        return false;
+    }
+
+    @Override
+    public boolean isMouseButtonDown(int button) {
+        return false;
+    }
+
+    @Override
+    public float getMouseX() {
+        return 0;
+    }
+
+    @Override
+    public float getMouseY() {
+        return 0;
+    }
+
+    @Override
+    public float getMouseDeltaX() {
+        return 0;
+    }
+
+    @Override
+    public float getMouseDeltaY() {
+        return 0;
+    }
+
+    @Override
+    public void dispose() {
+        shouldClose = true;
+    }
+
+    /**
+     * Screen of the same size as the window.
+     */
+    private static class HeadlessScreen implements Screen {
+
+        private final int width, height;
+
+        HeadlessScreen(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public int getRedBits() {
+            return 8;
+        }
+
+        @Override
+        public int getGreenBits() {
+            return 8;
+        }
+
+        @Override
+        public int getBlueBits() {
+            return 8;
+        }
+
+        @Override
+        public double getRefreshRate() {
+            return 60;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package jx3d.platform.headless;
+
+import jx3d.core.ApplicationListener;
+import jx3d.core.JX3D;
+import jx3d.core.Layer;
+import jx3d.core.Module;
+import jx3d.graphics.CommandBuffer;
+import jx3d.graphics.ShaderException;
+import jx3d.graphics.opengl.GL20;
+import jx3d.graphics.opengl.GLSLShader;
+import jx3d.graphics.opengl.GLVertexBuffer;
+import jx3d.io.event.Event;
+import jx3d.io.event.EventType;
+import jx3d.io.event.KeyEvent;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HeadlessApplicationTest {
+
+    @Test
+    public void frames() {
+        HeadlessConfigurations config = new HeadlessConfigurations();
+        config.maxFrames = 10;
+        TestListener listener = new TestListener();
+        HeadlessApplication app = new HeadlessApplication(config, listener);
+        CountingLayer layer = new CountingLayer();
+        app.pushLayer(layer);
+        app.run();
+
+        assertEquals(1, listener.started);
+        assertEquals(10, listener.updates);
+        assertEquals(10, listener.fixedUpdates);
+        assertEquals(10, layer.fixedUpdates);
+        assertEquals(10, layer.updates);
+        assertEquals(10, layer.rendered);
+        assertEquals(10, app.getFrame());
+        assertEquals(10 / 60.0f, layer.time, 1e-5f);
+    }
+
+    @Test
+    public void queuedEventsDoNotAdvanceFrames() {
+        HeadlessConfigurations config = new HeadlessConfigurations();
+        config.maxFrames = 5;
+        config.coalesceEvents = true;
+        TestListener listener = new TestListener() {
+            @Override
+            public void onUpdate() {
+                super.onUpdate();
+                HeadlessApplication app = (HeadlessApplication) HeadlessApplication.get();
+                for (int i = 0; i < 3; i++) {
+                    app.queueEvent(new KeyEvent("key", EventType.KeyDown, 0, 0, 0, 'a', false));
+                }
+            }
+        };
+        HeadlessApplication app = new HeadlessApplication(config, listener);
+        app.run();
+
+        assertEquals("Events dispatched during a frame do not count as frames", 5, listener.updates);
+        assertEquals(5, app.getFrame());
+    }
+
+    @Test
+    public void exit() {
+        HeadlessConfigurations config = new HeadlessConfigurations();
+        TestListener listener = new TestListener() {
+            @Override
+            public void onUpdate() {
+                if (++updates == 3)
+                    ((HeadlessApplication) HeadlessApplication.get()).exit();
+            }
+        };
+        HeadlessApplication app = new HeadlessApplication(config, listener);
+        app.run();
+
+        assertEquals(3, listener.updates);
+        assertTrue(app.getWindow().shouldClose());
+    }
+
+    @Test
+    public void shader() throws ShaderException {
+        new HeadlessApplication(new HeadlessConfigurations(), new TestListener());
+        HeadlessGL30 gl = (HeadlessGL30) JX3D.gl30;
+
+        GLSLShader shader = new GLSLShader(gl);
+        shader.add(Module.VERTEX_SHADER, "void main() { gl_Position = vec4(0.0); }");
+        shader.enable();
+        shader.set("value", 1.0f);
+        shader.disable();
+        assertEquals(GL20.NO_ERROR, gl.getError());
+
+        try {
+            shader.add(Module.FRAGMENT_SHADER, "");
+            fail();
+        } catch (IllegalStateException e) {
+            // expected, the shader has already been linked
+        }
+        shader.dispose();
+    }
+
+    @Test
+    public void vertexBuffer() {
+        new HeadlessApplication(new HeadlessConfigurations(), new TestListener());
+        HeadlessGL30 gl = (HeadlessGL30) JX3D.gl30;
+        gl.resetDrawCalls();
+
+        GLVertexBuffer buffer = new GLVertexBuffer(GL20.STATIC_DRAW);
+        buffer.bind();
+        buffer.set(new float[] {0, 1, 2, 3});
+        assertEquals(4 * Float.BYTES, gl.getBufferSize(gl.getBoundBuffer(GL20.ARRAY_BUFFER)));
+        gl.drawArrays(GL20.TRIANGLES, 0, 3);
+        buffer.unbind();
+        assertEquals(0, gl.getBoundBuffer(GL20.ARRAY_BUFFER));
+        assertEquals(1, gl.getDrawCalls());
+
+        gl.bindBuffer(GL20.ARRAY_BUFFER, 12345);
+        assertEquals(GL20.INVALID_OPERATION, gl.getError());
+        assertEquals(GL20.NO_ERROR, gl.getError());
+        buffer.dispose();
+    }
+
+    private static class TestListener implements ApplicationListener {
+        int started, updates, fixedUpdates;
+
+        @Override
+        public void onStart() {
+            started++;
+        }
+
+        @Override
+        public void onEvent(Event event) {
+        }
+
+        @Override
+        public void onUpdate() {
+            updates++;
+        }
+
+        @Override
+        public void onFixedUpdate(float timestep) {
+            fixedUpdates++;
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+
+    private static class CountingLayer extends Layer {
+        int updates, fixedUpdates, rendered;
+        float time;
+
+        @Override
+        public void onFixedUpdate(float timestep) {
+            fixedUpdates++;
+            time += timestep;
+        }
+
+        @Override
+        public void onUpdate() {
+            updates++;
+        }
+
+        @Override
+        public void onRender(CommandBuffer commands) {
+            commands.add(() -> rendered++);
+        }
+    }
+}
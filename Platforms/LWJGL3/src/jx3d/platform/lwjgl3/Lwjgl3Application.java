@@ -2,13 +2,18 @@ package jx3d.platform.lwjgl3;
 
 import jx3d.core.*;
 import jx3d.core.Module;
+import jx3d.graphics.CommandBuffer;
 import jx3d.graphics.Context;
 import jx3d.graphics.Context.RenderAPI;
 import jx3d.graphics.Graphics;
+import jx3d.graphics.RenderThread;
 import jx3d.graphics.opengl.GLContext;
 import jx3d.graphics.opengl.GLGraphics;
 import jx3d.io.Files;
 import jx3d.io.Input;
+import jx3d.io.event.ConcurrentEventQueue;
+import jx3d.io.event.EventQueue;
+import jx3d.util.FrameArena;
 import org.lwjgl.glfw.GLFWErrorCallback;
 import org.lwjgl.opengl.GLUtil;
 
@@ -29,25 +34,124 @@ public final class Lwjgl3Application extends Application {
     private ArrayList<Lwjgl3Window> windows;
 
     private Graphics graphics;
+    private Context context;
     private Files files;
     private Input input;
 
+    /**
+     * The fixed timestep used to advance the simulation.
+     */
+    private final FixedTimestep timestep;
+
+    /**
+     * The frame pacer used to limit the frame rate.
+     */
+    private final FramePacer pacer;
+
+    /**
+     * Whether to render on a dedicated render thread, see {@link Lwjgl3Configurations#renderThread}.
+     */
+    private final boolean useRenderThread;
+
+    /**
+     * Whether to render on demand, see {@link Lwjgl3Configurations#renderOnDemand}.
+     */
+    private final boolean renderOnDemand;
+
+    /**
+     * The maximum time in seconds to wait for events, see {@link Lwjgl3Configurations#idleTimeout}.
+     */
+    private final double idleTimeout;
+
+    /**
+     * The background policies, see {@link Lwjgl3Configurations#iconifiedPolicy} and {@link Lwjgl3Configurations#unfocusedPolicy}.
+     */
+    private final int iconifiedPolicy, unfocusedPolicy;
+
+    /**
+     * The frame rates used in the foreground and when throttled or simulating in the background.
+     */
+    private final int targetFrameRate, backgroundFrameRate, updateRate;
+
+    /**
+     * The background policy of the current frame.
+     */
+    private int policy = Lwjgl3Configurations.BACKGROUND_CONTINUE;
+
+    /**
+     * The command buffer used to execute the rendering commands on the main thread when there is no render thread.
+     */
+    private final CommandBuffer commands = new CommandBuffer();
+
+    /**
+     * Whether to print the startup report, see {@link Lwjgl3Configurations#startupReport}.
+     */
+    private final boolean startupReport;
+
     public Lwjgl3Application(Lwjgl3Configurations config, ApplicationListener listener) {
         super(listener);
 
+        jobs = new JobSystem(config.workerThreads);
+        startup = new Startup(jobs);
+        startupReport = config.startupReport;
+        files = new Lwjgl3Files();
+        JX3D.files = files;
+
+        long start = System.nanoTime();
+        listener.onPreload(startup);
+        startup.record("Preload", start);
+
+        start = System.nanoTime();
         initializeGlfw();
+        startup.record("Initialize GLFW", start);
         if (config.title == null) {
             config.title = listener.getClass().getSimpleName();
         }
 
+        if (config.coalesceEvents) {
+            eventQueue = new EventQueue();
+        }
+        postedEvents = new ConcurrentEventQueue(config.postedEventsCapacity);
+        timestep = new FixedTimestep(config.updateRate, config.maxUpdateSteps);
+        targetFrameRate = getTargetFrameRate(config);
+        pacer = new FramePacer(targetFrameRate);
+        useRenderThread = config.renderThread;
+        renderOnDemand = config.renderOnDemand;
+        idleTimeout = config.idleTimeout;
+        iconifiedPolicy = config.iconifiedPolicy;
+        unfocusedPolicy = config.unfocusedPolicy;
+        backgroundFrameRate = config.backgroundFrameRate;
+        updateRate = config.updateRate;
+
+        start = System.nanoTime();
         mainWindow = new Lwjgl3Window(config);
-        files = new Lwjgl3Files();
+        startup.record("Create window", start);
 
+        start = System.nanoTime();
         setupGraphics(config);
+        startup.record("Create context", start);
 
         JX3D.graphics = graphics;
-        JX3D.files = files;
+    }
 
+    /**
+     * Get the frame rate to pace the main loop to, see {@link Lwjgl3Configurations#targetFrameRate}.
+     * Without vertical synchronization the default frame rate is the refresh rate of the screen,
+     * so the main loop does not spin as fast as it can.
+     * @param config the configurations
+     * @return the target frame rate, zero or less if the frame rate is not limited
+     */
+    private static int getTargetFrameRate(Lwjgl3Configurations config) {
+        if (config.targetFrameRate != Module.DEFAULT || config.vSyncEnabled)
+            return config.targetFrameRate;
+
+        int refreshRate = 0;
+        if (config.screen != null) {
+            refreshRate = (int) config.screen.getRefreshRate();
+        } else if (glfwGetPrimaryMonitor() != 0) {
+            refreshRate = (int) new Lwjgl3Screen(glfwGetPrimaryMonitor()).getRefreshRate();
+        }
+        return refreshRate > 0 ? refreshRate : 60;
     }
 
     private void setupGraphics(Lwjgl3Configurations config) {
@@ -56,7 +160,7 @@ public final class Lwjgl3Application extends Application {
             case Module.OPENGL_DEBUG:
                 debug = true;
             case Module.OPENGL: case Module.DEFAULT:
-                new Lwjgl3Context(RenderAPI.OPENGL, config.forwardCompatible, mainWindow.getObject());
+                context = new Lwjgl3Context(RenderAPI.OPENGL, config.forwardCompatible, mainWindow.getObject());
 
                 if (GLContext.hasGL30()) {
                     JX3D.gl30 = new Lwjgl3GL30();
@@ -80,27 +184,140 @@ public final class Lwjgl3Application extends Application {
 
     @Override
     public void run() {
+        long start = System.nanoTime();
         listener.onStart();
+        startup.record("Start", start);
 
         mainWindow.setVisible(true);
-        while (!mainWindow.shouldClose()) {
+        start = System.nanoTime();
+        RenderThread renderThread = useRenderThread ? new RenderThread(context, mainWindow::swapBuffers) : null;
+        CommandBuffer commands = renderThread != null ? renderThread.getCommands() : this.commands;
+        try {
+            long time = System.nanoTime();
+            while (!mainWindow.shouldClose()) {
+                updateBackgroundPolicy();
+                if (policy == Lwjgl3Configurations.BACKGROUND_PAUSE ||
+                        (renderOnDemand && !takeRenderRequest())) {
+                    mainWindow.waitEvents(idleTimeout);
+                    processEvents();
+                    if (renderThread == null) {
+                        updateAssets(null);
+                    }
+                    time = System.nanoTime();
+                    continue;
+                }
 
-            listener.onUpdate();
-            for (Layer layer : layerStack) {
-                layer.onUpdate();
-            }
+                FrameArena.nextFrame();
+                if (renderThread == null) {
+                    updateAssets(null);
+                } else if (policy != Lwjgl3Configurations.BACKGROUND_SIMULATE) {
+                    updateAssets(commands);
+                }
+                profiler.beginFrame();
+                long now = System.nanoTime();
+                int steps = timestep.advance(now - time);
+                time = now;
+
+                float step = timestep.getStep();
+                for (int i = 0; i < steps; i++) {
+                    listener.onFixedUpdate(step);
+                    for (Layer layer : layerStack.snapshot()) {
+                        layer.onFixedUpdate(step);
+                    }
+                }
+                profiler.record(FrameProfiler.FIXED_UPDATE);
 
-            mainWindow.swapBuffers();
-            mainWindow.pollEvents();
+                for (Layer layer : layerStack.snapshot()) {
+                    layer.onSubmitJobs(jobs);
+                }
+                jobs.sync();
+                profiler.record(FrameProfiler.JOBS);
+
+                float alpha = timestep.getAlpha();
+                listener.onUpdate();
+                profiler.record(FrameProfiler.LISTENER_UPDATE);
+                scheduler.update(jobs, alpha, profiler);
+                profiler.record(FrameProfiler.LAYER_UPDATE);
+                if (policy != Lwjgl3Configurations.BACKGROUND_SIMULATE) {
+                    for (Layer layer : layerStack.snapshot()) {
+                        layer.onRender(commands);
+                        profiler.record(layer);
+                    }
 
+                    if (renderThread != null) {
+                        commands = renderThread.submit();
+                    } else {
+                        commands.execute();
+                        commands.clear();
+                        mainWindow.swapBuffers();
+                    }
+                    profiler.record(FrameProfiler.SWAP_BUFFERS);
+                }
+                if (!startup.isFinished()) {
+                    startup.record("First frame", start);
+                    startup.finish();
+                    if (startupReport) {
+                        startup.report(System.out);
+                    }
+                }
+                mainWindow.pollEvents();
+                profiler.record(FrameProfiler.POLL_EVENTS);
+                processEvents();
+                nextFrame();
+                profiler.record(FrameProfiler.PROCESS_EVENTS);
+                pacer.sync();
+                profiler.record(FrameProfiler.SYNC);
+                profiler.endFrame();
+            }
+        } finally {
             try {
-                Thread.sleep(1);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+                if (renderThread != null) {
+                    renderThread.dispose();
+                }
+            } finally {
+                jobs.dispose();
             }
         }
     }
 
+    /**
+     * Update the background policy from the state of the main window, the frame pacer is only changed
+     * when the policy changes. A render is requested when the window returns to the foreground.
+     */
+    private void updateBackgroundPolicy() {
+        int policy = Lwjgl3Configurations.BACKGROUND_CONTINUE;
+        if (mainWindow.isIconified()) {
+            policy = iconifiedPolicy;
+        } else if (!mainWindow.isFocused()) {
+            policy = unfocusedPolicy;
+        }
+        if (policy == this.policy)
+            return;
+
+        switch (policy) {
+            case Lwjgl3Configurations.BACKGROUND_THROTTLE:
+                pacer.setFrameRate(backgroundFrameRate);
+                break;
+            case Lwjgl3Configurations.BACKGROUND_SIMULATE:
+                pacer.setFrameRate(updateRate);
+                break;
+            default:
+                pacer.setFrameRate(targetFrameRate);
+                break;
+        }
+        if (policy == Lwjgl3Configurations.BACKGROUND_CONTINUE) {
+            requestRender();
+        }
+        this.policy = policy;
+    }
+
+    @Override
+    protected void wakeUp() {
+        if (renderOnDemand) {
+            glfwPostEmptyEvent();
+        }
+    }
+
     @Override
     public Graphics getGraphics() {
         return graphics;
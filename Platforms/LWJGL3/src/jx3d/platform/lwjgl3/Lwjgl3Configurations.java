@@ -1,9 +1,33 @@
 package jx3d.platform.lwjgl3;
 
+import jx3d.core.Application;
 import jx3d.core.Module;
 
 public class Lwjgl3Configurations {
 
+    /**
+     * Background policy that keeps running the application as if the window was in the foreground.
+     */
+    public static final int BACKGROUND_CONTINUE = 0;
+
+    /**
+     * Background policy that pauses updates and rendering, the main thread waits for events until
+     * the window is in the foreground again. Fixed updates do not catch up on the paused time.
+     */
+    public static final int BACKGROUND_PAUSE = 1;
+
+    /**
+     * Background policy that keeps updating and rendering but limits the frame rate to
+     * {@link #backgroundFrameRate}, the simulation slows down if it falls too far behind, see {@link #maxUpdateSteps}.
+     */
+    public static final int BACKGROUND_THROTTLE = 2;
+
+    /**
+     * Background policy that keeps the simulation running at the full update rate without rendering or presenting
+     * frames, the frames are paced to the {@link #updateRate} so each frame runs about one fixed update.
+     */
+    public static final int BACKGROUND_SIMULATE = 3;
+
     /**
      * The title of the main window.
      * If set to null the application class name is used instead.
@@ -92,6 +116,61 @@ public class Lwjgl3Configurations {
      */
     public boolean vSyncEnabled = true;
 
+    /**
+     * Whether to execute the rendering commands of the layers on a dedicated render thread that owns the context,
+     * see {@link jx3d.core.Layer#onRender(jx3d.graphics.CommandBuffer)}. The update of the next frame then overlaps
+     * the rendering of the previous frame, which adds at most one frame of latency.
+     */
+    public boolean renderThread = false;
+
+    /**
+     * Whether to only render a new frame after an event has been dispatched or a render has been requested,
+     * see {@link jx3d.core.Application#requestRender()}. Otherwise the main thread waits for events, so idle
+     * tool style applications use next to no CPU or GPU time. Fixed updates are paused while waiting.
+     */
+    public boolean renderOnDemand = false;
+
+    /**
+     * The maximum time in seconds to wait for events at a time when rendering on demand.
+     */
+    public double idleTimeout = 0.5;
+
+    /**
+     * The policy used while the window is iconified, one of {@link #BACKGROUND_CONTINUE}, {@link #BACKGROUND_PAUSE},
+     * {@link #BACKGROUND_THROTTLE} or {@link #BACKGROUND_SIMULATE}.
+     */
+    public int iconifiedPolicy = BACKGROUND_CONTINUE;
+
+    /**
+     * The policy used while the window is visible but does not have input focus,
+     * see {@link #iconifiedPolicy} for the available policies.
+     */
+    public int unfocusedPolicy = BACKGROUND_CONTINUE;
+
+    /**
+     * The number of frames per second while the window is in the background and {@link #BACKGROUND_THROTTLE} is used.
+     */
+    public int backgroundFrameRate = 10;
+
+    /**
+     * The number of fixed updates per second, see {@link jx3d.core.Layer#onFixedUpdate(float)}.
+     */
+    public int updateRate = 60;
+
+    /**
+     * The maximum number of fixed updates in one frame, when the application falls further behind
+     * the remaining time is dropped and the simulation slows down instead.
+     */
+    public int maxUpdateSteps = 5;
+
+    /**
+     * The target number of frames per second, e.g. 144 to pace frames for a 144 Hz display without vertical synchronization.
+     * If set to {@link Module#DEFAULT}, the frame rate is limited by vertical synchronization, or if it is disabled
+     * by the refresh rate of the screen, see {@link #screen}. Set to zero to not limit the frame rate at all,
+     * note that the main loop then never yields and keeps a whole core busy.
+     */
+    public int targetFrameRate = Module.DEFAULT;
+
     /**
      * Number of bits per color channel.
      */
@@ -128,4 +207,34 @@ public class Lwjgl3Configurations {
      * Forward compatible removes deprecated functions.
      */
     public boolean forwardCompatible = false;
+
+    /**
+     * Whether to reuse input event objects from event pools instead of creating new events for each callback.
+     * Listeners that keep references to events after the callback has returned have to call
+     * {@link jx3d.io.event.Event#retain()} and {@link jx3d.io.event.Event#release()} when this is enabled.
+     */
+    public boolean poolEvents = false;
+
+    /**
+     * Whether to coalesce mouse motion and window resize/move events and dispatch them once per frame.
+     * Consecutive mouse motion events are merged and only the latest window resize and move events are kept.
+     */
+    public boolean coalesceEvents = false;
+
+    /**
+     * The maximum number of events that other threads can post to the application between two frames.
+     * @see jx3d.core.Application#postEvent(jx3d.io.event.Event)
+     */
+    public int postedEventsCapacity = Application.DEFAULT_POSTED_EVENTS_CAPACITY;
+
+    /**
+     * The number of worker threads of the job system, see {@link jx3d.core.JobSystem}.
+     * If set to {@link Module#DEFAULT}, one worker is used for each processor except the one running the main thread.
+     */
+    public int workerThreads = Module.DEFAULT;
+
+    /**
+     * Whether to print the startup report after the first frame, see {@link jx3d.core.Startup#report(java.io.PrintStream)}.
+     */
+    public boolean startupReport = false;
 }
@@ -10,9 +10,12 @@ public class Lwjgl3Context extends GLContext {
 
     private GLCapabilities glc;
 
+    private final long window;
+
     public Lwjgl3Context(Context.RenderAPI renderAPI, boolean forwardCompatible, long window) {
         super(renderAPI);
 
+        this.window = window;
         GLFW.glfwMakeContextCurrent(window);
         glc = GL.createCapabilities(forwardCompatible);
         forwardCompat = glc.forwardCompatible;
@@ -35,4 +38,16 @@ public class Lwjgl3Context extends GLContext {
         if (glc.OpenGL45) { minorVersion = 5; }
         if (glc.OpenGL46) { minorVersion = 6; }
     }
+
+    @Override
+    public void makeCurrent() {
+        GLFW.glfwMakeContextCurrent(window);
+        GL.setCapabilities(glc);
+    }
+
+    @Override
+    public void releaseCurrent() {
+        GLFW.glfwMakeContextCurrent(0L);
+        GL.setCapabilities(null);
+    }
 }
@@ -12,6 +12,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.JarURLConnection;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
 
@@ -172,6 +173,35 @@ public class Lwjgl3Files implements Files {
         return null;
     }
 
+    @Override
+    public File resolve(String file) {
+        if (file == null || file.isEmpty())
+            return null;
+        if (file.contains("http://") || file.contains("https://"))
+            return null;
+
+        //Project resource
+        URL url = getClass().getClassLoader().getResource(file);
+        if (url != null) {
+            if (!url.getProtocol().equals("file"))
+                return null;
+            try {
+                return new File(url.toURI());
+            } catch (URISyntaxException e) {
+                return null;
+            }
+        }
+
+        //Local directory
+        File result = new File(local(file).path());
+        if (result.exists())
+            return result;
+
+        //External directory
+        result = new File(external(file).path());
+        return result.exists() ? result : null;
+    }
+
     @Override
     public FileHandle local(String file) {
         return new FileHandle(LOCAL_DIR + file);
@@ -11,6 +11,7 @@ import org.lwjgl.PointerBuffer;
 
 import java.nio.DoubleBuffer;
 import java.nio.IntBuffer;
+import java.util.function.Supplier;
 
 import static jx3d.core.Module.*;
 
@@ -105,6 +106,19 @@ public class Lwjgl3Window extends Window {
      */
     private float prevMouseX, prevMouseY;
 
+    /**
+     * Whether input events are reused from the event pools.
+     */
+    private boolean poolEvents = false;
+
+    /**
+     * Event pools used when {@link #poolEvents} is enabled.
+     */
+    private final EventPool<MouseEvent> mouseEvents = new EventPool<>(MouseEvent::new);
+    private final EventPool<MouseScrollEvent> mouseScrollEvents = new EventPool<>(MouseScrollEvent::new);
+    private final EventPool<KeyEvent> keyEvents = new EventPool<>(KeyEvent::new);
+    private final EventPool<WindowEvent> windowEvents = new EventPool<>(WindowEvent::new);
+
     /**
      * Default constructor.
      */
@@ -161,6 +175,7 @@ public class Lwjgl3Window extends Window {
         decorated = config.windowDecorated;
         floating = config.windowFloating;
         swapInterval = config.vSyncEnabled ? 1 : 0;
+        poolEvents = config.poolEvents;
         screen = config.screen;
         if (screen == null) {
             screen = getScreen();
@@ -187,6 +202,15 @@ public class Lwjgl3Window extends Window {
         glfwPollEvents();
     }
 
+    /**
+     * Wait events blocks until at least one event is stored in the internal event queue
+     * or the timeout has passed, then the events are processed.
+     * @param timeout the maximum time to wait in seconds
+     */
+    public void waitEvents(double timeout) {
+        glfwWaitEventsTimeout(timeout);
+    }
+
     /**
      * Swap buffer is used to change the front buffer to render to and display the other buffer.
      */
@@ -556,6 +580,15 @@ public class Lwjgl3Window extends Window {
         return glfwGetWindowAttrib(object, GLFW_ICONIFIED) == GLFW_TRUE;
     }
 
+    /**
+     * Checks if the window has input focus
+     *
+     * @return focused attribute
+     */
+    public final boolean isFocused() {
+        return glfwGetWindowAttrib(object, GLFW_FOCUSED) == GLFW_TRUE;
+    }
+
     /**
      * Set the minimized (iconified) attribute.
      */
@@ -647,24 +680,25 @@ public class Lwjgl3Window extends Window {
 
         glfwSetMouseButtonCallback(object, (long window, int button, int action, int mods) -> {
             EventType type;
-            String name = "glfw_mouse";
+            String name;
             if (action == GLFW_PRESS) {
                 type = EventType.MousePressed;
-                name += "_pressed";
+                name = "glfw_mouse_pressed";
                 if (firstMouseButton == MOUSE_NOBUTTON) {
                     firstMouseButton = button;
                 }
             } else {
                 type = EventType.MouseReleased;
-                name += "_released";
+                name = "glfw_mouse_released";
                 if (firstMouseButton == button) {
                     firstMouseButton = MOUSE_NOBUTTON;
                 }
             }
 
-            Event event = new MouseEvent(type, name, button, mods, getMouseX(), getMouseY(),
+            MouseEvent event = obtain(mouseEvents, MouseEvent::new);
+            event.set(type, name, button, mods, getMouseX(), getMouseY(),
                     getMouseDeltaX(), getMouseDeltaY(), 0);
-            Application.get().onEvent(event);
+            dispatch(event);
         });
 
         glfwSetCursorPosCallback(object, (long window, double xpos, double ypos) -> {
@@ -674,39 +708,40 @@ public class Lwjgl3Window extends Window {
             mouseY = (float) ypos;
 
             EventType type = EventType.MouseMoved;
-            String name = "glfw_mouse";
+            String name = "glfw_mouse_moved";
             if (firstMouseButton != MOUSE_NOBUTTON) {
                 type = EventType.MouseDragged;
-                name += "_dragged";
-            } else {
-                name += "_moved";
+                name = "glfw_mouse_dragged";
             }
 
-            Event event = new MouseEvent(type, name, firstMouseButton, 0, (float) xpos, (float) ypos,
+            MouseEvent event = obtain(mouseEvents, MouseEvent::new);
+            event.set(type, name, firstMouseButton, 0, (float) xpos, (float) ypos,
                     getMouseDeltaX(), getMouseDeltaY(), 0);
-            Application.get().onEvent(event);
+            dispatch(event);
         });
 
         glfwSetCursorEnterCallback(object, (long window, boolean entered) -> {
             EventType type;
-            String name = "glfw_mouse";
+            String name;
             if (entered) {
                 type = EventType.MouseEntered;
-                name += "_entered";
+                name = "glfw_mouse_entered";
             } else {
                 type = EventType.MouseExited;
-                name += "_exited";
+                name = "glfw_mouse_exited";
             }
 
-            Event event = new MouseEvent(type, name, MOUSE_NOBUTTON, 0, getMouseX(), getMouseY(),
+            MouseEvent event = obtain(mouseEvents, MouseEvent::new);
+            event.set(type, name, MOUSE_NOBUTTON, 0, getMouseX(), getMouseY(),
                     getMouseDeltaX(), getMouseDeltaY(), 0);
-            Application.get().onEvent(event);
+            dispatch(event);
         });
 
         glfwSetScrollCallback(object, (long window, double xoffset, double yoffset) -> {
-            Event event = new MouseScrollEvent("glfw_mouse_scroll", 0, getMouseX(), getMouseY(), getMouseDeltaX(),
+            MouseScrollEvent event = obtain(mouseScrollEvents, MouseScrollEvent::new);
+            event.set("glfw_mouse_scroll", 0, getMouseX(), getMouseY(), getMouseDeltaX(),
                     getMouseDeltaY(), (float) xoffset, (float) yoffset, 0);
-            Application.get().onEvent(event);
+            dispatch(event);
         });
 
         glfwSetKeyCallback(object, (long window, int key, int scancode, int action, int mods) -> {
@@ -717,13 +752,13 @@ public class Lwjgl3Window extends Window {
             boolean repeat = false;
             if (action == GLFW_PRESS) {
                 type = EventType.KeyDown;
-                name += "_pressed";
+                name = "glfw_key_pressed";
             } else if (action == GLFW_RELEASE) {
                 type = EventType.KeyUp;
-                name += "_released";
+                name = "glfw_key_released";
             } else if (action == GLFW_REPEAT) {
                 type = EventType.KeyDown;
-                name += "_repeat";
+                name = "glfw_key_repeat";
                 repeat = true;
             }
 
@@ -735,53 +770,80 @@ public class Lwjgl3Window extends Window {
                 }
             }
 
-            Event event = new KeyEvent(name, type, key, scancode, mods, keyChar, repeat);
-            Application.get().onEvent(event);
+            KeyEvent event = obtain(keyEvents, KeyEvent::new);
+            event.set(name, type, key, scancode, mods, keyChar, repeat);
+            dispatch(event);
         });
 
 
         glfwSetWindowSizeCallback(object, (long window, int width, int height) -> {
             this.width = width;
             this.height = height;
-            Event event = new WindowEvent("glfw_window_resize", EventType.WindowResize, this,
+            WindowEvent event = obtain(windowEvents, WindowEvent::new);
+            event.set("glfw_window_resize", EventType.WindowResize, this,
                     x, y, width, height, isIconified(), isMaximized());
-            Application.get().onEvent(event);
+            dispatch(event);
         });
 
         glfwSetWindowPosCallback(object, (long window, int xpos, int ypos) -> {
             this.x = xpos;
             this.y = ypos;
-            Event event = new WindowEvent("glfw_window_moved", EventType.WindowMoved, this,
+            WindowEvent event = obtain(windowEvents, WindowEvent::new);
+            event.set("glfw_window_moved", EventType.WindowMoved, this,
                     x, y, width, height, isIconified(), isMaximized());
-            Application.get().onEvent(event);
+            dispatch(event);
         });
 
         glfwSetWindowFocusCallback(object, (long window, boolean focused) -> {
             EventType type = focused ? EventType.WindowFocus : EventType.WindowLostFocus;
-            Event event = new WindowEvent("glfw_window_focus", type, this,
+            WindowEvent event = obtain(windowEvents, WindowEvent::new);
+            event.set("glfw_window_focus", type, this,
                     x, y, width, height, isIconified(), isMaximized());
-            Application.get().onEvent(event);
+            dispatch(event);
         });
 
         glfwSetWindowIconifyCallback(object, (long window, boolean iconified) -> {
-            Event event = new WindowEvent("glfw_window_iconify", EventType.WindowIconified, this,
+            WindowEvent event = obtain(windowEvents, WindowEvent::new);
+            event.set("glfw_window_iconify", EventType.WindowIconified, this,
                     x, y, width, height, iconified, isMaximized());
-            Application.get().onEvent(event);
+            dispatch(event);
         });
 
         glfwSetWindowMaximizeCallback(object, (long window, boolean maximized) -> {
-            Event event = new WindowEvent("glfw_window_maximize", EventType.WindowMaximized, this,
+            WindowEvent event = obtain(windowEvents, WindowEvent::new);
+            event.set("glfw_window_maximize", EventType.WindowMaximized, this,
                     x, y, width, height, isIconified(), maximized);
-            Application.get().onEvent(event);
+            dispatch(event);
         });
 
         glfwSetWindowCloseCallback(object, (long window) -> {
-            Event event = new WindowEvent("glfw_window_close", EventType.WindowClose, this,
+            WindowEvent event = obtain(windowEvents, WindowEvent::new);
+            event.set("glfw_window_close", EventType.WindowClose, this,
                     x, y, width, height, isIconified(), isMaximized());
-            Application.get().onEvent(event);
+            dispatch(event);
         });
     }
 
+    /**
+     * Obtain an event for an input callback, either from the event pool
+     * or a new event if event pooling is disabled.
+     * @param pool the event pool to obtain from
+     * @param factory the factory used to create new events
+     * @return the event to use
+     */
+    private <T extends Event> T obtain(EventPool<T> pool, Supplier<T> factory) {
+        return poolEvents ? pool.obtain() : factory.get();
+    }
+
+    /**
+     * Queue an event in the application and release the window's reference to it.
+     * @param event the event to dispatch
+     */
+    private void dispatch(Event event) {
+        Application.get().queueEvent(event);
+        event.release();
+    }
+
     private void setupAttributes() {
         if (x == DEFAULT || y == DEFAULT) {
             glfwGetWindowPos(object, xpos, ypos);
@@ -2,6 +2,9 @@ package sandbox;
 
 import jx3d.core.Application;
 import jx3d.core.ApplicationAdapter;
+import jx3d.core.Startup;
+import jx3d.graphics.Image;
+import jx3d.graphics.Mesh;
 import sandbox.layers.ModelViewerLayer;
 
 /**
@@ -11,9 +14,21 @@ import sandbox.layers.ModelViewerLayer;
  */
 public class TestApplication extends ApplicationAdapter {
 
+    private Startup.Task<Mesh> mesh;
+    private Startup.Task<Image> image;
+    private Startup.Task<String> fragment, vertex;
+
+    @Override
+    public void onPreload(Startup startup) {
+        mesh = startup.loadShape(ModelViewerLayer.MODEL);
+        image = startup.loadImage(ModelViewerLayer.TEXTURE);
+        fragment = startup.loadText(ModelViewerLayer.FRAGMENT_SOURCE);
+        vertex = startup.loadText(ModelViewerLayer.VERTEX_SOURCE);
+    }
+
     @Override
     public void onStart() {
-        ModelViewerLayer layer = new ModelViewerLayer();
+        ModelViewerLayer layer = new ModelViewerLayer(mesh.get(), image.get(), fragment.get(), vertex.get());
         Application.get().pushLayer(layer);
     }
 }
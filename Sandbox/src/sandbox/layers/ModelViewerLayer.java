@@ -1,13 +1,18 @@
 package sandbox.layers;
 
+import jx3d.core.Application;
 import jx3d.core.JX3D;
 import jx3d.core.Layer;
 import jx3d.graphics.*;
+import jx3d.graphics.opengl.GLSLShader;
 import jx3d.graphics.opengl.GLTexture2D;
+import jx3d.io.AssetWatcher;
 import jx3d.io.event.Event;
 import jx3d.io.event.EventDispatcher;
 import jx3d.io.event.EventType;
 import jx3d.math.Transform;
+import jx3d.util.FrameArena;
+import org.joml.Matrix4f;
 import org.joml.Vector3f;
 import sandbox.FreeMoving3DCamera;
 
@@ -29,9 +34,30 @@ public class ModelViewerLayer extends Layer {
     private Graphics g;
     private EventDispatcher dispatcher;
 
-    public ModelViewerLayer() {
-        Mesh mesh = JX3D.files.loadShape("models/lamborghini/lambo.obj");
-        image = JX3D.files.loadImage("models/lamborghini/lambo_diffuse.jpeg");
+    /**
+     * The matrices and draw commands of the two frames that can be in flight, the render thread may still
+     * be drawing the previous frame while the next frame is recorded.
+     */
+    private final Matrix4f[] transforms = {new Matrix4f(), new Matrix4f()};
+    private final Matrix4f[] projections = {new Matrix4f(), new Matrix4f()};
+    private final CommandBuffer.Command[] draws = new CommandBuffer.Command[2];
+    private int frame;
+
+    public static final String MODEL = "models/lamborghini/lambo.obj";
+    public static final String TEXTURE = "models/lamborghini/lambo_diffuse.jpeg";
+    public static final String FRAGMENT_SOURCE = "shaders/basic_fragment.glsl";
+    public static final String VERTEX_SOURCE = "shaders/basic_vertex.glsl";
+
+    /**
+     * Create the model viewer from assets that have been preloaded, only the uploads happen here.
+     *
+     * @param mesh the imported model
+     * @param image the decoded model texture
+     * @param fragment the fragment shader source
+     * @param vertex the vertex shader source
+     */
+    public ModelViewerLayer(Mesh mesh, Image image, String fragment, String vertex) {
+        this.image = image;
 
 
         vbo = VertexBuffer.create(mesh.vertexCount() * 5, STATIC_DRAW);
@@ -62,7 +88,9 @@ public class ModelViewerLayer extends Layer {
 
         vao.put(vbo, attribs);
 
-        shader = JX3D.graphics.loadShader("shaders/basic_fragment.glsl", "shaders/basic_vertex.glsl");
+        shader = new GLSLShader(JX3D.gl20);
+        shader.add(FRAGMENT_SHADER, fragment);
+        shader.add(VERTEX_SHADER, vertex);
         shader.setup();
         shader.enable();
         JX3D.gl30.activeTexture(0);
@@ -74,6 +102,10 @@ public class ModelViewerLayer extends Layer {
         tex.image(image);
         tex.setSample(LINEAR);
 
+        AssetWatcher assets = Application.get().getAssetWatcher();
+        assets.watchShader((GLSLShader) shader, FRAGMENT_SOURCE, VERTEX_SOURCE);
+        assets.watchTexture(tex, TEXTURE);
+
         //Transformation
         t = new Transform();
         t.scale(new Vector3f(0.01f, 0.01f, 0.01f));
@@ -89,14 +121,34 @@ public class ModelViewerLayer extends Layer {
         dispatcher = new EventDispatcher();
         dispatcher.addListener(EventType.MouseDragged, camera3D);
         dispatcher.addListener(EventType.MouseScrolled, camera3D);
+
+        for (int i = 0; i < draws.length; i++) {
+            Matrix4f transform = transforms[i];
+            Matrix4f projection = projections[i];
+            draws[i] = () -> draw(transform, projection);
+        }
     }
 
     @Override
-    public void onUpdate() {
+    public void onRender(CommandBuffer commands) {
+        FrameArena arena = FrameArena.get();
+        int index = frame++ & 1;
+        transforms[index].set(t.getMapping(arena));
+        projections[index].set(camera3D.getMapping(arena));
+        commands.add(draws[index]);
+    }
+
+    /**
+     * Draw the model, executed on the thread that owns the graphics context.
+     *
+     * @param transform the model transform
+     * @param projection the camera mapping
+     */
+    private void draw(Matrix4f transform, Matrix4f projection) {
         JX3D.graphics.background(0.0f, 0.5f, 1.0f, 1.0f);
 
-        shader.set("transform", t.getMapping());
-        shader.set("projection", camera3D.getMapping());
+        shader.set("transform", transform);
+        shader.set("projection", projection);
         shader.enable();
 
         tex.bind();